@@ -2,6 +2,9 @@ package com.example.order.application.port.out;
 
 import com.example.order.domain.model.SkuCode;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -18,6 +21,48 @@ public interface InventoryPort {
      */
     CompletableFuture<InventoryReservationResult> reserveInventory(SkuCode skuCode, int quantity);
 
+    /**
+     * Reserves inventory for several products at once, all or nothing.
+     * Lines of the same SKU are merged into one.
+     *
+     * @param items the quantities to reserve
+     * @return future containing one successful result per SKU, or failing with
+     *         BusinessException INSUFFICIENT_STOCK when any SKU cannot be reserved, in which case
+     *         none stays reserved
+     */
+    CompletableFuture<List<InventoryReservationResult>> reserveAll(List<SkuQuantity> items);
+
+    /**
+     * Releases previously reserved inventory, for several products in one call.
+     * The inventory service applies each release id only once, so a release whose outcome is
+     * unknown, e.g. after a timeout, can be sent again with the same id and the same quantities.
+     *
+     * @param releaseId idempotency key of the release
+     * @param releases  the quantities to return to stock, at most one entry per SKU
+     * @return future completing once the inventory service has accepted the release
+     */
+    CompletableFuture<Void> releaseInventory(String releaseId, List<SkuQuantity> releases);
+
+    /**
+     * A quantity of one product.
+     */
+    record SkuQuantity(SkuCode skuCode, int quantity) {
+        public static SkuQuantity of(String skuCode, int quantity) {
+            return new SkuQuantity(SkuCode.of(skuCode), quantity);
+        }
+
+        /**
+         * Adds up the quantities of lines with the same SKU, keeping the order of first appearance.
+         */
+        public static List<SkuQuantity> merge(List<SkuQuantity> items) {
+            Map<SkuCode, Integer> quantities = new LinkedHashMap<>();
+            items.forEach(item -> quantities.merge(item.skuCode(), item.quantity(), Integer::sum));
+            return quantities.entrySet().stream()
+                    .map(entry -> new SkuQuantity(entry.getKey(), entry.getValue()))
+                    .toList();
+        }
+    }
+
     /**
      * Result of an inventory reservation operation.
      */
@@ -3,7 +3,7 @@ package com.example.order.application.service;
 import com.example.order.application.dto.CreateOrderCommand;
 import com.example.order.application.dto.OrderResult;
 import com.example.order.application.port.in.CreateOrderUseCase;
-import com.example.order.infrastructure.persistence.OrderPersistenceService;
+import com.example.order.infrastructure.persistence.OrderIngestionPipeline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,11 +12,13 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Async implementation of CreateOrderUseCase using Outbox Pattern.
  * This implementation persists the order and outbox event in a single transaction,
  * then returns immediately. The actual processing is done asynchronously by the OutboxPoller.
+ * Concurrent orders share transactions through the {@link OrderIngestionPipeline}.
  *
  * Activated when outbox.enabled=true
  */
@@ -27,10 +29,10 @@ public class AsyncOrderService implements CreateOrderUseCase {
 
     private static final Logger log = LoggerFactory.getLogger(AsyncOrderService.class);
 
-    private final OrderPersistenceService persistenceService;
+    private final OrderIngestionPipeline ingestionPipeline;
 
-    public AsyncOrderService(OrderPersistenceService persistenceService) {
-        this.persistenceService = persistenceService;
+    public AsyncOrderService(OrderIngestionPipeline ingestionPipeline) {
+        this.ingestionPipeline = ingestionPipeline;
     }
 
     @Override
@@ -40,17 +42,18 @@ public class AsyncOrderService implements CreateOrderUseCase {
         // Generate idempotency key from command or use a new one
         String idempotencyKey = generateIdempotencyKey(command);
 
-        try {
-            // This persists order + outbox event in single transaction
-            OrderResult result = persistenceService.createOrderWithOutbox(command, idempotencyKey);
-            log.info("Order accepted for processing: {}", result.orderId());
-            return CompletableFuture.completedFuture(result);
-        } catch (Exception e) {
-            log.error("Failed to create order", e);
-            return CompletableFuture.completedFuture(
-                    OrderResult.failure(null, "Failed to create order: " + e.getMessage())
-            );
-        }
+        // Completes once the order + outbox event have been committed
+        return ingestionPipeline.submit(command, idempotencyKey)
+                .thenApply(result -> {
+                    log.info("Order accepted for processing: {}", result.orderId());
+                    return result;
+                })
+                .exceptionally(throwable -> {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                            throwable.getCause() : throwable;
+                    log.error("Failed to create order", cause);
+                    return OrderResult.failure(null, "Failed to create order: " + cause.getMessage());
+                });
     }
 
     private String generateIdempotencyKey(CreateOrderCommand command) {
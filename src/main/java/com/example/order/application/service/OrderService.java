@@ -5,7 +5,7 @@ import com.example.order.application.dto.CreateOrderCommand.OrderItemDto;
 import com.example.order.application.dto.OrderResult;
 import com.example.order.application.port.in.CreateOrderUseCase;
 import com.example.order.application.port.out.InventoryPort;
-import com.example.order.application.port.out.InventoryPort.InventoryReservationResult;
+import com.example.order.application.port.out.InventoryPort.SkuQuantity;
 import com.example.order.application.port.out.PaymentPort;
 import com.example.order.application.port.out.PaymentPort.PaymentResult;
 import com.example.order.application.port.out.PaymentPort.PaymentStatus;
@@ -17,7 +17,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -67,25 +66,13 @@ public class OrderService implements CreateOrderUseCase {
     private CompletableFuture<Order> reserveInventory(Order order) {
         log.debug("Reserving inventory for order: {}", order.getOrderId());
 
-        // Reserve inventory for each item
-        List<CompletableFuture<InventoryReservationResult>> reservations = new ArrayList<>();
-
-        for (OrderItem item : order.getItems()) {
-            CompletableFuture<InventoryReservationResult> reservation = inventoryPort
-                    .reserveInventory(item.getSkuCode(), item.getQuantity());
-            reservations.add(reservation);
-        }
+        // Reserve inventory for all items at once, all or nothing
+        List<SkuQuantity> items = order.getItems().stream()
+                .map(item -> new SkuQuantity(item.getSkuCode(), item.getQuantity()))
+                .toList();
 
-        // Wait for all reservations to complete
-        return CompletableFuture.allOf(reservations.toArray(new CompletableFuture[0]))
-                .thenApply(v -> {
-                    // Verify all reservations succeeded
-                    for (CompletableFuture<InventoryReservationResult> future : reservations) {
-                        InventoryReservationResult result = future.join();
-                        if (!result.reserved()) {
-                            throw new RuntimeException("Failed to reserve inventory for SKU: " + result.skuCode());
-                        }
-                    }
+        return inventoryPort.reserveAll(items)
+                .thenApply(results -> {
                     order.markInventoryReserved();
                     log.info("Inventory reserved for order: {}", order.getOrderId());
                     return order;
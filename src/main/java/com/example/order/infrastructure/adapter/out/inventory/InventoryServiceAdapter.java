@@ -2,6 +2,8 @@ package com.example.order.infrastructure.adapter.out.inventory;
 
 import com.example.order.application.port.out.InventoryPort;
 import com.example.order.domain.model.SkuCode;
+import com.example.order.infrastructure.adapter.out.inventory.dto.InventoryBatchResponse;
+import com.example.order.infrastructure.adapter.out.inventory.dto.InventoryReleaseRequest;
 import com.example.order.infrastructure.adapter.out.inventory.dto.InventoryRequest;
 import com.example.order.infrastructure.adapter.out.inventory.dto.InventoryResponse;
 import com.example.order.infrastructure.adapter.out.inventory.mapper.InventoryMapper;
@@ -9,35 +11,65 @@ import com.example.order.infrastructure.exception.BusinessException;
 import com.example.order.infrastructure.exception.NonRetryableServiceException;
 import com.example.order.infrastructure.exception.RetryableServiceException;
 import com.example.order.infrastructure.exception.ServiceUnavailableException;
+import com.example.order.infrastructure.saga.InventoryCompensationQueue;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Adapter for inventory service with retry mechanism.
+ * Releases go through their own circuit breaker and retry, so an inventory outage seen by
+ * compensations does not open the breaker guarding reservations, and vice versa.
+ *
+ * Multi-SKU reservations use the batch endpoint, one call for the whole order. If the inventory
+ * service answers it with 404, 405 or 501, each SKU is reserved with its own call instead, and the
+ * batch endpoint is not tried again for {@code services.inventory.batch-unsupported-backoff-ms}.
+ * SKUs reserved before another one failed are released through the
+ * {@link InventoryCompensationQueue}, so the release is stored until the service accepts it.
  */
 @Component
 public class InventoryServiceAdapter implements InventoryPort {
 
     private static final Logger log = LoggerFactory.getLogger(InventoryServiceAdapter.class);
     private static final String SERVICE_NAME = "inventory";
+    private static final Set<Integer> BATCH_UNSUPPORTED_STATUSES = Set.of(404, 405, 501);
 
     private final WebClient webClient;
     private final InventoryMapper mapper;
+    private final InventoryPort self;
+    private final InventoryCompensationQueue compensationQueue;
+    private final long batchUnsupportedBackoffMs;
+
+    private volatile long batchRetryAt = 0;
 
     public InventoryServiceAdapter(
             @Qualifier("inventoryWebClient") WebClient webClient,
-            InventoryMapper mapper) {
+            InventoryMapper mapper,
+            @Lazy InventoryPort self,
+            @Lazy InventoryCompensationQueue compensationQueue,
+            @Value("${services.inventory.batch-unsupported-backoff-ms:600000}") long batchUnsupportedBackoffMs) {
         this.webClient = webClient;
         this.mapper = mapper;
+        // Per-item calls made by this adapter go through the proxy so they keep their retry
+        this.self = self;
+        this.compensationQueue = compensationQueue;
+        this.batchUnsupportedBackoffMs = batchUnsupportedBackoffMs;
     }
 
     @Override
@@ -74,6 +106,181 @@ public class InventoryServiceAdapter implements InventoryPort {
                 .toFuture();
     }
 
+    @Override
+    @Retry(name = "inventoryRetry", fallbackMethod = "reserveAllFallback")
+    public CompletableFuture<List<InventoryReservationResult>> reserveAll(List<SkuQuantity> items) {
+        List<SkuQuantity> merged = SkuQuantity.merge(items);
+        if (merged.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        if (merged.size() == 1 || System.currentTimeMillis() < batchRetryAt) {
+            return reserveEach(merged);
+        }
+        log.debug("Reserving inventory for {} SKUs in one batch", merged.size());
+
+        return webClient.post()
+                .uri("/api/inventory/deduct/batch")
+                .bodyValue(mapper.toBatchRequest(merged))
+                .retrieve()
+                .onStatus(status -> BATCH_UNSUPPORTED_STATUSES.contains(status.value()), response ->
+                        response.releaseBody().then(Mono.error(new BatchUnsupportedException(
+                                response.statusCode().value()))))
+                .onStatus(HttpStatusCode::is4xxClientError, response ->
+                        response.bodyToMono(String.class)
+                                .defaultIfEmpty("")
+                                .flatMap(body -> {
+                                    int statusCode = response.statusCode().value();
+                                    if (statusCode == 409) {
+                                        return Mono.error(new BusinessException(
+                                                "INSUFFICIENT_STOCK",
+                                                "庫存不足: " + body));
+                                    }
+                                    return Mono.error(new NonRetryableServiceException(
+                                            SERVICE_NAME, statusCode,
+                                            "Inventory service error: " + body));
+                                }))
+                .onStatus(HttpStatusCode::is5xxServerError, response ->
+                        response.bodyToMono(String.class)
+                                .defaultIfEmpty("")
+                                .flatMap(body -> Mono.error(new RetryableServiceException(
+                                        SERVICE_NAME, response.statusCode().value(),
+                                        "Inventory service temporarily unavailable"))))
+                .bodyToMono(InventoryBatchResponse.class)
+                .flatMap(response -> response.reserved()
+                        ? Mono.just(response.items().stream().map(mapper::toResult).toList())
+                        : Mono.<List<InventoryReservationResult>>error(
+                                new BusinessException("INSUFFICIENT_STOCK", "庫存不足")))
+                .toFuture()
+                .exceptionallyCompose(throwable -> {
+                    if (unwrap(throwable) instanceof BatchUnsupportedException unsupported) {
+                        batchRetryAt = System.currentTimeMillis() + batchUnsupportedBackoffMs;
+                        log.warn("Inventory service answered the batch reservation with {}, "
+                                + "reserving per SKU", unsupported.statusCode);
+                        return reserveEach(merged);
+                    }
+                    return CompletableFuture.failedFuture(throwable);
+                });
+    }
+
+    /**
+     * Reserves each SKU with its own call. If any of them fails, the SKUs already reserved are
+     * released again so the reservation stays all or nothing. The failure is only reported once
+     * the release was sent; while it is still stored for a later flush, the failure is reported as
+     * {@link ServiceUnavailableException}, which is not retried, so a retry cannot reserve the
+     * same SKUs again before they are returned.
+     */
+    private CompletableFuture<List<InventoryReservationResult>> reserveEach(List<SkuQuantity> items) {
+        List<CompletableFuture<Attempt>> attempts = items.stream()
+                .map(item -> self.reserveInventory(item.skuCode(), item.quantity())
+                        .handle((result, throwable) -> new Attempt(item, result, throwable)))
+                .toList();
+
+        return CompletableFuture.allOf(attempts.toArray(new CompletableFuture[0]))
+                .thenCompose(ignored -> {
+                    List<InventoryReservationResult> results = new ArrayList<>(items.size());
+                    List<SkuQuantity> reserved = new ArrayList<>(items.size());
+                    Throwable failure = null;
+                    for (CompletableFuture<Attempt> future : attempts) {
+                        Attempt attempt = future.join();
+                        if (attempt.failure() != null) {
+                            failure = failure != null ? failure : unwrap(attempt.failure());
+                        } else if (attempt.result().reserved()) {
+                            results.add(attempt.result());
+                            reserved.add(attempt.item());
+                        } else if (failure == null) {
+                            failure = new BusinessException("INSUFFICIENT_STOCK",
+                                    "庫存不足: " + attempt.item().skuCode().getValue());
+                        }
+                    }
+                    if (failure == null) {
+                        return CompletableFuture.completedFuture(results);
+                    }
+                    if (reserved.isEmpty()) {
+                        return CompletableFuture.<List<InventoryReservationResult>>failedFuture(failure);
+                    }
+                    return undo(reserved, failure);
+                });
+    }
+
+    private CompletableFuture<List<InventoryReservationResult>> undo(List<SkuQuantity> reserved, Throwable failure) {
+        String reference = UUID.randomUUID().toString();
+        log.info("Releasing {} SKUs reserved before another SKU failed, release {}", reserved.size(), reference);
+
+        CompletableFuture<Boolean> release;
+        try {
+            release = compensationQueue.release(reference, reserved);
+        } catch (Exception e) {
+            release = CompletableFuture.failedFuture(e);
+        }
+        return release
+                .exceptionally(throwable -> {
+                    log.error("Failed to store release {} of partially reserved inventory {}: {}",
+                            reference, reserved, throwable.getMessage());
+                    return false;
+                })
+                .thenCompose(released -> {
+                    if (released || failure instanceof BusinessException
+                            || failure instanceof NonRetryableServiceException) {
+                        return CompletableFuture.failedFuture(failure);
+                    }
+                    log.warn("Release {} is still pending, not retrying the reservation", reference);
+                    return CompletableFuture.failedFuture(new ServiceUnavailableException(
+                            SERVICE_NAME, "庫存確認暫時無法完成，請稍後重試", failure));
+                });
+    }
+
+    @Override
+    @CircuitBreaker(name = "inventoryReleaseCB")
+    @Retry(name = "inventoryReleaseRetry")
+    public CompletableFuture<Void> releaseInventory(String releaseId, List<SkuQuantity> releases) {
+        log.debug("Releasing inventory for {} SKUs, release {}", releases.size(), releaseId);
+
+        InventoryReleaseRequest request = mapper.toReleaseRequest(releases);
+
+        return webClient.post()
+                .uri("/api/inventory/release")
+                .header("Idempotency-Key", releaseId)
+                .bodyValue(request)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, response ->
+                        response.bodyToMono(String.class)
+                                .defaultIfEmpty("")
+                                .flatMap(body -> Mono.error(new NonRetryableServiceException(
+                                        SERVICE_NAME, response.statusCode().value(),
+                                        "Inventory release rejected: " + body))))
+                .onStatus(HttpStatusCode::is5xxServerError, response ->
+                        response.bodyToMono(String.class)
+                                .defaultIfEmpty("")
+                                .flatMap(body -> Mono.error(new RetryableServiceException(
+                                        SERVICE_NAME, response.statusCode().value(),
+                                        "Inventory service temporarily unavailable"))))
+                .toBodilessEntity()
+                .then()
+                .toFuture();
+    }
+
+    /**
+     * Fallback method when all retries of a batch reservation are exhausted.
+     */
+    @SuppressWarnings("unused")
+    private CompletableFuture<List<InventoryReservationResult>> reserveAllFallback(
+            List<SkuQuantity> items, Throwable throwable) {
+
+        log.error("Batch inventory reservation failed after retries for {} SKUs, cause: {}",
+                items.size(), throwable.getMessage());
+
+        if (throwable instanceof BusinessException || throwable instanceof NonRetryableServiceException
+                || throwable instanceof ServiceUnavailableException) {
+            return CompletableFuture.failedFuture(throwable);
+        }
+
+        return CompletableFuture.failedFuture(
+                new ServiceUnavailableException(
+                        SERVICE_NAME,
+                        "庫存確認暫時無法完成，請稍後重試",
+                        throwable));
+    }
+
     /**
      * Fallback method when all retries are exhausted.
      */
@@ -101,4 +308,25 @@ public class InventoryServiceAdapter implements InventoryPort {
                         "庫存確認暫時無法完成，請稍後重試",
                         throwable));
     }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ?
+                throwable.getCause() : throwable;
+    }
+
+    private record Attempt(SkuQuantity item, InventoryReservationResult result, Throwable failure) {
+    }
+
+    /**
+     * The inventory service has no batch reservation endpoint.
+     */
+    private static class BatchUnsupportedException extends RuntimeException {
+
+        private final int statusCode;
+
+        BatchUnsupportedException(int statusCode) {
+            super("Batch reservation not supported (HTTP " + statusCode + ")");
+            this.statusCode = statusCode;
+        }
+    }
 }
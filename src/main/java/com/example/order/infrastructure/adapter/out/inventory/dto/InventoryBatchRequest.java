@@ -0,0 +1,14 @@
+package com.example.order.infrastructure.adapter.out.inventory.dto;
+
+import java.util.List;
+
+/**
+ * Request DTO for reserving inventory of several products in one call.
+ */
+public record InventoryBatchRequest(
+        List<InventoryRequest> items
+) {
+    public static InventoryBatchRequest of(List<InventoryRequest> items) {
+        return new InventoryBatchRequest(items);
+    }
+}
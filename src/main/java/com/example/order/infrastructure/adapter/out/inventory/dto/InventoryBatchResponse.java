@@ -0,0 +1,12 @@
+package com.example.order.infrastructure.adapter.out.inventory.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO from the inventory service's batch reservation.
+ */
+public record InventoryBatchResponse(
+        boolean reserved,
+        List<InventoryResponse> items
+) {
+}
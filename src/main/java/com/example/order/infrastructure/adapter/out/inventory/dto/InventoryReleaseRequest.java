@@ -0,0 +1,14 @@
+package com.example.order.infrastructure.adapter.out.inventory.dto;
+
+import java.util.List;
+
+/**
+ * Request DTO for releasing reserved inventory of several products.
+ */
+public record InventoryReleaseRequest(
+        List<InventoryRequest> items
+) {
+    public static InventoryReleaseRequest of(List<InventoryRequest> items) {
+        return new InventoryReleaseRequest(items);
+    }
+}
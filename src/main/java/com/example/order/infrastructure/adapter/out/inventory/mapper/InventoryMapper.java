@@ -1,11 +1,16 @@
 package com.example.order.infrastructure.adapter.out.inventory.mapper;
 
 import com.example.order.application.port.out.InventoryPort.InventoryReservationResult;
+import com.example.order.application.port.out.InventoryPort.SkuQuantity;
 import com.example.order.domain.model.SkuCode;
+import com.example.order.infrastructure.adapter.out.inventory.dto.InventoryBatchRequest;
+import com.example.order.infrastructure.adapter.out.inventory.dto.InventoryReleaseRequest;
 import com.example.order.infrastructure.adapter.out.inventory.dto.InventoryRequest;
 import com.example.order.infrastructure.adapter.out.inventory.dto.InventoryResponse;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Mapper between domain objects and inventory service DTOs.
  */
@@ -16,6 +21,14 @@ public class InventoryMapper {
         return InventoryRequest.of(skuCode.getValue(), quantity);
     }
 
+    public InventoryBatchRequest toBatchRequest(List<SkuQuantity> items) {
+        return InventoryBatchRequest.of(toRequests(items));
+    }
+
+    public InventoryReleaseRequest toReleaseRequest(List<SkuQuantity> releases) {
+        return InventoryReleaseRequest.of(toRequests(releases));
+    }
+
     public InventoryReservationResult toResult(InventoryResponse response) {
         return new InventoryReservationResult(
                 response.skuCode(),
@@ -25,4 +38,10 @@ public class InventoryMapper {
                 null
         );
     }
+
+    private List<InventoryRequest> toRequests(List<SkuQuantity> items) {
+        return items.stream()
+                .map(item -> toRequest(item.skuCode(), item.quantity()))
+                .toList();
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.order.infrastructure.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a scheduled method on only one instance at a time, via a lease in the job_locks table.
+ * Instances that cannot take the lease skip the run.
+ *
+ * Durations accept property placeholders and either ISO-8601 ({@code PT55M}) or simple
+ * ({@code 55m}) values. For a job that should run once per period, set
+ * {@link #lockAtLeastFor()} a little below the period.
+ *
+ * @see ClusterLockAspect
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ClusterLock {
+
+    /**
+     * Lock name, unique per job.
+     */
+    String name();
+
+    /**
+     * How long the lease lasts if the holder dies while running the job.
+     */
+    String lockAtMostFor();
+
+    /**
+     * How long the lease lasts at minimum after it was taken, even if the job finished sooner.
+     */
+    String lockAtLeastFor() default "0s";
+}
@@ -0,0 +1,63 @@
+package com.example.order.infrastructure.config;
+
+import com.example.order.infrastructure.service.JobLockService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Applies {@link ClusterLock} through the {@link JobLockService}.
+ *
+ * Runs outside the job's transaction and outside {@link ScheduledJobMetrics}, so skipped runs
+ * are not measured as job runs. With scheduling.cluster-lock.enabled=false every instance runs
+ * every job, as before.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ClusterLockAspect {
+
+    private final JobLockService jobLockService;
+    private final Environment environment;
+    private final boolean enabled;
+
+    public ClusterLockAspect(
+            JobLockService jobLockService,
+            Environment environment,
+            @Value("${scheduling.cluster-lock.enabled:true}") boolean enabled) {
+        this.jobLockService = jobLockService;
+        this.environment = environment;
+        this.enabled = enabled;
+    }
+
+    @Around("@annotation(clusterLock)")
+    public Object lock(ProceedingJoinPoint joinPoint, ClusterLock clusterLock) throws Throwable {
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+
+        Optional<JobLockService.Lease> lease = jobLockService.tryLock(clusterLock.name(),
+                resolve(clusterLock.lockAtMostFor()), resolve(clusterLock.lockAtLeastFor()));
+        if (lease.isEmpty()) {
+            return null;
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            jobLockService.unlock(lease.get());
+        }
+    }
+
+    private Duration resolve(String value) {
+        return DurationStyle.detectAndParse(environment.resolvePlaceholders(value).trim());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.order.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * Identifies this application instance when several pods share the same database.
+ * Used as the owner of outbox leases.
+ */
+@Component
+public class InstanceIdentity {
+
+    private final String id;
+
+    public InstanceIdentity(@Value("${app.instance-id:}") String configuredId) {
+        this.id = configuredId != null && !configuredId.isBlank() ? configuredId : generateId();
+    }
+
+    /**
+     * Returns the unique id of this instance.
+     */
+    public String getId() {
+        return id;
+    }
+
+    private static String generateId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.order.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how late each scheduled job starts and how long it runs.
+ *
+ * {@code @Scheduled} methods are measured automatically. Lateness is the gap between the actual
+ * start and the start implied by the previous run: previous start plus the rate for fixed-rate
+ * jobs, previous end plus the delay for fixed-delay jobs. Jobs scheduled some other way report
+ * through {@link #record}.
+ */
+@Aspect
+@Component
+public class ScheduledJobMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final Map<String, JobState> jobs = new ConcurrentHashMap<>();
+
+    public ScheduledJobMetrics(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+    }
+
+    @Around("@annotation(scheduled)")
+    public Object measure(ProceedingJoinPoint joinPoint, Scheduled scheduled) throws Throwable {
+        String job = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." +
+                joinPoint.getSignature().getName();
+        JobState state = jobs.computeIfAbsent(job, ignored -> new JobState());
+
+        Instant start = Instant.now();
+        Instant expectedStart = state.expectedStart(scheduled, environment);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            Instant end = Instant.now();
+            state.lastStart = start;
+            state.lastEnd = end;
+            record(job, expectedStart, start, Duration.between(start, end));
+        }
+    }
+
+    /**
+     * Records one run of a job.
+     *
+     * @param job           job name used as the {@code job} tag
+     * @param expectedStart when the run was due, or null if unknown (e.g. the first run)
+     * @param start         when the run actually started
+     * @param duration      how long the run took
+     */
+    public void record(String job, Instant expectedStart, Instant start, Duration duration) {
+        Timer.builder("scheduled.job.duration")
+                .description("Run time of a scheduled job")
+                .tag("job", job)
+                .register(meterRegistry)
+                .record(duration);
+
+        if (expectedStart != null) {
+            Duration lateness = Duration.between(expectedStart, start);
+            Timer.builder("scheduled.job.lateness")
+                    .description("How much later than due a scheduled job started")
+                    .tag("job", job)
+                    .register(meterRegistry)
+                    .record(lateness.isNegative() ? Duration.ZERO : lateness);
+        }
+    }
+
+    private static final class JobState {
+
+        private volatile Instant lastStart;
+        private volatile Instant lastEnd;
+
+        private Instant expectedStart(Scheduled scheduled, Environment environment) {
+            if (lastStart == null) {
+                return null;
+            }
+            long rate = resolve(scheduled.fixedRate(), scheduled.fixedRateString(), environment);
+            if (rate > 0) {
+                return lastStart.plusMillis(rate);
+            }
+            long delay = resolve(scheduled.fixedDelay(), scheduled.fixedDelayString(), environment);
+            if (delay > 0) {
+                return lastEnd.plusMillis(delay);
+            }
+            return null;
+        }
+
+        private static long resolve(long value, String expression, Environment environment) {
+            if (value > 0) {
+                return value;
+            }
+            if (StringUtils.hasText(expression)) {
+                try {
+                    return Long.parseLong(environment.resolvePlaceholders(expression).trim());
+                } catch (NumberFormatException e) {
+                    // Duration-style values such as "PT1M" are not measured for lateness
+                    return -1;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.order.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Dedicated schedulers so maintenance jobs never delay the outbox poll loop.
+ *
+ * Jobs pick their scheduler with {@code @Scheduled(scheduler = ...)}:
+ * the outbox poll runs alone on {@code outboxPollScheduler}, outbox housekeeping (lease reaper,
+ * dead-lettering, cleanup, partitions, metrics refresh) shares {@code outboxMaintenanceScheduler},
+ * and idempotency cleanup runs on {@code idempotencyCleanupScheduler}. Anything else uses the
+ * default {@code taskScheduler}.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    public static final String OUTBOX_POLL_SCHEDULER = "outboxPollScheduler";
+    public static final String OUTBOX_MAINTENANCE_SCHEDULER = "outboxMaintenanceScheduler";
+    public static final String IDEMPOTENCY_CLEANUP_SCHEDULER = "idempotencyCleanupScheduler";
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(
+            @Value("${scheduling.default.pool-size:1}") int poolSize) {
+        return scheduler("scheduling-", poolSize);
+    }
+
+    @Bean(OUTBOX_POLL_SCHEDULER)
+    public ThreadPoolTaskScheduler outboxPollScheduler(
+            @Value("${scheduling.outbox-poll.pool-size:1}") int poolSize) {
+        return scheduler("outbox-poll-", poolSize);
+    }
+
+    @Bean(OUTBOX_MAINTENANCE_SCHEDULER)
+    public ThreadPoolTaskScheduler outboxMaintenanceScheduler(
+            @Value("${scheduling.outbox-maintenance.pool-size:2}") int poolSize) {
+        return scheduler("outbox-maintenance-", poolSize);
+    }
+
+    @Bean(IDEMPOTENCY_CLEANUP_SCHEDULER)
+    public ThreadPoolTaskScheduler idempotencyCleanupScheduler(
+            @Value("${scheduling.idempotency-cleanup.pool-size:1}") int poolSize) {
+        return scheduler("idempotency-cleanup-", poolSize);
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(String threadNamePrefix, int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(1, poolSize));
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(10);
+        return scheduler;
+    }
+}
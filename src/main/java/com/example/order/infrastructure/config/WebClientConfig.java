@@ -15,6 +15,7 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Configuration for WebClient instances.
+ * The timeouts also make up the {@link com.example.order.infrastructure.saga.SagaTimeBudget}.
  */
 @Configuration
 public class WebClientConfig {
@@ -28,24 +29,36 @@ public class WebClientConfig {
     @Value("${services.shipping.base-url:http://localhost:8083}")
     private String shippingBaseUrl;
 
+    @Value("${services.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${services.inventory.timeout-ms:4000}")
+    private int inventoryTimeoutMs;
+
+    @Value("${services.payment.timeout-ms:8000}")
+    private int paymentTimeoutMs;
+
+    @Value("${services.shipping.timeout-ms:3000}")
+    private int shippingTimeoutMs;
+
     @Bean
     public WebClient inventoryWebClient(WebClient.Builder builder) {
-        return createWebClient(builder, inventoryBaseUrl, 4000);
+        return createWebClient(builder, inventoryBaseUrl, inventoryTimeoutMs);
     }
 
     @Bean
     public WebClient paymentWebClient(WebClient.Builder builder) {
-        return createWebClient(builder, paymentBaseUrl, 8000);
+        return createWebClient(builder, paymentBaseUrl, paymentTimeoutMs);
     }
 
     @Bean
     public WebClient shippingWebClient(WebClient.Builder builder) {
-        return createWebClient(builder, shippingBaseUrl, 3000);
+        return createWebClient(builder, shippingBaseUrl, shippingTimeoutMs);
     }
 
     private WebClient createWebClient(WebClient.Builder builder, String baseUrl, int timeoutMs) {
         HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 2000)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
                 .responseTimeout(Duration.ofMillis(timeoutMs))
                 .doOnConnected(conn -> conn
                         .addHandlerLast(new ReadTimeoutHandler(timeoutMs, TimeUnit.MILLISECONDS))
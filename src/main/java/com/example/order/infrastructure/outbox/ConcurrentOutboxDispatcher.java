@@ -0,0 +1,247 @@
+package com.example.order.infrastructure.outbox;
+
+import com.example.order.infrastructure.outbox.handler.OutboxEventHandler;
+import com.example.order.infrastructure.outbox.handler.OutboxHandlerRegistry;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs up to {@code outbox.poller.max-in-flight} events at the same time.
+ * Events beyond that limit wait in a small in-memory queue and are started
+ * as soon as an in-flight event completes, so throughput scales with concurrency
+ * instead of downstream latency.
+ *
+ * Each event type has its own lane, limited to the {@link OutboxEventHandler#maxConcurrency()}
+ * of its handler, so a slow type cannot take the slots of the others. A lane queues at most as
+ * many events as it may run; events claimed beyond that go straight back to PENDING without
+ * using a retry. Handlers with a {@link OutboxEventHandler#maxBatchSize()} above 1 are given
+ * queued events of their type together.
+ *
+ * Events are not ordered per aggregate; use {@link ShardedOutboxDispatcher}
+ * (outbox.dispatcher.mode=sharded) when that matters.
+ */
+@Component
+@ConditionalOnExpression("${outbox.poller.enabled:true} and '${outbox.dispatcher.mode:concurrent}' == 'concurrent'")
+public class ConcurrentOutboxDispatcher implements OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrentOutboxDispatcher.class);
+    private static final Duration LANE_FULL_DELAY = Duration.ofSeconds(1);
+
+    private final OutboxEventProcessor processor;
+    private final MeterRegistry meterRegistry;
+    private final int maxInFlight;
+    private final int queueCapacity;
+    private final ExecutorService executor;
+
+    private final Map<String, Lane> lanes = new LinkedHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger(0);
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private volatile Runnable capacityListener = () -> { };
+
+    public ConcurrentOutboxDispatcher(
+            OutboxEventProcessor processor,
+            OutboxHandlerRegistry handlerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.poller.max-in-flight:16}") int maxInFlight) {
+        this.processor = processor;
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.queueCapacity = this.maxInFlight;
+        // Threads only start handlers; the remote calls themselves are non-blocking
+        this.executor = Executors.newFixedThreadPool(
+                Math.min(this.maxInFlight, Runtime.getRuntime().availableProcessors() * 2),
+                new CustomizableThreadFactory("outbox-dispatch-"));
+
+        Gauge.builder("outbox.dispatcher.inflight", inFlight, AtomicInteger::get)
+                .description("Outbox events currently being processed")
+                .register(meterRegistry);
+        Gauge.builder("outbox.dispatcher.queue.depth", queued, AtomicInteger::get)
+                .description("Claimed outbox events waiting for a free dispatch slot")
+                .register(meterRegistry);
+
+        for (OutboxEventHandler handler : handlerRegistry.getHandlers()) {
+            lanes.put(handler.eventType(), createLane(handler));
+        }
+    }
+
+    @Override
+    public int availableCapacity() {
+        return Math.max(0, maxInFlight + queueCapacity - inFlight.get() - queued.get());
+    }
+
+    @Override
+    public void dispatch(OutboxEvent event) {
+        Lane lane = event.getEventType() != null ? lanes.get(event.getEventType()) : null;
+        if (lane == null) {
+            // No handler: the processor marks the event FAILED
+            processor.process(event);
+            return;
+        }
+
+        boolean accepted;
+        synchronized (this) {
+            accepted = lane.queue.size() < lane.queueCapacity;
+            if (accepted) {
+                lane.queue.offer(event);
+                queued.incrementAndGet();
+            }
+        }
+        if (!accepted) {
+            lane.deferred.increment();
+            processor.defer(event, "No free " + lane.eventType + " handler slot", Instant.now().plus(LANE_FULL_DELAY));
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onCapacityAvailable(Runnable listener) {
+        this.capacityListener = listener;
+    }
+
+    /**
+     * Starts queued events while there are free slots, one batch per lane in turn.
+     * Called on every dispatch and whenever in-flight events complete.
+     */
+    private void drain() {
+        List<Runnable> starts = new ArrayList<>();
+        synchronized (this) {
+            boolean started = true;
+            while (started) {
+                started = false;
+                for (Lane lane : lanes.values()) {
+                    int count = Math.min(lane.queue.size(), Math.min(lane.batchSize,
+                            Math.min(lane.maxConcurrency - lane.inFlight.get(), maxInFlight - inFlight.get())));
+                    if (count <= 0) {
+                        continue;
+                    }
+                    List<OutboxEvent> batch = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        batch.add(lane.queue.poll());
+                    }
+                    lane.inFlight.addAndGet(count);
+                    inFlight.addAndGet(count);
+                    queued.addAndGet(-count);
+                    starts.add(() -> start(lane, batch));
+                    started = true;
+                }
+            }
+        }
+        starts.forEach(Runnable::run);
+    }
+
+    private void start(Lane lane, List<OutboxEvent> batch) {
+        try {
+            CompletableFuture.supplyAsync(() -> processor.process(lane.handler, batch), executor)
+                    .thenCompose(future -> future)
+                    .whenComplete((ignored, throwable) -> {
+                        if (throwable != null) {
+                            log.error("Dispatch of {} {} outbox events terminated unexpectedly",
+                                    batch.size(), lane.eventType, throwable);
+                        }
+                        completed(lane, batch.size());
+                    });
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the events stay PROCESSING in the database
+            log.warn("Outbox dispatcher is shut down, dropping {} {} events", batch.size(), lane.eventType);
+            lane.inFlight.addAndGet(-batch.size());
+            inFlight.addAndGet(-batch.size());
+        }
+    }
+
+    private void completed(Lane lane, int count) {
+        lane.inFlight.addAndGet(-count);
+        inFlight.addAndGet(-count);
+        drain();
+        if (queued.get() == 0) {
+            notifyCapacityAvailable();
+        }
+    }
+
+    private Lane createLane(OutboxEventHandler handler) {
+        String eventType = handler.eventType();
+        Counter deferred = Counter.builder("outbox.handler.deferred")
+                .description("Claimed outbox events returned to PENDING because their lane was full")
+                .tag("event_type", eventType)
+                .register(meterRegistry);
+        Lane lane = new Lane(handler, Math.min(Math.max(1, handler.maxConcurrency()), maxInFlight), deferred);
+        Gauge.builder("outbox.handler.inflight", lane.inFlight, AtomicInteger::get)
+                .description("Outbox events of this type currently being processed")
+                .tag("event_type", eventType)
+                .register(meterRegistry);
+        Gauge.builder("outbox.handler.queue.depth", lane.queue, Queue::size)
+                .description("Claimed outbox events of this type waiting for a handler slot")
+                .tag("event_type", eventType)
+                .register(meterRegistry);
+        return lane;
+    }
+
+    private void notifyCapacityAvailable() {
+        try {
+            capacityListener.run();
+        } catch (Exception e) {
+            log.warn("Outbox capacity listener failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Stopping outbox dispatcher. In-flight: {}, queued: {}", inFlight.get(), queued.get());
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Queue and in-flight count of one event type; the queue is guarded by the dispatcher's lock.
+     */
+    private static final class Lane {
+        private final String eventType;
+        private final OutboxEventHandler handler;
+        private final int maxConcurrency;
+        private final int queueCapacity;
+        private final int batchSize;
+        private final Queue<OutboxEvent> queue = new ArrayDeque<>();
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+        private final Counter deferred;
+
+        private Lane(OutboxEventHandler handler, int maxConcurrency, Counter deferred) {
+            this.eventType = handler.eventType();
+            this.handler = handler;
+            this.maxConcurrency = maxConcurrency;
+            this.queueCapacity = maxConcurrency;
+            this.batchSize = Math.max(1, handler.maxBatchSize());
+            this.deferred = deferred;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.order.infrastructure.outbox;
+
+import com.example.order.infrastructure.exception.ServiceUnavailableException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pauses outbox claims while a circuit breaker the saga depends on is not closed.
+ *
+ * While any of {@code outbox.dispatch.required-circuit-breakers} is OPEN no events are claimed,
+ * so they stay PENDING without running a saga that would fail at that downstream. Once a breaker
+ * is HALF_OPEN, claims are limited to the trial calls it still permits; the
+ * {@link OutboxPollController} then grows the batch back as polls succeed.
+ *
+ * Breakers here are not configured to move to HALF_OPEN on their own, so an OPEN breaker is
+ * probed for a permission, which performs that transition, once its wait duration has elapsed.
+ * It is not probed before then, so polls do not count as calls the breaker did not permit.
+ *
+ * A failure is blamed on one of these breakers when it was rejected by it
+ * ({@link CallNotPermittedException}) or when its service gave up with a
+ * {@link ServiceUnavailableException}; a service's breaker is named after the service with a
+ * {@code CB} suffix, e.g. {@code paymentCB}. Only breakers that actually guard a downstream call
+ * belong in the list: a breaker no call goes through stays CLOSED and never pauses anything.
+ */
+@Component
+public class OutboxCircuitGate {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxCircuitGate.class);
+
+    private final List<CircuitBreaker> circuitBreakers;
+    // When each breaker last moved to OPEN, to tell how long its wait has left
+    private final Map<String, Instant> openedAt = new ConcurrentHashMap<>();
+
+    private volatile boolean paused = false;
+
+    public OutboxCircuitGate(
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.dispatch.required-circuit-breakers:paymentCB}") List<String> names) {
+        this.circuitBreakers = names.stream()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(circuitBreakerRegistry::circuitBreaker)
+                .toList();
+        circuitBreakers.forEach(circuitBreaker -> circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            if (event.getStateTransition().getToState() == CircuitBreaker.State.OPEN) {
+                openedAt.put(circuitBreaker.getName(), event.getCreationTime().toInstant());
+            }
+        }));
+
+        Gauge.builder("outbox.dispatch.paused", this, gate -> gate.paused ? 1 : 0)
+                .description("Whether outbox claims are paused by an open circuit breaker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns how many events may be claimed given the state of the required circuit breakers.
+     *
+     * @param limit number of events the poller would claim otherwise
+     * @return 0 while a breaker is open, at most the remaining trial calls while one is half-open
+     */
+    public int admit(int limit) {
+        int admitted = limit;
+        for (CircuitBreaker circuitBreaker : circuitBreakers) {
+            admitted = Math.min(admitted, admit(circuitBreaker, limit));
+        }
+
+        boolean nowPaused = admitted == 0 && limit > 0;
+        if (nowPaused != paused) {
+            paused = nowPaused;
+            log.info(nowPaused ? "Outbox dispatch paused by open circuit breaker" : "Outbox dispatch resumed");
+        }
+        return admitted;
+    }
+
+    /**
+     * Tells whether a failure is due to an outage of a required downstream and, if so, when that
+     * downstream's circuit breaker may let calls through again.
+     *
+     * @param failure the exception an event's handler failed with
+     * @return the end of the breaker's open-state wait, or now while it is half-open; empty when
+     * the failure is not blamed on a required breaker that is currently not closed
+     */
+    public Optional<Instant> outageEnd(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            String name = null;
+            if (cause instanceof CallNotPermittedException rejected) {
+                name = rejected.getCausingCircuitBreakerName();
+            } else if (cause instanceof ServiceUnavailableException unavailable) {
+                name = unavailable.getServiceName() + "CB";
+            }
+            if (name != null) {
+                return find(name).flatMap(this::outageEnd);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<CircuitBreaker> find(String name) {
+        return circuitBreakers.stream()
+                .filter(circuitBreaker -> circuitBreaker.getName().equals(name))
+                .findFirst();
+    }
+
+    private Optional<Instant> outageEnd(CircuitBreaker circuitBreaker) {
+        Instant now = Instant.now();
+        return switch (circuitBreaker.getState()) {
+            case OPEN, FORCED_OPEN -> {
+                Instant end = waitEnd(circuitBreaker, now);
+                yield Optional.of(end.isAfter(now) ? end : now);
+            }
+            case HALF_OPEN -> Optional.of(now);
+            default -> Optional.empty();
+        };
+    }
+
+    /**
+     * @return when the breaker's open-state wait ends, or {@code now} if it was opened before
+     * this gate started listening
+     */
+    private Instant waitEnd(CircuitBreaker circuitBreaker, Instant now) {
+        Instant opened = openedAt.get(circuitBreaker.getName());
+        if (opened == null) {
+            return now;
+        }
+        Long waitMs = circuitBreaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1);
+        return opened.plus(Duration.ofMillis(waitMs != null ? waitMs : 0));
+    }
+
+    private int admit(CircuitBreaker circuitBreaker, int limit) {
+        if (circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+            Instant now = Instant.now();
+            if (waitEnd(circuitBreaker, now).isAfter(now)) {
+                return 0;
+            }
+            if (circuitBreaker.tryAcquirePermission()) {
+                // The wait duration has elapsed and the breaker moved to HALF_OPEN; hand the permission back
+                circuitBreaker.releasePermission();
+            }
+        }
+
+        return switch (circuitBreaker.getState()) {
+            case OPEN, FORCED_OPEN -> 0;
+            case HALF_OPEN -> {
+                int permitted = circuitBreaker.getCircuitBreakerConfig().getPermittedNumberOfCallsInHalfOpenState();
+                yield Math.max(0, Math.min(limit, permitted - circuitBreaker.getMetrics().getNumberOfBufferedCalls()));
+            }
+            default -> limit;
+        };
+    }
+}
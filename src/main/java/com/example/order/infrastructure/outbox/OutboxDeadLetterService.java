@@ -0,0 +1,174 @@
+package com.example.order.infrastructure.outbox;
+
+import com.example.order.infrastructure.config.ClusterLock;
+import com.example.order.infrastructure.config.SchedulingConfig;
+import com.example.order.infrastructure.persistence.entity.OutboxDeadLetter;
+import com.example.order.infrastructure.persistence.repository.OutboxDeadLetterRepository;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves exhausted outbox events to {@code outbox_dead_letters} and replays them on request.
+ * Part of Strategy 3: Outbox Pattern.
+ *
+ * Replayed events go back to {@code outbox_events} as fresh PENDING events whose
+ * {@code next_attempt_at} is staggered at {@code outbox.dead-letter.replay-rate-per-second},
+ * so the poller picks them up gradually instead of all at once. Consecutive replays continue
+ * after the last slot handed out by this instance. The replayed dead letters are row-locked
+ * until the replay commits, so concurrent replays, on this instance or another, pick disjoint
+ * events.
+ */
+@Component
+public class OutboxDeadLetterService {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDeadLetterService.class);
+    private static final String INSERT_REPLAYED_SQL =
+            "INSERT INTO outbox_events (id, aggregate_type, aggregate_id, event_type, payload, payload_bytes, " +
+                    "created_at, retry_count, next_attempt_at, status) VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, 'PENDING')";
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxDeadLetterRepository deadLetterRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final double replayRatePerSecond;
+    private final int replayMaxBatch;
+
+    private Instant nextReplaySlot = Instant.EPOCH;
+
+    public OutboxDeadLetterService(
+            OutboxRepository outboxRepository,
+            OutboxDeadLetterRepository deadLetterRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${outbox.dead-letter.batch-size:500}") int batchSize,
+            @Value("${outbox.dead-letter.replay-rate-per-second:10}") double replayRatePerSecond,
+            @Value("${outbox.dead-letter.replay-max-batch:1000}") int replayMaxBatch) {
+        if (replayRatePerSecond <= 0) {
+            throw new IllegalArgumentException("outbox.dead-letter.replay-rate-per-second must be positive");
+        }
+        this.outboxRepository = outboxRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.replayRatePerSecond = replayRatePerSecond;
+        this.replayMaxBatch = Math.max(1, replayMaxBatch);
+    }
+
+    /**
+     * Moves one batch of FAILED events out of the hot outbox table.
+     * Runs every minute by default, on one instance at a time so a batch is never copied twice.
+     */
+    @Scheduled(fixedDelayString = "${outbox.dead-letter.interval-ms:60000}",
+            scheduler = SchedulingConfig.OUTBOX_MAINTENANCE_SCHEDULER)
+    @ClusterLock(name = "outbox-dead-letter", lockAtMostFor = "5m")
+    @Transactional
+    public void moveExhaustedEvents() {
+        List<String> ids = outboxRepository.findFailedEventIds(batchSize);
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        int copied = outboxRepository.copyToDeadLetters(ids, Instant.now());
+        outboxRepository.deleteFailedEvents(ids);
+        log.info("Moved {} exhausted outbox events to the dead-letter table", copied);
+    }
+
+    /**
+     * Returns dead-lettered events to the outbox, spread out at the configured replay rate.
+     *
+     * @param limit     maximum number of events to replay, capped at {@code replay-max-batch}
+     * @param eventType only replay events of this type, or all types if null
+     * @return what was replayed and when the last replayed event becomes due
+     */
+    @Transactional
+    public ReplayResult replay(Integer limit, String eventType) {
+        int effectiveLimit = Math.min(limit != null && limit > 0 ? limit : replayMaxBatch, replayMaxBatch);
+        List<OutboxDeadLetter> deadLetters = eventType != null
+                ? deadLetterRepository.lockOldestByEventType(eventType, effectiveLimit)
+                : deadLetterRepository.lockOldest(effectiveLimit);
+        if (deadLetters.isEmpty()) {
+            return new ReplayResult(0, null);
+        }
+
+        Instant now = Instant.now();
+        Duration spacing = Duration.ofNanos((long) (1_000_000_000L / replayRatePerSecond));
+        Instant slot = reserveSlots(now, spacing, deadLetters.size());
+        Timestamp createdAt = Timestamp.from(now);
+
+        List<Object[]> rows = new ArrayList<>(deadLetters.size());
+        List<String> ids = new ArrayList<>(deadLetters.size());
+        for (OutboxDeadLetter deadLetter : deadLetters) {
+            rows.add(new Object[]{
+                    deadLetter.getId(),
+                    deadLetter.getAggregateType(),
+                    deadLetter.getAggregateId(),
+                    deadLetter.getEventType(),
+                    deadLetter.getPayload(),
+                    deadLetter.getPayloadBytes(),
+                    createdAt,
+                    Timestamp.from(slot.truncatedTo(ChronoUnit.MILLIS))
+            });
+            ids.add(deadLetter.getId());
+            slot = slot.plus(spacing);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_REPLAYED_SQL, rows);
+        deadLetterRepository.deleteByIds(ids);
+
+        Instant lastDue = slot.minus(spacing);
+        log.info("Replaying {} dead-lettered outbox events at {}/s, last due at {}",
+                ids.size(), replayRatePerSecond, lastDue);
+        return new ReplayResult(ids.size(), lastDue);
+    }
+
+    /**
+     * Hands out {@code count} consecutive replay slots and returns the first one.
+     */
+    private synchronized Instant reserveSlots(Instant now, Duration spacing, int count) {
+        Instant first = nextReplaySlot.isAfter(now) ? nextReplaySlot : now;
+        nextReplaySlot = first.plus(spacing.multipliedBy(count));
+        return first;
+    }
+
+    /**
+     * Returns the number of dead-lettered events per event type and when the oldest was moved.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> summary() {
+        Map<String, Long> byEventType = new LinkedHashMap<>();
+        long total = 0;
+        for (Object[] row : deadLetterRepository.countByEventType()) {
+            long count = ((Number) row[1]).longValue();
+            byEventType.put((String) row[0], count);
+            total += count;
+        }
+
+        Instant oldest = deadLetterRepository.findOldestDeadLetteredAt();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total", total);
+        summary.put("byEventType", byEventType);
+        summary.put("oldestDeadLetteredAt", oldest);
+        summary.put("replayRatePerSecond", replayRatePerSecond);
+        return summary;
+    }
+
+    /**
+     * Outcome of a replay request.
+     */
+    public record ReplayResult(int replayed, Instant lastDueAt) {
+    }
+}
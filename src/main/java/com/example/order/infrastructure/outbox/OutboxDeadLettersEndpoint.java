@@ -0,0 +1,35 @@
+package com.example.order.infrastructure.outbox;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for dead-lettered outbox events.
+ * POST {"limit": n, "eventType": "OrderCreated"} to replay them at the configured rate;
+ * both fields are optional.
+ */
+@Component
+@Endpoint(id = "outboxdeadletters")
+public class OutboxDeadLettersEndpoint {
+
+    private final OutboxDeadLetterService deadLetterService;
+
+    public OutboxDeadLettersEndpoint(OutboxDeadLetterService deadLetterService) {
+        this.deadLetterService = deadLetterService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> deadLetters() {
+        return deadLetterService.summary();
+    }
+
+    @WriteOperation
+    public OutboxDeadLetterService.ReplayResult replay(@Nullable Integer limit, @Nullable String eventType) {
+        return deadLetterService.replay(limit, eventType);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.order.infrastructure.outbox;
+
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Dispatches claimed outbox events for asynchronous processing.
+ */
+public interface OutboxDispatcher {
+
+    /**
+     * Returns how many more events the dispatcher can accept right now.
+     * The poller never claims more events than this.
+     */
+    int availableCapacity();
+
+    /**
+     * Hands an event over for processing. The event must already be marked as PROCESSING.
+     *
+     * @param event the claimed event
+     */
+    void dispatch(OutboxEvent event);
+
+    /**
+     * Hands over all events claimed by one poll.
+     *
+     * @param events the claimed events
+     */
+    default void dispatchAll(List<OutboxEvent> events) {
+        events.forEach(this::dispatch);
+    }
+
+    /**
+     * Registers a callback invoked when a dispatch slot frees up and no claimed events are waiting,
+     * so the poller can fetch more work without waiting for its next interval.
+     *
+     * @param listener the callback; must not block
+     */
+    void onCapacityAvailable(Runnable listener);
+}
@@ -0,0 +1,26 @@
+package com.example.order.infrastructure.outbox;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint summarizing outbox backlog, lag, throughput and poll cost.
+ */
+@Component
+@Endpoint(id = "outbox")
+public class OutboxEndpoint {
+
+    private final OutboxMetrics outboxMetrics;
+
+    public OutboxEndpoint(OutboxMetrics outboxMetrics) {
+        this.outboxMetrics = outboxMetrics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> outbox() {
+        return outboxMetrics.snapshot();
+    }
+}
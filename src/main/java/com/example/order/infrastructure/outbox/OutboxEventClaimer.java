@@ -0,0 +1,119 @@
+package com.example.order.infrastructure.outbox;
+
+import com.example.order.infrastructure.config.InstanceIdentity;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import com.example.order.infrastructure.persistence.entity.OutboxEventStatus;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Atomically leases batches of pending outbox events to this instance.
+ *
+ * On PostgreSQL the batch is selected with {@code FOR UPDATE SKIP LOCKED}, so concurrent
+ * pods claim disjoint batches without waiting on each other. Other databases (H2) fall back
+ * to a conditional {@code UPDATE ... WHERE status = 'PENDING'}, which is equally safe but
+ * lets competing pods lose some rows of a batch.
+ *
+ * With outbox.dispatcher.mode=sharded only the oldest unfinished event of each aggregate is
+ * claimed, so the events of one order are processed in order across instances and retries.
+ */
+@Component
+public class OutboxEventClaimer {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxEventClaimer.class);
+
+    private final OutboxRepository outboxRepository;
+    private final String owner;
+    private final long leaseDurationMs;
+    private final boolean skipLockedSupported;
+    private final boolean aggregateOrder;
+
+    public OutboxEventClaimer(
+            OutboxRepository outboxRepository,
+            InstanceIdentity instanceIdentity,
+            DataSource dataSource,
+            @Value("${outbox.poller.lease-duration-ms:300000}") long leaseDurationMs,
+            @Value("${outbox.dispatcher.mode:concurrent}") String dispatcherMode) {
+        this.outboxRepository = outboxRepository;
+        this.owner = instanceIdentity.getId();
+        this.leaseDurationMs = leaseDurationMs;
+        this.skipLockedSupported = isPostgres(dataSource);
+        this.aggregateOrder = "sharded".equals(dispatcherMode);
+        log.info("Outbox claim strategy: {}{} (owner: {})",
+                skipLockedSupported ? "SKIP LOCKED" : "conditional update",
+                aggregateOrder ? ", one event per aggregate in order" : "", owner);
+    }
+
+    /**
+     * Claims up to {@code limit} pending events whose next attempt is due,
+     * marking them PROCESSING with a lease for this instance.
+     *
+     * @param limit maximum number of events to claim
+     * @return the claimed events, earliest due first
+     */
+    @Transactional
+    public List<OutboxEvent> claimPendingEvents(int limit) {
+        Instant now = Instant.now();
+        // Truncated so the value compares equal after a round trip through the database
+        Instant leaseExpiry = now.plusMillis(leaseDurationMs).truncatedTo(ChronoUnit.MILLIS);
+
+        return skipLockedSupported
+                ? claimWithSkipLocked(now, limit, leaseExpiry)
+                : claimWithConditionalUpdate(now, limit, leaseExpiry);
+    }
+
+    private List<OutboxEvent> claimWithSkipLocked(Instant now, int limit, Instant leaseExpiry) {
+        List<OutboxEvent> locked = aggregateOrder
+                ? outboxRepository.lockPendingEventsInAggregateOrder(now, limit)
+                : outboxRepository.lockPendingEvents(now, limit);
+        if (locked.isEmpty()) {
+            return locked;
+        }
+
+        // Rows are locked by this transaction, so every one of them is updated
+        outboxRepository.claimEvents(ids(locked), OutboxEventStatus.PROCESSING, owner, leaseExpiry);
+        locked.forEach(event -> event.markClaimed(owner, leaseExpiry));
+        return locked;
+    }
+
+    private List<OutboxEvent> claimWithConditionalUpdate(Instant now, int limit, Instant leaseExpiry) {
+        List<OutboxEvent> candidates = aggregateOrder
+                ? outboxRepository.findPendingEventsInAggregateOrder(now, limit)
+                : outboxRepository.findPendingEvents(now, limit);
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        List<String> ids = ids(candidates);
+        int claimed = outboxRepository.claimEvents(ids, OutboxEventStatus.PROCESSING, owner, leaseExpiry);
+        if (claimed < candidates.size()) {
+            log.debug("Claimed {} of {} outbox events, the rest were taken by another instance",
+                    claimed, candidates.size());
+        }
+        return claimed == 0 ? List.of() : outboxRepository.findClaimedEvents(ids, owner, leaseExpiry);
+    }
+
+    private static List<String> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).toList();
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            log.warn("Could not detect database type, using conditional update for outbox claims", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.order.infrastructure.outbox;
+
+/**
+ * Application event published when an outbox event is written.
+ * Listeners bound to the transaction phase use it to wake up the poller
+ * right after commit instead of waiting for the next polling interval.
+ */
+public record OutboxEventCreated(
+        String eventId,
+        String eventType,
+        String aggregateId
+) {
+}
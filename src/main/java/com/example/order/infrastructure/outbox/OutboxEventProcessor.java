@@ -0,0 +1,195 @@
+package com.example.order.infrastructure.outbox;
+
+import com.example.order.infrastructure.outbox.handler.OutboxEventHandler;
+import com.example.order.infrastructure.outbox.handler.OutboxHandlerException;
+import com.example.order.infrastructure.outbox.handler.OutboxHandlerRegistry;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Processes claimed outbox events with the {@link OutboxEventHandler} registered for their type
+ * and hands their final status to the {@link OutboxStatusWriter}.
+ * The returned futures always complete normally once the status writes are done.
+ *
+ * Failed events are returned to PENDING with a backed-off {@code next_attempt_at} until the
+ * {@link OutboxRetryPolicy} gives up, after which they stay FAILED. Failures the
+ * {@link OutboxCircuitGate} blames on a required downstream whose circuit breaker is not closed
+ * do not use up a retry: the event goes back to PENDING until the breaker's open-state wait ends.
+ *
+ * An attempt running past its handler's timeout is not retried while it is still running: its
+ * event stays leased until the attempt finishes or the lease is about to expire.
+ */
+@Component
+public class OutboxEventProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxEventProcessor.class);
+    // Leaves time to write the status before the lease reaper may take the event
+    private static final Duration LEASE_SAFETY_MARGIN = Duration.ofSeconds(5);
+
+    private final OutboxStatusWriter statusWriter;
+    private final OutboxHandlerRegistry handlerRegistry;
+    private final OutboxRetryPolicy retryPolicy;
+    private final OutboxMetrics metrics;
+    private final OutboxPollController pollController;
+    private final OutboxCircuitGate circuitGate;
+
+    public OutboxEventProcessor(
+            OutboxStatusWriter statusWriter,
+            OutboxHandlerRegistry handlerRegistry,
+            OutboxRetryPolicy retryPolicy,
+            OutboxMetrics metrics,
+            OutboxPollController pollController,
+            OutboxCircuitGate circuitGate) {
+        this.statusWriter = statusWriter;
+        this.handlerRegistry = handlerRegistry;
+        this.retryPolicy = retryPolicy;
+        this.metrics = metrics;
+        this.pollController = pollController;
+        this.circuitGate = circuitGate;
+    }
+
+    /**
+     * Processes the event and persists its PROCESSED, retry-scheduled PENDING or FAILED status.
+     *
+     * @param event the event, already marked as PROCESSING
+     * @return future completing after the status write
+     */
+    public CompletableFuture<Void> process(OutboxEvent event) {
+        Optional<OutboxEventHandler> handler = handlerRegistry.find(event.getEventType());
+        if (handler.isEmpty()) {
+            log.warn("Unknown event type: {}", event.getEventType());
+            event.markFailed("Unknown event type: " + event.getEventType());
+            metrics.recordOutcome(event);
+            return statusWriter.write(event);
+        }
+        return process(handler.get(), List.of(event));
+    }
+
+    /**
+     * Processes events of one type with their handler, in one batch call when there are several.
+     *
+     * @param handler the handler registered for the events' type
+     * @param events  the events, already marked as PROCESSING
+     * @return future completing after all status writes
+     */
+    public CompletableFuture<Void> process(OutboxEventHandler handler, List<OutboxEvent> events) {
+        events.forEach(event -> log.debug("Processing outbox event: {} (type: {}, aggregate: {})",
+                event.getId(), event.getEventType(), event.getAggregateId()));
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> attempts = attempt(handler, events);
+        CompletableFuture<?>[] writes = new CompletableFuture<?>[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            writes[i] = complete(handler, events.get(i), attempts.get(i), start);
+        }
+        return CompletableFuture.allOf(writes);
+    }
+
+    /**
+     * Returns the event to PENDING without using a retry, e.g. because its handler has no free slot.
+     *
+     * @param event         the claimed event
+     * @param reason        why the event was not processed
+     * @param nextAttemptAt when the event may be claimed again
+     * @return future completing after the status write
+     */
+    public CompletableFuture<Void> defer(OutboxEvent event, String reason, Instant nextAttemptAt) {
+        event.defer(reason, nextAttemptAt);
+        return statusWriter.write(event);
+    }
+
+    private static List<CompletableFuture<Void>> attempt(OutboxEventHandler handler, List<OutboxEvent> events) {
+        try {
+            List<CompletableFuture<Void>> attempts = events.size() == 1
+                    ? List.of(handler.handle(events.get(0)))
+                    : handler.handleBatch(events);
+            if (attempts.size() != events.size()) {
+                throw new IllegalStateException(handler.getClass().getSimpleName() + " returned "
+                        + attempts.size() + " results for " + events.size() + " events");
+            }
+            return attempts;
+        } catch (Exception e) {
+            CompletableFuture<Void> failed = CompletableFuture.failedFuture(e);
+            return events.stream().map(event -> failed).toList();
+        }
+    }
+
+    private CompletableFuture<Void> complete(OutboxEventHandler handler, OutboxEvent event,
+                                             CompletableFuture<Void> attempt, long start) {
+        return awaitAttempt(handler, event, attempt)
+                .handle((ignored, throwable) -> {
+                    long elapsed = System.nanoTime() - start;
+                    pollController.recordLatency(Duration.ofNanos(elapsed));
+                    if (throwable == null) {
+                        event.markProcessed();
+                    } else {
+                        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                                throwable.getCause() : throwable;
+                        if (cause instanceof OutboxHandlerException || cause instanceof TimeoutException) {
+                            log.warn("Outbox event {} failed: {}", event.getId(), describe(handler, cause));
+                        } else {
+                            log.error("Failed to process outbox event: {}", event.getId(), cause);
+                        }
+                        fail(event, describe(handler, cause), cause);
+                    }
+                    metrics.recordHandled(event, elapsed);
+                    metrics.recordOutcome(event);
+                    return event;
+                })
+                .thenCompose(statusWriter::write);
+    }
+
+    /**
+     * Waits for the attempt. Attempts are not cancelled, so one running past the handler's timeout
+     * keeps its event PROCESSING, and therefore not claimable, until it finishes, and its event
+     * gets the status of its actual outcome. Only once the lease is about to expire does the
+     * attempt count as timed out.
+     */
+    private CompletableFuture<Void> awaitAttempt(OutboxEventHandler handler, OutboxEvent event,
+                                                 CompletableFuture<Void> attempt) {
+        return attempt.copy()
+                .orTimeout(handler.timeout().toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(throwable -> {
+                    if (attempt.isDone()) {
+                        return attempt;
+                    }
+                    log.warn("Outbox event {} is still running after {}ms, keeping its lease until it finishes",
+                            event.getId(), handler.timeout().toMillis());
+                    Instant leaseExpiry = event.getLockedUntil();
+                    long leaseMs = leaseExpiry != null
+                            ? Duration.between(Instant.now(), leaseExpiry).minus(LEASE_SAFETY_MARGIN).toMillis()
+                            : 0;
+                    return attempt.copy().orTimeout(Math.max(0, leaseMs), TimeUnit.MILLISECONDS);
+                });
+    }
+
+    private static String describe(OutboxEventHandler handler, Throwable cause) {
+        if (cause instanceof TimeoutException && cause.getMessage() == null) {
+            return "Handler did not finish within its lease (timeout " + handler.timeout().toMillis() + "ms)";
+        }
+        return cause.getMessage();
+    }
+
+    private void fail(OutboxEvent event, String error, Throwable cause) {
+        Optional<Instant> outageEnd = circuitGate.outageEnd(cause);
+        if (outageEnd.isPresent()) {
+            event.defer(error, outageEnd.get());
+            log.info("Outbox event {} deferred until {} when the downstream circuit breaker may recover",
+                    event.getId(), outageEnd.get());
+            return;
+        }
+
+        retryPolicy.fail(event, error);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.order.infrastructure.outbox;
+
+import com.example.order.infrastructure.config.SchedulingConfig;
+import com.example.order.infrastructure.persistence.entity.OutboxEventStatus;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Returns outbox events stuck in PROCESSING to the pending pool once their lease expires.
+ * Part of Strategy 3: Outbox Pattern.
+ *
+ * An expired lease means the owning instance died or stalled mid-saga. The lost attempt counts
+ * as a retry; events with no retries left are marked FAILED instead of being requeued.
+ */
+@Component
+@ConditionalOnProperty(value = "outbox.poller.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxLeaseReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxLeaseReaper.class);
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxRetryPolicy retryPolicy;
+    private final OutboxMetrics metrics;
+
+    public OutboxLeaseReaper(
+            OutboxRepository outboxRepository,
+            OutboxRetryPolicy retryPolicy,
+            OutboxMetrics metrics) {
+        this.outboxRepository = outboxRepository;
+        this.retryPolicy = retryPolicy;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Reclaims events with expired leases in bulk.
+     * Runs every 30 seconds by default.
+     */
+    @Scheduled(fixedDelayString = "${outbox.reaper.interval-ms:30000}",
+            scheduler = SchedulingConfig.OUTBOX_MAINTENANCE_SCHEDULER)
+    @Transactional
+    public void reapExpiredLeases() {
+        Instant now = Instant.now();
+        int maxRetries = retryPolicy.getMaxRetries();
+
+        int failed = outboxRepository.failExpiredLeases(OutboxEventStatus.FAILED, now, maxRetries);
+        int requeued = outboxRepository.requeueExpiredLeases(OutboxEventStatus.PENDING, now, maxRetries);
+
+        if (requeued > 0 || failed > 0) {
+            log.warn("Reclaimed outbox events with expired leases: {} requeued, {} failed", requeued, failed);
+            metrics.recordReclaimed(requeued, failed);
+        }
+    }
+}
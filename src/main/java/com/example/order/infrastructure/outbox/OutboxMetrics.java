@@ -0,0 +1,235 @@
+package com.example.order.infrastructure.outbox;
+
+import com.example.order.infrastructure.config.SchedulingConfig;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import com.example.order.infrastructure.persistence.entity.OutboxEventStatus;
+import com.example.order.infrastructure.persistence.repository.OutboxDeadLetterRepository;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer meters for the outbox: backlog, lag, throughput by outcome, retries, reclaimed
+ * leases and poll cost.
+ * Part of Strategy 3: Outbox Pattern.
+ *
+ * Backlog gauges are refreshed from the database on a schedule rather than on every scrape.
+ */
+@Component
+public class OutboxMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxMetrics.class);
+
+    static final String OUTCOME_PROCESSED = "processed";
+    static final String OUTCOME_RETRY = "retry";
+    static final String OUTCOME_FAILED = "failed";
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxDeadLetterRepository deadLetterRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong pendingCount = new AtomicLong(0);
+    private final AtomicLong failedCount = new AtomicLong(0);
+    private final AtomicLong deadLetterCount = new AtomicLong(0);
+    private volatile Instant oldestPendingCreatedAt;
+    private volatile Instant backlogRefreshedAt;
+
+    private final Timer pollTimer;
+    private final AtomicInteger lastClaimed = new AtomicInteger(0);
+    private final DistributionSummary retriesBeforeCompletion;
+    private final Counter reclaimedRequeued;
+    private final Counter reclaimedFailed;
+
+    public OutboxMetrics(
+            OutboxRepository outboxRepository,
+            OutboxDeadLetterRepository deadLetterRepository,
+            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("outbox.events.pending", pendingCount, AtomicLong::get)
+                .description("Outbox events waiting to be processed")
+                .register(meterRegistry);
+        Gauge.builder("outbox.events.failed", failedCount, AtomicLong::get)
+                .description("Outbox events that exhausted their retries, not yet dead-lettered")
+                .register(meterRegistry);
+        Gauge.builder("outbox.events.dead.lettered", deadLetterCount, AtomicLong::get)
+                .description("Outbox events in the dead-letter table")
+                .register(meterRegistry);
+        TimeGauge.builder("outbox.events.oldest.pending.age", this, TimeUnit.MILLISECONDS,
+                        metrics -> metrics.oldestPendingAge().toMillis())
+                .description("Age of the oldest pending outbox event")
+                .register(meterRegistry);
+
+        this.pollTimer = Timer.builder("outbox.poll.duration")
+                .description("Time taken to claim a batch of outbox events")
+                .register(meterRegistry);
+        Gauge.builder("outbox.poll.claimed", lastClaimed, AtomicInteger::get)
+                .description("Outbox events claimed by the last poll")
+                .register(meterRegistry);
+        this.retriesBeforeCompletion = DistributionSummary.builder("outbox.event.retries")
+                .description("Retries an outbox event needed before it was processed or given up")
+                .register(meterRegistry);
+        this.reclaimedRequeued = reclaimedCounter("requeued");
+        this.reclaimedFailed = reclaimedCounter("failed");
+    }
+
+    /**
+     * Refreshes the backlog gauges from the database.
+     * Runs every 15 seconds by default.
+     */
+    @Scheduled(fixedDelayString = "${outbox.metrics.refresh-interval-ms:15000}",
+            scheduler = SchedulingConfig.OUTBOX_MAINTENANCE_SCHEDULER)
+    public void refreshBacklog() {
+        try {
+            pendingCount.set(outboxRepository.countByStatus(OutboxEventStatus.PENDING));
+            failedCount.set(outboxRepository.countByStatus(OutboxEventStatus.FAILED));
+            deadLetterCount.set(deadLetterRepository.count());
+            oldestPendingCreatedAt = outboxRepository.findOldestCreatedAt(OutboxEventStatus.PENDING);
+            backlogRefreshedAt = Instant.now();
+        } catch (Exception e) {
+            log.warn("Failed to refresh outbox backlog metrics: {}", e.getMessage());
+        }
+    }
+
+    void recordPoll(long durationNanos, int claimed) {
+        pollTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        lastClaimed.set(claimed);
+    }
+
+    void recordReclaimed(int requeued, int failed) {
+        reclaimedRequeued.increment(requeued);
+        reclaimedFailed.increment(failed);
+    }
+
+    /**
+     * Records the outcome of one processing attempt, after the event's new status has been set.
+     */
+    public void recordOutcome(OutboxEvent event) {
+        String outcome = outcomeOf(event);
+        String eventType = event.getEventType() != null ? event.getEventType() : "unknown";
+
+        dispatchedCounter(eventType, outcome).increment();
+
+        if (!OUTCOME_RETRY.equals(outcome)) {
+            retriesBeforeCompletion.record(event.getRetryCount());
+        }
+        if (OUTCOME_PROCESSED.equals(outcome) && event.getCreatedAt() != null && event.getProcessedAt() != null) {
+            endToEndTimer(eventType).record(Duration.between(event.getCreatedAt(), event.getProcessedAt()));
+        }
+    }
+
+    /**
+     * Records how long a handler took for one event, after the event's new status has been set.
+     */
+    void recordHandled(OutboxEvent event, long durationNanos) {
+        String eventType = event.getEventType() != null ? event.getEventType() : "unknown";
+        Timer.builder("outbox.handler.duration")
+                .description("Time an outbox event handler took per event")
+                .tag("event_type", eventType)
+                .tag("outcome", outcomeOf(event))
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns a summary of all outbox meters for the actuator endpoint.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> backlog = new LinkedHashMap<>();
+        backlog.put("pending", pendingCount.get());
+        backlog.put("failed", failedCount.get());
+        backlog.put("deadLettered", deadLetterCount.get());
+        backlog.put("oldestPendingAgeMs", oldestPendingAge().toMillis());
+        backlog.put("refreshedAt", backlogRefreshedAt);
+
+        Map<String, Object> dispatched = new LinkedHashMap<>();
+        for (String outcome : new String[]{OUTCOME_PROCESSED, OUTCOME_RETRY, OUTCOME_FAILED}) {
+            dispatched.put(outcome, (long) meterRegistry.find("outbox.events.dispatched")
+                    .tag("outcome", outcome)
+                    .counters().stream()
+                    .mapToDouble(Counter::count)
+                    .sum());
+        }
+
+        Map<String, Object> endToEnd = new LinkedHashMap<>();
+        meterRegistry.find("outbox.event.end-to-end").timers().forEach(timer -> endToEnd.put(
+                timer.getId().getTag("event_type"), timerSummary(timer)));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("backlog", backlog);
+        summary.put("dispatched", dispatched);
+        summary.put("endToEnd", endToEnd);
+        summary.put("retries", Map.of(
+                "completed", retriesBeforeCompletion.count(),
+                "mean", retriesBeforeCompletion.mean(),
+                "max", retriesBeforeCompletion.max()));
+        summary.put("reclaimed", Map.of(
+                "requeued", (long) reclaimedRequeued.count(),
+                "failed", (long) reclaimedFailed.count()));
+        summary.put("poll", Map.of(
+                "duration", timerSummary(pollTimer),
+                "lastClaimed", lastClaimed.get()));
+        return summary;
+    }
+
+    private static String outcomeOf(OutboxEvent event) {
+        return switch (event.getStatus()) {
+            case PROCESSED -> OUTCOME_PROCESSED;
+            case PENDING -> OUTCOME_RETRY;
+            default -> OUTCOME_FAILED;
+        };
+    }
+
+    private Duration oldestPendingAge() {
+        Instant oldest = oldestPendingCreatedAt;
+        return oldest != null ? Duration.between(oldest, Instant.now()) : Duration.ZERO;
+    }
+
+    private Counter dispatchedCounter(String eventType, String outcome) {
+        return Counter.builder("outbox.events.dispatched")
+                .description("Outbox event processing attempts by outcome")
+                .tag("event_type", eventType)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter reclaimedCounter(String outcome) {
+        return Counter.builder("outbox.events.reclaimed")
+                .description("Outbox events reclaimed from expired leases")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Timer endToEndTimer(String eventType) {
+        return Timer.builder("outbox.event.end-to-end")
+                .description("Time from outbox event creation to successful processing")
+                .tag("event_type", eventType)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Map<String, Object> timerSummary(Timer timer) {
+        return Map.of(
+                "count", timer.count(),
+                "meanMs", timer.mean(TimeUnit.MILLISECONDS),
+                "maxMs", timer.max(TimeUnit.MILLISECONDS));
+    }
+}
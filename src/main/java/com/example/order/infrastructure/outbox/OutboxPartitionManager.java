@@ -0,0 +1,206 @@
+package com.example.order.infrastructure.outbox;
+
+import com.example.order.infrastructure.config.ClusterLock;
+import com.example.order.infrastructure.config.SchedulingConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains daily range partitions of {@code outbox_events} on PostgreSQL.
+ * Part of Strategy 3: Outbox Pattern.
+ *
+ * Partitions for the coming days are created ahead of time, and whole partitions whose day ended
+ * more than {@code outbox.partitioning.retention-hours} ago are dropped instead of deleting
+ * processed rows one by one. A partition still holding unfinished events is kept until they are
+ * processed or fail for good.
+ *
+ * Rows written while the partition of their day was missing land in the DEFAULT partition,
+ * which makes creating that partition fail. Such days are moved out of DEFAULT: it is detached,
+ * the partition created, its rows moved and DEFAULT attached again, in one transaction that
+ * blocks outbox writes for its duration. The {@code outbox.partitions.default.rows} gauge reports
+ * rows found in DEFAULT by the last maintenance run.
+ *
+ * Activated when outbox.partitioning.enabled=true; requires the table from
+ * {@code db/outbox-partitioned-postgres.sql}.
+ */
+@Component
+@ConditionalOnProperty(value = "outbox.partitioning.enabled", havingValue = "true")
+public class OutboxPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxPartitionManager.class);
+    private static final String TABLE = "outbox_events";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int premakeDays;
+    private final long retentionHours;
+    private final AtomicLong defaultRows = new AtomicLong(0);
+
+    public OutboxPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.partitioning.premake-days:7}") int premakeDays,
+            @Value("${outbox.partitioning.retention-hours:24}") long retentionHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.premakeDays = Math.max(1, premakeDays);
+        this.retentionHours = retentionHours;
+
+        Gauge.builder("outbox.partitions.default.rows", defaultRows, AtomicLong::get)
+                .description("Outbox rows found in the DEFAULT partition, i.e. written without a daily partition")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void verifyAndPrepare() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE relname = ? AND relkind IN ('r', 'p')",
+                String.class, TABLE);
+        if (!kinds.contains("p")) {
+            throw new IllegalStateException(
+                    "outbox.partitioning.enabled is set but " + TABLE + " is not a partitioned table; " +
+                            "apply db/outbox-partitioned-postgres.sql first");
+        }
+        rescueDefaultPartition();
+        createUpcomingPartitions();
+    }
+
+    /**
+     * Creates missing partitions and drops expired ones.
+     * Runs every hour, on one instance at a time.
+     */
+    @Scheduled(fixedRateString = "${outbox.partitioning.maintenance-interval-ms:3600000}",
+            scheduler = SchedulingConfig.OUTBOX_MAINTENANCE_SCHEDULER)
+    @ClusterLock(name = "outbox-partitions", lockAtMostFor = "30m")
+    public void maintainPartitions() {
+        rescueDefaultPartition();
+        createUpcomingPartitions();
+        dropExpiredPartitions();
+    }
+
+    void createUpcomingPartitions() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int i = 0; i <= premakeDays; i++) {
+            jdbcTemplate.execute(createPartitionSql(today.plusDays(i)));
+        }
+    }
+
+    /**
+     * Moves every day with rows in the DEFAULT partition into a daily partition of its own.
+     */
+    void rescueDefaultPartition() {
+        if (!listPartitions().contains(DEFAULT_PARTITION)) {
+            defaultRows.set(0);
+            return;
+        }
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + DEFAULT_PARTITION, Long.class);
+        defaultRows.set(rows != null ? rows : 0);
+        if (defaultRows.get() == 0) {
+            return;
+        }
+
+        log.warn("{} outbox events are in {}, moving them to daily partitions", defaultRows.get(), DEFAULT_PARTITION);
+        List<Timestamp> days = jdbcTemplate.queryForList(
+                "SELECT DISTINCT date_trunc('day', created_at AT TIME ZONE 'UTC') FROM " + DEFAULT_PARTITION,
+                Timestamp.class);
+        for (Timestamp day : days) {
+            moveOutOfDefault(day.toLocalDateTime().toLocalDate());
+        }
+    }
+
+    private void moveOutOfDefault(LocalDate day) {
+        String partition = partitionName(day);
+        String range = "created_at >= '" + startOf(day) + "' AND created_at < '" + startOf(day.plusDays(1)) + "'";
+        Integer moved = transactionTemplate.execute(status -> {
+            // Locks the table until commit; writes wait instead of failing while DEFAULT is detached
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + DEFAULT_PARTITION);
+            jdbcTemplate.execute(createPartitionSql(day));
+            int count = jdbcTemplate.update("INSERT INTO " + TABLE +
+                    " SELECT * FROM " + DEFAULT_PARTITION + " WHERE " + range);
+            jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE " + range);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+            return count;
+        });
+        defaultRows.addAndGet(-(moved != null ? moved : 0));
+        log.info("Moved {} outbox events from {} to {}", moved, DEFAULT_PARTITION, partition);
+    }
+
+    private static String createPartitionSql(LocalDate day) {
+        return "CREATE TABLE IF NOT EXISTS " + partitionName(day) +
+                " PARTITION OF " + TABLE +
+                " FOR VALUES FROM ('" + startOf(day) + "') TO ('" + startOf(day.plusDays(1)) + "')";
+    }
+
+    void dropExpiredPartitions() {
+        Instant cutoff = Instant.now().minus(retentionHours, ChronoUnit.HOURS);
+
+        for (String partition : listPartitions()) {
+            LocalDate day = dayOf(partition);
+            if (day == null || startOf(day.plusDays(1)).isAfter(cutoff)) {
+                continue;
+            }
+
+            Integer unfinished = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + partition + " WHERE status <> 'PROCESSED'", Integer.class);
+            if (unfinished != null && unfinished > 0) {
+                log.warn("Keeping outbox partition {}: {} events are not processed yet", partition, unfinished);
+                continue;
+            }
+
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+            log.info("Dropped outbox partition {}", partition);
+        }
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT child.relname FROM pg_inherits i " +
+                        "JOIN pg_class parent ON parent.oid = i.inhparent " +
+                        "JOIN pg_class child ON child.oid = i.inhrelid " +
+                        "WHERE parent.relname = ? ORDER BY child.relname",
+                String.class, TABLE);
+    }
+
+    static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(day);
+    }
+
+    static LocalDate dayOf(String partitionName) {
+        if (!partitionName.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partitionName.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Instant startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.order.infrastructure.outbox;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adapts the outbox batch size and poll interval to the backlog.
+ *
+ * A full batch with healthy downstream latency doubles the batch size and halves the interval.
+ * An empty batch, or any open circuit breaker, halves the batch size and doubles the interval
+ * up to {@code outbox.poller.interval-ms}, the idle interval. Batches that are only partly filled,
+ * or full while downstream is slow, keep the current settings.
+ *
+ * With outbox.poller.adaptive.enabled=false the configured batch size and interval are used as is.
+ */
+@Component
+public class OutboxPollController {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxPollController.class);
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final boolean adaptive;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long minIntervalMs;
+    private final long idleIntervalMs;
+    private final long healthyLatencyMs;
+
+    private volatile int batchSize;
+    private volatile long intervalMs;
+    private volatile double latencyMs = 0;
+
+    public OutboxPollController(
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.poller.adaptive.enabled:true}") boolean adaptive,
+            @Value("${outbox.poller.batch-size:100}") int initialBatchSize,
+            @Value("${outbox.poller.adaptive.min-batch-size:10}") int minBatchSize,
+            @Value("${outbox.poller.adaptive.max-batch-size:500}") int maxBatchSize,
+            @Value("${outbox.poller.adaptive.min-interval-ms:200}") long minIntervalMs,
+            @Value("${outbox.poller.interval-ms:1000}") long idleIntervalMs,
+            @Value("${outbox.poller.adaptive.healthy-latency-ms:2000}") long healthyLatencyMs) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.adaptive = adaptive;
+        this.minBatchSize = Math.max(1, minBatchSize);
+        this.maxBatchSize = Math.max(this.minBatchSize, maxBatchSize);
+        this.idleIntervalMs = Math.max(1, idleIntervalMs);
+        this.minIntervalMs = Math.min(Math.max(1, minIntervalMs), this.idleIntervalMs);
+        this.healthyLatencyMs = healthyLatencyMs;
+        this.batchSize = adaptive ? clampBatch(initialBatchSize) : Math.max(1, initialBatchSize);
+        this.intervalMs = this.idleIntervalMs;
+
+        Gauge.builder("outbox.poller.batch.size", this, OutboxPollController::getBatchSize)
+                .description("Current outbox poll batch size")
+                .register(meterRegistry);
+        TimeGauge.builder("outbox.poller.interval", this, TimeUnit.MILLISECONDS,
+                        OutboxPollController::getIntervalMs)
+                .description("Current outbox poll interval")
+                .register(meterRegistry);
+        TimeGauge.builder("outbox.poller.downstream.latency", this, TimeUnit.MILLISECONDS,
+                        controller -> controller.latencyMs)
+                .description("Smoothed saga latency seen by the outbox poll controller")
+                .register(meterRegistry);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    /**
+     * Records how long one event took to process, smoothed into the downstream latency.
+     */
+    public void recordLatency(Duration latency) {
+        double sample = latency.toMillis();
+        latencyMs = latencyMs == 0 ? sample : latencyMs + LATENCY_SMOOTHING * (sample - latencyMs);
+    }
+
+    /**
+     * Adjusts batch size and interval after a poll.
+     *
+     * @param claimed number of events claimed
+     * @param limit   number of events the poll asked for
+     */
+    public synchronized void onPollCompleted(int claimed, int limit) {
+        if (!adaptive) {
+            return;
+        }
+        int previousBatch = batchSize;
+        long previousInterval = intervalMs;
+
+        if (anyCircuitOpen() || claimed == 0) {
+            batchSize = clampBatch(batchSize / 2);
+            intervalMs = Math.min(idleIntervalMs, intervalMs * 2);
+        } else if (claimed >= limit && latencyMs <= healthyLatencyMs) {
+            batchSize = clampBatch(batchSize * 2);
+            intervalMs = Math.max(minIntervalMs, intervalMs / 2);
+        }
+
+        if (batchSize != previousBatch || intervalMs != previousInterval) {
+            log.debug("Outbox poll controller: batch {} -> {}, interval {}ms -> {}ms",
+                    previousBatch, batchSize, previousInterval, intervalMs);
+        }
+    }
+
+    private boolean anyCircuitOpen() {
+        for (CircuitBreaker circuitBreaker : circuitBreakerRegistry.getAllCircuitBreakers()) {
+            CircuitBreaker.State state = circuitBreaker.getState();
+            if (state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int clampBatch(int size) {
+        return Math.max(minBatchSize, Math.min(maxBatchSize, size));
+    }
+}
@@ -1,26 +1,44 @@
 package com.example.order.infrastructure.outbox;
 
+import com.example.order.infrastructure.config.ClusterLock;
+import com.example.order.infrastructure.config.ScheduledJobMetrics;
+import com.example.order.infrastructure.config.SchedulingConfig;
 import com.example.order.infrastructure.persistence.entity.OutboxEvent;
-import com.example.order.infrastructure.persistence.entity.OutboxEventStatus;
 import com.example.order.infrastructure.persistence.repository.OutboxRepository;
-import com.example.order.infrastructure.saga.SagaOrchestrator;
-import com.example.order.infrastructure.saga.SagaResult;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Outbox poller that processes pending events.
+ * Outbox poller that claims pending events and hands them to the {@link OutboxDispatcher}.
  * Part of Strategy 3: Outbox Pattern.
+ *
+ * A poll is triggered right after an outbox event commits and whenever the dispatcher frees
+ * capacity while a backlog remains. The scheduled poll is a safety net for events written by
+ * other instances, missed wakeups and retries whose backoff has elapsed; its interval and batch
+ * size follow the backlog via the {@link OutboxPollController}. Nothing is claimed while the
+ * {@link OutboxCircuitGate} reports a required downstream as unavailable, except in relay mode
+ * (outbox.dispatcher.mode=relay): the relay only publishes to the transport and never calls
+ * those downstreams.
  */
 @Component
 @ConditionalOnProperty(value = "outbox.poller.enabled", havingValue = "true", matchIfMissing = true)
@@ -29,64 +47,151 @@ public class OutboxPoller {
     private static final Logger log = LoggerFactory.getLogger(OutboxPoller.class);
 
     private final OutboxRepository outboxRepository;
-    private final SagaOrchestrator sagaOrchestrator;
-    private final int batchSize;
-    private final int maxRetries;
+    private final OutboxEventClaimer claimer;
+    private final OutboxDispatcher dispatcher;
+    private final OutboxMetrics metrics;
+    private final OutboxPollController pollController;
+    private final OutboxCircuitGate circuitGate;
+    private final ScheduledJobMetrics jobMetrics;
+    private final TaskScheduler pollScheduler;
+    private final boolean partitioned;
+    private final boolean gated;
+
+    private final AtomicBoolean wakeupPending = new AtomicBoolean(false);
+    private volatile boolean backlogLikely = false;
+    private volatile Instant lastPollCompletion;
+    private ScheduledFuture<?> scheduledPoll;
 
     public OutboxPoller(
             OutboxRepository outboxRepository,
-            SagaOrchestrator sagaOrchestrator,
-            @Value("${outbox.poller.batch-size:100}") int batchSize,
-            @Value("${outbox.poller.max-retries:3}") int maxRetries) {
+            OutboxEventClaimer claimer,
+            OutboxDispatcher dispatcher,
+            OutboxMetrics metrics,
+            OutboxPollController pollController,
+            OutboxCircuitGate circuitGate,
+            ScheduledJobMetrics jobMetrics,
+            @Qualifier(SchedulingConfig.OUTBOX_POLL_SCHEDULER) TaskScheduler pollScheduler,
+            @Value("${outbox.partitioning.enabled:false}") boolean partitioned,
+            @Value("${outbox.dispatcher.mode:concurrent}") String dispatcherMode) {
         this.outboxRepository = outboxRepository;
-        this.sagaOrchestrator = sagaOrchestrator;
-        this.batchSize = batchSize;
-        this.maxRetries = maxRetries;
+        this.claimer = claimer;
+        this.dispatcher = dispatcher;
+        this.metrics = metrics;
+        this.pollController = pollController;
+        this.circuitGate = circuitGate;
+        this.jobMetrics = jobMetrics;
+        this.pollScheduler = pollScheduler;
+        this.partitioned = partitioned;
+        this.gated = !"relay".equals(dispatcherMode);
+
+        dispatcher.onCapacityAvailable(() -> {
+            if (backlogLikely) {
+                wakeUp();
+            }
+        });
     }
 
     /**
-     * Polls and processes pending outbox events.
-     * Runs at a fixed interval configured in application.yml.
+     * Starts the safety-net poll on the dedicated poll scheduler once the application is ready,
+     * re-evaluating the interval chosen by the {@link OutboxPollController} after every run.
      */
-    @Scheduled(fixedDelayString = "${outbox.poller.interval-ms:1000}")
-    public void pollAndProcess() {
-        List<OutboxEvent> events = outboxRepository.findPendingEvents(batchSize);
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduledPoll = pollScheduler.schedule(this::scheduledPoll, context -> {
+            Instant lastCompletion = context.lastCompletion();
+            return (lastCompletion != null ? lastCompletion : Instant.now())
+                    .plusMillis(pollController.getIntervalMs());
+        });
+    }
 
-        if (!events.isEmpty()) {
-            log.debug("Processing {} pending outbox events", events.size());
+    /**
+     * Requests an immediate poll on the poll scheduler.
+     * Requests arriving while one is already queued are coalesced.
+     */
+    public void wakeUp() {
+        if (wakeupPending.compareAndSet(false, true)) {
+            try {
+                pollScheduler.schedule(() -> {
+                    wakeupPending.set(false);
+                    try {
+                        pollAndProcess();
+                    } catch (Exception e) {
+                        log.error("Outbox wakeup poll failed", e);
+                    }
+                }, Instant.now());
+            } catch (TaskRejectedException e) {
+                wakeupPending.set(false);
+            }
         }
+    }
 
-        for (OutboxEvent event : events) {
-            processEvent(event);
+    /**
+     * Wakes the poller once a new outbox event has been committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOutboxEventCreated(OutboxEventCreated event) {
+        log.debug("Outbox event {} committed, waking up poller", event.eventId());
+        wakeUp();
+    }
+
+    private void scheduledPoll() {
+        Instant previous = lastPollCompletion;
+        Instant expectedStart = previous != null ? previous.plusMillis(pollController.getIntervalMs()) : null;
+        Instant start = Instant.now();
+        try {
+            pollAndProcess();
+        } finally {
+            lastPollCompletion = Instant.now();
+            jobMetrics.record("OutboxPoller.pollAndProcess", expectedStart, start,
+                    Duration.between(start, lastPollCompletion));
         }
     }
 
     /**
-     * Retries failed events that haven't exceeded max retries.
-     * Runs every 30 seconds.
+     * Claims pending outbox events and hands them to the dispatcher.
+     * Only claims as many events as the dispatcher can accept, up to the adaptive batch size.
      */
-    @Scheduled(fixedRate = 30000)
-    public void retryFailedEvents() {
-        List<OutboxEvent> failedEvents = outboxRepository.findFailedEventsForRetry(maxRetries, batchSize);
+    public synchronized void pollAndProcess() {
+        int limit = Math.min(pollController.getBatchSize(), dispatcher.availableCapacity());
+        if (limit <= 0) {
+            log.debug("Outbox dispatcher is saturated, skipping poll");
+            backlogLikely = true;
+            return;
+        }
 
-        if (!failedEvents.isEmpty()) {
-            log.info("Retrying {} failed outbox events", failedEvents.size());
+        int admitted = gated ? circuitGate.admit(limit) : limit;
+        if (admitted == 0) {
+            log.debug("Required circuit breaker is open, leaving outbox events pending");
+            pollController.onPollCompleted(0, limit);
+            backlogLikely = false;
+            return;
         }
+        limit = admitted;
+
+        long start = System.nanoTime();
+        List<OutboxEvent> events = claimer.claimPendingEvents(limit);
+        metrics.recordPoll(System.nanoTime() - start, events.size());
+        pollController.onPollCompleted(events.size(), limit);
+        backlogLikely = events.size() == limit;
 
-        for (OutboxEvent event : failedEvents) {
-            event.markRetrying();
-            outboxRepository.save(event);
-            processEvent(event);
+        if (!events.isEmpty()) {
+            log.debug("Dispatching {} claimed outbox events", events.size());
         }
+
+        dispatcher.dispatchAll(events);
     }
 
     /**
      * Cleans up old processed events.
-     * Runs every hour.
+     * Runs every hour on one instance; skipped when {@link OutboxPartitionManager} drops whole partitions instead.
      */
-    @Scheduled(fixedRate = 3600000)
+    @Scheduled(fixedRate = 3600000, scheduler = SchedulingConfig.OUTBOX_MAINTENANCE_SCHEDULER)
+    @ClusterLock(name = "outbox-cleanup", lockAtMostFor = "59m", lockAtLeastFor = "55m")
     @Transactional
     public void cleanupProcessedEvents() {
+        if (partitioned) {
+            return;
+        }
         Instant cutoff = Instant.now().minus(24, ChronoUnit.HOURS);
         int deleted = outboxRepository.deleteProcessedEventsBefore(cutoff);
         if (deleted > 0) {
@@ -94,50 +199,10 @@ public class OutboxPoller {
         }
     }
 
-    private void processEvent(OutboxEvent event) {
-        log.debug("Processing outbox event: {} (type: {}, aggregate: {})",
-                event.getId(), event.getEventType(), event.getAggregateId());
-
-        try {
-            // Mark as processing to prevent concurrent processing
-            event.setStatus(OutboxEventStatus.PROCESSING);
-            outboxRepository.save(event);
-
-            if ("OrderCreated".equals(event.getEventType())) {
-                processOrderCreatedEvent(event);
-            } else {
-                log.warn("Unknown event type: {}", event.getEventType());
-                event.markFailed("Unknown event type: " + event.getEventType());
-                outboxRepository.save(event);
-            }
-        } catch (Exception e) {
-            log.error("Failed to process outbox event: {}", event.getId(), e);
-            event.markFailed(e.getMessage());
-            outboxRepository.save(event);
-        }
-    }
-
-    private void processOrderCreatedEvent(OutboxEvent event) {
-        String orderId = event.getAggregateId();
-
-        CompletableFuture<SagaResult> sagaFuture = sagaOrchestrator.executeSaga(orderId);
-
-        // Process synchronously for now (could be made async with proper handling)
-        try {
-            SagaResult result = sagaFuture.join();
-
-            if (result.success()) {
-                event.markProcessed();
-                log.info("Successfully processed OrderCreated event for order: {}", orderId);
-            } else {
-                event.markFailed(result.errorMessage());
-                log.warn("Saga failed for order: {} - {}", orderId, result.errorMessage());
-            }
-        } catch (Exception e) {
-            event.markFailed(e.getMessage());
-            log.error("Exception during saga execution for order: {}", orderId, e);
+    @PreDestroy
+    public void shutdown() {
+        if (scheduledPoll != null) {
+            scheduledPoll.cancel(false);
         }
-
-        outboxRepository.save(event);
     }
 }
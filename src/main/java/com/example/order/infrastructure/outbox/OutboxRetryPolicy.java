@@ -0,0 +1,98 @@
+package com.example.order.infrastructure.outbox;
+
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Jittered exponential backoff for failed outbox events.
+ *
+ * The n-th retry is scheduled {@code initial-delay * multiplier^n} after the failure, capped at
+ * {@code max-delay}, minus a random share of up to {@code jitter} of that delay. The jitter spreads
+ * events that failed together (e.g. during a payment outage) so they are not retried in lockstep.
+ */
+@Component
+public class OutboxRetryPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRetryPolicy.class);
+
+    private final int maxRetries;
+    private final long initialDelayMs;
+    private final double multiplier;
+    private final long maxDelayMs;
+    private final double jitter;
+
+    public OutboxRetryPolicy(
+            @Value("${outbox.poller.max-retries:3}") int maxRetries,
+            @Value("${outbox.retry.initial-delay-ms:5000}") long initialDelayMs,
+            @Value("${outbox.retry.multiplier:2.0}") double multiplier,
+            @Value("${outbox.retry.max-delay-ms:300000}") long maxDelayMs,
+            @Value("${outbox.retry.jitter:0.5}") double jitter) {
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException("outbox.retry.multiplier must be at least 1.0");
+        }
+        if (jitter < 0.0 || jitter > 1.0) {
+            throw new IllegalArgumentException("outbox.retry.jitter must be between 0.0 and 1.0");
+        }
+        this.maxRetries = maxRetries;
+        this.initialDelayMs = Math.max(0, initialDelayMs);
+        this.multiplier = multiplier;
+        this.maxDelayMs = Math.max(this.initialDelayMs, maxDelayMs);
+        this.jitter = jitter;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * @param retryCount number of failed attempts before the current one
+     * @return whether the event should be attempted again
+     */
+    public boolean shouldRetry(int retryCount) {
+        return retryCount < maxRetries;
+    }
+
+    /**
+     * Computes when the next attempt is due.
+     *
+     * @param retryCount number of failed attempts before the current one
+     * @param failedAt   when the current attempt failed
+     * @return the earliest time the event may be claimed again
+     */
+    public Instant nextAttemptAt(int retryCount, Instant failedAt) {
+        return failedAt.plus(delay(retryCount)).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /**
+     * Records a failed attempt on the event: back to PENDING with a backed-off next attempt while
+     * retries remain, FAILED otherwise.
+     *
+     * @param event the event whose attempt failed
+     * @param error the failure reason
+     */
+    public void fail(OutboxEvent event, String error) {
+        int retryCount = event.getRetryCount();
+        if (shouldRetry(retryCount)) {
+            Instant nextAttemptAt = nextAttemptAt(retryCount, Instant.now());
+            event.scheduleRetry(error, nextAttemptAt);
+            log.info("Outbox event {} scheduled for retry {} at {}", event.getId(), retryCount + 1, nextAttemptAt);
+        } else {
+            event.markFailed(error);
+        }
+    }
+
+    Duration delay(int retryCount) {
+        double backoff = initialDelayMs * Math.pow(multiplier, Math.max(0, retryCount));
+        long capped = (long) Math.min(backoff, maxDelayMs);
+        long jittered = capped - (long) (capped * jitter * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(jittered);
+    }
+}
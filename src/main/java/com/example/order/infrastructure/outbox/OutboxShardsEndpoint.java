@@ -0,0 +1,39 @@
+package com.example.order.infrastructure.outbox;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the sharded outbox dispatcher.
+ * POST {"shards": n} to rebalance onto a different number of lanes.
+ */
+@Component
+@Endpoint(id = "outboxshards")
+@ConditionalOnExpression("${outbox.poller.enabled:true} and '${outbox.dispatcher.mode:concurrent}' == 'sharded'")
+public class OutboxShardsEndpoint {
+
+    private final ShardedOutboxDispatcher dispatcher;
+
+    public OutboxShardsEndpoint(ShardedOutboxDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        return Map.of(
+                "shardCount", dispatcher.getShardCount(),
+                "shards", dispatcher.getShardStats()
+        );
+    }
+
+    @WriteOperation
+    public Map<String, Object> resize(int shards) {
+        dispatcher.resize(shards);
+        return shards();
+    }
+}
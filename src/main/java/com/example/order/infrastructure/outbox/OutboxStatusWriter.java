@@ -0,0 +1,194 @@
+package com.example.order.infrastructure.outbox;
+
+import com.example.order.infrastructure.config.InstanceIdentity;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import com.example.order.infrastructure.persistence.entity.OutboxEventStatus;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes final outbox event statuses in batches.
+ *
+ * Completed events are buffered and flushed together every {@code outbox.status-writer.batch-size}
+ * events or {@code outbox.status-writer.flush-interval-ms}, whichever comes first. PROCESSED events
+ * are written with one set-based UPDATE keyed by id list; FAILED and retry-scheduled PENDING events
+ * carry their own error message, retry count and next attempt time and are written as one JDBC batch.
+ * Both run in a single transaction.
+ *
+ * Every write is guarded by this instance's lease, so an event that was reaped by the
+ * {@link OutboxLeaseReaper} and re-claimed elsewhere is not overwritten by a late result.
+ */
+@Component
+public class OutboxStatusWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxStatusWriter.class);
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+    private static final String MARK_FAILED_SQL =
+            "UPDATE outbox_events SET status = ?, error_message = ?, retry_count = ?, next_attempt_at = ?, " +
+                    "locked_by = NULL, locked_until = NULL WHERE id = ? AND status = 'PROCESSING' AND locked_by = ?";
+
+    private final OutboxRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+    private final int batchSize;
+
+    private final Queue<PendingWrite> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger(0);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService flusher =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("outbox-status-writer-"));
+
+    public OutboxStatusWriter(
+            OutboxRepository outboxRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            InstanceIdentity instanceIdentity,
+            @Value("${outbox.status-writer.batch-size:50}") int batchSize,
+            @Value("${outbox.status-writer.flush-interval-ms:50}") long flushIntervalMs) {
+        this.outboxRepository = outboxRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.owner = instanceIdentity.getId();
+        this.batchSize = Math.max(1, batchSize);
+
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues the event's current status (PROCESSED, PENDING for retry, or FAILED) for the next flush.
+     *
+     * @param event the event with its final status already set
+     * @return future completing once the batch containing this event has been flushed
+     */
+    public CompletableFuture<Void> write(OutboxEvent event) {
+        PendingWrite write = new PendingWrite(event, new CompletableFuture<>());
+        pending.offer(write);
+
+        if (pendingCount.incrementAndGet() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+                flush();
+            }
+        }
+        return write.written();
+    }
+
+    /**
+     * Flushes all buffered writes, in chunks of at most one batch.
+     */
+    synchronized void flush() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        PendingWrite write;
+        while ((write = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(write);
+            if (batch.size() >= batchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        List<String> processedIds = new ArrayList<>();
+        List<Object[]> failedRows = new ArrayList<>();
+
+        for (PendingWrite write : batch) {
+            OutboxEvent event = write.event();
+            if (event.getStatus() == OutboxEventStatus.PROCESSED) {
+                processedIds.add(event.getId());
+            } else {
+                failedRows.add(new Object[]{
+                        event.getStatus().name(),
+                        truncate(event.getErrorMessage()),
+                        event.getRetryCount(),
+                        toTimestamp(event.getNextAttemptAt()),
+                        event.getId(),
+                        owner
+                });
+            }
+        }
+
+        try {
+            Integer written = transactionTemplate.execute(status -> {
+                int updated = 0;
+                if (!processedIds.isEmpty()) {
+                    updated += outboxRepository.markProcessed(
+                            processedIds, OutboxEventStatus.PROCESSED, Instant.now(), owner);
+                }
+                if (!failedRows.isEmpty()) {
+                    for (int count : jdbcTemplate.batchUpdate(MARK_FAILED_SQL, failedRows)) {
+                        updated += Math.max(count, 0);
+                    }
+                }
+                return updated;
+            });
+            log.debug("Flushed outbox statuses: {} processed, {} failed or retrying", processedIds.size(), failedRows.size());
+            if (written != null && written < batch.size()) {
+                log.warn("Skipped {} outbox status updates for events no longer leased to this instance",
+                        batch.size() - written);
+            }
+        } catch (Exception e) {
+            log.error("Failed to flush {} outbox status updates", batch.size(), e);
+        }
+
+        // Callers only need to know the write was attempted; failed writes stay PROCESSING
+        batch.forEach(write -> write.written().complete(null));
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_MESSAGE_LENGTH);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private record PendingWrite(OutboxEvent event, CompletableFuture<Void> written) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.order.infrastructure.outbox;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+
+/**
+ * Cross-instance outbox wakeup over PostgreSQL LISTEN/NOTIFY.
+ *
+ * Every committed outbox event sends a NOTIFY on the configured channel. A dedicated
+ * connection on each instance LISTENs on that channel and wakes the local {@link OutboxPoller},
+ * so events written by one pod are picked up by idle pods without waiting for the safety-net poll.
+ *
+ * Activated when outbox.notify.enabled=true; does nothing on databases other than PostgreSQL.
+ */
+@Component
+@ConditionalOnProperty(value = "outbox.notify.enabled", havingValue = "true")
+public class PostgresOutboxNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresOutboxNotifier.class);
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int NOTIFICATION_TIMEOUT_MS = 5000;
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectProvider<OutboxPoller> pollerProvider;
+    private final String channel;
+    private final boolean postgres;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresOutboxNotifier(
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            ObjectProvider<OutboxPoller> pollerProvider,
+            @Value("${outbox.notify.channel:outbox_events}") String channel) {
+        if (!CHANNEL_PATTERN.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid outbox notify channel: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.pollerProvider = pollerProvider;
+        this.channel = channel;
+        this.postgres = dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!postgres) {
+            log.warn("outbox.notify.enabled is set but the datasource is not PostgreSQL; LISTEN/NOTIFY is disabled");
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "outbox-listen");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    /**
+     * Sends a NOTIFY within the outbox transaction. PostgreSQL only delivers it
+     * if the transaction commits.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOutboxEventCreated(OutboxEventCreated event) {
+        if (postgres) {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, event.eventType());
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword());
+                 Statement statement = connection.createStatement()) {
+
+                statement.execute("LISTEN " + channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for outbox notifications on channel: {}", channel);
+
+                // Catch up on anything committed while we were not listening
+                wakePoller();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(NOTIFICATION_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        wakePoller();
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Outbox LISTEN connection lost, reconnecting in {}ms: {}",
+                            RECONNECT_DELAY_MS, e.getMessage());
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void wakePoller() {
+        pollerProvider.ifAvailable(OutboxPoller::wakeUp);
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+}
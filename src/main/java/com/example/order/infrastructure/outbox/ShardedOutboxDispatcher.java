@@ -0,0 +1,384 @@
+package com.example.order.infrastructure.outbox;
+
+import com.example.order.infrastructure.outbox.handler.OutboxEventHandler;
+import com.example.order.infrastructure.outbox.handler.OutboxHandlerRegistry;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dispatches outbox events on N single-threaded lanes selected by a hash of the aggregate id.
+ * Events of the same order are processed one at a time in claim order, while different
+ * orders run in parallel on different lanes.
+ *
+ * Events are processed with the handler registered for their type, within its
+ * {@link OutboxEventHandler#maxConcurrency()} and {@link OutboxEventHandler#timeout()}. A lane
+ * whose next event has no free slot of its type waits until one frees up, so the order within
+ * the lane is kept.
+ *
+ * In this mode {@link OutboxEventClaimer} only claims the oldest unfinished event of an aggregate,
+ * so the next one is not claimed, by this or any other instance, until it is processed; an event
+ * waiting for a retry holds back the newer events of its aggregate as well.
+ *
+ * Claims are sized by the free slots of all lanes together. An event whose lane is full goes
+ * back to PENDING without using a retry, so one lane stuck behind a slow event does not stop
+ * the others from getting work.
+ *
+ * Activated when outbox.dispatcher.mode=sharded.
+ */
+@Component
+@ConditionalOnExpression("${outbox.poller.enabled:true} and '${outbox.dispatcher.mode:concurrent}' == 'sharded'")
+public class ShardedOutboxDispatcher implements OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedOutboxDispatcher.class);
+    private static final Duration LANE_FULL_DELAY = Duration.ofSeconds(1);
+
+    private final OutboxEventProcessor processor;
+    private final MeterRegistry meterRegistry;
+    private final int queueCapacity;
+    private final ExecutorService executor;
+    private final Map<String, HandlerSlots> handlerSlots = new HashMap<>();
+    private final Counter deferred;
+
+    private volatile Lane[] lanes;
+    // Lanes replaced by a resize whose in-flight events have not finished; the new lanes wait for them
+    private volatile Lane[] retiring = new Lane[0];
+    private volatile Runnable capacityListener = () -> { };
+
+    public ShardedOutboxDispatcher(
+            OutboxEventProcessor processor,
+            OutboxHandlerRegistry handlerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.dispatcher.shards:8}") int shards,
+            @Value("${outbox.dispatcher.shard-queue-capacity:64}") int queueCapacity) {
+        this.processor = processor;
+        this.meterRegistry = meterRegistry;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.executor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(),
+                new CustomizableThreadFactory("outbox-shard-"));
+        for (OutboxEventHandler handler : handlerRegistry.getHandlers()) {
+            handlerSlots.put(handler.eventType(), new HandlerSlots(handler));
+        }
+        this.deferred = Counter.builder("outbox.dispatcher.shard.deferred")
+                .description("Claimed outbox events returned to PENDING because their shard was full")
+                .register(meterRegistry);
+        this.lanes = createLanes(Math.max(1, shards));
+    }
+
+    /**
+     * Returns the free slots of all lanes together; events of a batch that hash to a full lane
+     * are deferred by {@link #dispatch}.
+     */
+    @Override
+    public int availableCapacity() {
+        int capacity = 0;
+        for (Lane lane : lanes) {
+            capacity += Math.max(0, queueCapacity - lane.queue.size());
+        }
+        return capacity;
+    }
+
+    @Override
+    public void dispatch(OutboxEvent event) {
+        Lane lane;
+        synchronized (this) {
+            Lane[] current = lanes;
+            lane = current[shardOf(event.getAggregateId(), current.length)];
+            if (lane.queue.size() < queueCapacity) {
+                lane.queue.add(event);
+                lane.drain();
+                return;
+            }
+        }
+        deferred.increment();
+        processor.defer(event, "Dispatcher shard " + lane.index + " is full", Instant.now().plus(LANE_FULL_DELAY));
+    }
+
+    @Override
+    public void onCapacityAvailable(Runnable listener) {
+        this.capacityListener = listener;
+    }
+
+    public int getShardCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Returns a snapshot of every lane for monitoring.
+     */
+    public List<ShardStats> getShardStats() {
+        List<ShardStats> stats = new ArrayList<>();
+        for (Lane lane : lanes) {
+            stats.add(new ShardStats(lane.index, lane.queue.size(), lane.busy.get(), lane.lag().toMillis()));
+        }
+        return stats;
+    }
+
+    /**
+     * Changes the number of lanes without waiting for in-flight events. Queued events are
+     * re-hashed onto the new lanes in their original order; the new lanes start once the
+     * events still in flight on the old lanes have finished.
+     *
+     * @param shardCount the new number of lanes
+     */
+    public synchronized void resize(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        Lane[] oldLanes = lanes;
+        if (shardCount == oldLanes.length) {
+            return;
+        }
+
+        log.info("Rebalancing outbox dispatcher from {} to {} shards", oldLanes.length, shardCount);
+        // Each old lane holds its events in order, and an aggregate only ever lived in one lane
+        List<OutboxEvent> queued = new ArrayList<>();
+        for (Lane lane : oldLanes) {
+            lane.retire(queued);
+        }
+
+        Lane[] newLanes = createLanes(shardCount);
+        for (OutboxEvent event : queued) {
+            newLanes[shardOf(event.getAggregateId(), shardCount)].queue.add(event);
+        }
+        Lane[] stillRetiring = Arrays.copyOf(retiring, retiring.length + oldLanes.length);
+        System.arraycopy(oldLanes, 0, stillRetiring, retiring.length, oldLanes.length);
+        retiring = stillRetiring;
+        lanes = newLanes;
+        log.info("Rebalanced {} queued outbox events onto {} shards", queued.size(), shardCount);
+
+        retiredLaneIdle();
+    }
+
+    static int shardOf(String aggregateId, int shardCount) {
+        return Math.floorMod(aggregateId != null ? aggregateId.hashCode() : 0, shardCount);
+    }
+
+    private Lane[] createLanes(int shardCount) {
+        Lane[] created = new Lane[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            created[i] = new Lane(i);
+        }
+        return created;
+    }
+
+    /**
+     * Starts the current lanes once no retired lane has an event in flight any more.
+     */
+    private void retiredLaneIdle() {
+        synchronized (this) {
+            for (Lane lane : retiring) {
+                if (lane.busy.get()) {
+                    return;
+                }
+            }
+            if (retiring.length > 0) {
+                log.info("In-flight events of the previous shards finished, starting {} shards", lanes.length);
+            }
+            retiring = new Lane[0];
+        }
+        drainAll();
+        notifyCapacityAvailable();
+    }
+
+    private void drainAll() {
+        for (Lane lane : lanes) {
+            lane.drain();
+        }
+    }
+
+    private void notifyCapacityAvailable() {
+        try {
+            capacityListener.run();
+        } catch (Exception e) {
+            log.warn("Outbox capacity listener failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Point-in-time view of one lane.
+     */
+    public record ShardStats(int shard, int queueDepth, boolean busy, long lagMs) {
+    }
+
+    /**
+     * In-flight events of one type across all lanes, limited to its handler's concurrency.
+     */
+    private final class HandlerSlots {
+
+        private final OutboxEventHandler handler;
+        private final int maxConcurrency;
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+
+        private HandlerSlots(OutboxEventHandler handler) {
+            this.handler = handler;
+            this.maxConcurrency = Math.max(1, handler.maxConcurrency());
+            Gauge.builder("outbox.handler.inflight", inFlight, AtomicInteger::get)
+                    .description("Outbox events of this type currently being processed")
+                    .tag("event_type", handler.eventType())
+                    .register(meterRegistry);
+        }
+
+        private boolean tryAcquire() {
+            int current;
+            do {
+                current = inFlight.get();
+                if (current >= maxConcurrency) {
+                    return false;
+                }
+            } while (!inFlight.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        private void release() {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * A single-threaded lane: at most one event is in flight, the next starts when it completes.
+     * Taking the next event is guarded by the lane's lock, so a resize never moves an event
+     * that is being started.
+     */
+    private final class Lane {
+
+        private final int index;
+        private final BlockingQueue<OutboxEvent> queue = new LinkedBlockingQueue<>();
+        private final AtomicBoolean busy = new AtomicBoolean(false);
+        private final List<Meter> meters = new ArrayList<>();
+        private volatile OutboxEvent current;
+        private volatile boolean retired = false;
+
+        private Lane(int index) {
+            this.index = index;
+            String shard = String.valueOf(index);
+            meters.add(Gauge.builder("outbox.dispatcher.shard.queue.depth", queue, BlockingQueue::size)
+                    .description("Outbox events waiting in a dispatcher shard")
+                    .tag("shard", shard)
+                    .register(meterRegistry));
+            meters.add(TimeGauge.builder("outbox.dispatcher.shard.lag", this,
+                            TimeUnit.MILLISECONDS, lane -> lane.lag().toMillis())
+                    .description("Age of the oldest event in a dispatcher shard")
+                    .tag("shard", shard)
+                    .register(meterRegistry));
+        }
+
+        /**
+         * Starts the next event unless one is in flight, the lane waits for retired lanes, or
+         * the event's handler has no free slot; a freed slot drains every lane again.
+         */
+        private void drain() {
+            OutboxEvent event;
+            HandlerSlots slots;
+            synchronized (this) {
+                if (retired || retiring.length > 0 || busy.get()) {
+                    return;
+                }
+                event = queue.peek();
+                if (event == null) {
+                    return;
+                }
+                slots = event.getEventType() != null ? handlerSlots.get(event.getEventType()) : null;
+                if (slots != null && !slots.tryAcquire()) {
+                    return;
+                }
+                queue.poll();
+                busy.set(true);
+                current = event;
+            }
+            start(event, slots);
+        }
+
+        private void start(OutboxEvent event, HandlerSlots slots) {
+            try {
+                CompletableFuture.supplyAsync(() -> slots != null
+                                // No handler: the processor marks the event FAILED
+                                ? processor.process(slots.handler, List.of(event))
+                                : processor.process(event), executor)
+                        .thenCompose(future -> future)
+                        .whenComplete((ignored, throwable) -> {
+                            if (throwable != null) {
+                                log.error("Dispatch of outbox event {} terminated unexpectedly",
+                                        event.getId(), throwable);
+                            }
+                            finished(slots);
+                            if (retired) {
+                                retiredLaneIdle();
+                            } else {
+                                drainAll();
+                                notifyCapacityAvailable();
+                            }
+                        });
+            } catch (RejectedExecutionException e) {
+                log.warn("Outbox dispatcher is shut down, dropping event: {}", event.getId());
+                finished(slots);
+            }
+        }
+
+        private void finished(HandlerSlots slots) {
+            if (slots != null) {
+                slots.release();
+            }
+            current = null;
+            busy.set(false);
+        }
+
+        /**
+         * Stops the lane from starting events and moves its queued events to {@code queued}.
+         */
+        private synchronized void retire(List<OutboxEvent> queued) {
+            retired = true;
+            queue.drainTo(queued);
+            meters.forEach(meterRegistry::remove);
+        }
+
+        private Duration lag() {
+            OutboxEvent head = current != null ? current : queue.peek();
+            if (head == null || head.getCreatedAt() == null) {
+                return Duration.ZERO;
+            }
+            return Duration.between(head.getCreatedAt(), Instant.now());
+        }
+    }
+}
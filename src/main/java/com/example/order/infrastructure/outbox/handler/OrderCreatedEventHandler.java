@@ -0,0 +1,82 @@
+package com.example.order.infrastructure.outbox.handler;
+
+import com.example.order.infrastructure.outbox.payload.OrderCreatedPayload;
+import com.example.order.infrastructure.outbox.payload.OutboxPayloadSerializer;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import com.example.order.infrastructure.saga.SagaOrchestrator;
+import com.example.order.infrastructure.saga.SagaTimeBudget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs the order saga for OrderCreated events.
+ *
+ * The timeout is at least the saga's {@link SagaTimeBudget} plus a margin for its database writes,
+ * so an attempt that is still calling the downstreams within their retry budgets never counts as
+ * timed out. Without outbox.handlers.order-created.timeout-ms it is derived from the budget.
+ */
+@Component
+public class OrderCreatedEventHandler implements OutboxEventHandler {
+
+    public static final String EVENT_TYPE = "OrderCreated";
+
+    private static final Logger log = LoggerFactory.getLogger(OrderCreatedEventHandler.class);
+    private static final Duration DATABASE_MARGIN = Duration.ofSeconds(10);
+
+    private final SagaOrchestrator sagaOrchestrator;
+    private final OutboxPayloadSerializer payloadSerializer;
+    private final int maxConcurrency;
+    private final Duration timeout;
+
+    public OrderCreatedEventHandler(
+            SagaOrchestrator sagaOrchestrator,
+            OutboxPayloadSerializer payloadSerializer,
+            SagaTimeBudget timeBudget,
+            @Value("${outbox.handlers.order-created.max-concurrency:16}") int maxConcurrency,
+            @Value("${outbox.handlers.order-created.timeout-ms:0}") long timeoutMs) {
+        this.sagaOrchestrator = sagaOrchestrator;
+        this.payloadSerializer = payloadSerializer;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+
+        Duration minimum = timeBudget.total().plus(DATABASE_MARGIN);
+        Duration configured = Duration.ofMillis(timeoutMs);
+        if (timeoutMs > 0 && configured.compareTo(minimum) < 0) {
+            log.warn("OrderCreated timeout of {}ms is below the saga's downstream budget, using {}ms",
+                    timeoutMs, minimum.toMillis());
+        }
+        this.timeout = configured.compareTo(minimum) < 0 ? minimum : configured;
+    }
+
+    @Override
+    public String eventType() {
+        return EVENT_TYPE;
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(OutboxEvent event) {
+        String orderId = event.getAggregateId();
+        OrderCreatedPayload payload = payloadSerializer.read(event);
+        return sagaOrchestrator.executeSaga(payload)
+                .thenAccept(result -> {
+                    if (!result.success()) {
+                        throw new OutboxHandlerException(result.errorMessage(), result.cause());
+                    }
+                    log.info("Successfully processed OrderCreated event for order: {}", orderId);
+                });
+    }
+
+    @Override
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public Duration timeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.order.infrastructure.outbox.handler;
+
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handles the outbox events of one event type.
+ *
+ * Handlers are Spring beans collected by the {@link OutboxHandlerRegistry}. A handler's future
+ * completing normally marks the event PROCESSED; completing exceptionally schedules a retry.
+ * An attempt that runs past {@link #timeout()} is not cancelled; its event stays leased until the
+ * attempt finishes, or counts as failed once the lease is about to expire. Handlers must still
+ * tolerate being run again for the same event, e.g. after a crash.
+ */
+public interface OutboxEventHandler {
+
+    /**
+     * @return the event type this handler processes, e.g. {@code OrderCreated}
+     */
+    String eventType();
+
+    /**
+     * Processes one event.
+     *
+     * @param event the claimed event
+     * @return future completing once the event has been handled
+     */
+    CompletableFuture<Void> handle(OutboxEvent event);
+
+    /**
+     * Processes several events of this type in one call. Only invoked with more than one event
+     * when {@link #maxBatchSize()} is greater than 1.
+     *
+     * @param events the claimed events
+     * @return one future per event, in the same order
+     */
+    default List<CompletableFuture<Void>> handleBatch(List<OutboxEvent> events) {
+        return events.stream().map(this::handle).toList();
+    }
+
+    /**
+     * @return how many events of this type may be in flight at once on this instance
+     */
+    default int maxConcurrency() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return how many events are passed to one {@link #handleBatch} call
+     */
+    default int maxBatchSize() {
+        return 1;
+    }
+
+    /**
+     * @return how long one attempt is expected to take at most; longer attempts are logged
+     */
+    default Duration timeout() {
+        return Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.order.infrastructure.outbox.handler;
+
+/**
+ * Signals an expected handler failure, such as a saga that was compensated.
+ * Logged without a stack trace; the event is retried like any other failure.
+ */
+public class OutboxHandlerException extends RuntimeException {
+
+    public OutboxHandlerException(String message) {
+        super(message);
+    }
+
+    public OutboxHandlerException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
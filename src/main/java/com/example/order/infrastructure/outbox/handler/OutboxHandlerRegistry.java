@@ -0,0 +1,52 @@
+package com.example.order.infrastructure.outbox.handler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Looks up the {@link OutboxEventHandler} for an event type.
+ * Events without a handler are marked FAILED.
+ */
+@Component
+public class OutboxHandlerRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxHandlerRegistry.class);
+
+    private final Map<String, OutboxEventHandler> handlers = new LinkedHashMap<>();
+
+    public OutboxHandlerRegistry(List<OutboxEventHandler> handlers) {
+        for (OutboxEventHandler handler : handlers) {
+            OutboxEventHandler existing = this.handlers.putIfAbsent(handler.eventType(), handler);
+            if (existing != null) {
+                throw new IllegalStateException("Duplicate outbox handlers for event type " + handler.eventType()
+                        + ": " + existing.getClass().getSimpleName() + " and " + handler.getClass().getSimpleName());
+            }
+            log.info("Outbox handler for {}: concurrency {}, batch size {}, timeout {}ms",
+                    handler.eventType(), describeConcurrency(handler), handler.maxBatchSize(),
+                    handler.timeout().toMillis());
+        }
+    }
+
+    /**
+     * @param eventType the outbox event type
+     * @return the handler for the type, if one is registered
+     */
+    public Optional<OutboxEventHandler> find(String eventType) {
+        return Optional.ofNullable(eventType != null ? handlers.get(eventType) : null);
+    }
+
+    public Collection<OutboxEventHandler> getHandlers() {
+        return handlers.values();
+    }
+
+    private static String describeConcurrency(OutboxEventHandler handler) {
+        return handler.maxConcurrency() == Integer.MAX_VALUE ? "unbounded" : String.valueOf(handler.maxConcurrency());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.order.infrastructure.outbox.payload;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Field encodings shared by the binary payload codecs.
+ *
+ * UUIDs are written as 16 bytes, strings as a varint length followed by UTF-8 bytes, and amounts
+ * as their unscaled two's-complement bytes followed by a zig-zag varint scale. Nullable values use
+ * length 0 for null and length + 1 otherwise.
+ */
+final class BinaryFields {
+
+    private BinaryFields() {
+    }
+
+    static void writeUuid(DataOutputStream out, String value) throws IOException {
+        UUID uuid = UUID.fromString(value);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    static String readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong()).toString();
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length + 1);
+        out.write(utf8);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length - 1];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeVarInt(out, unscaled.length + 1);
+        out.write(unscaled);
+        // Zig-zag so negative scales stay short
+        writeVarInt(out, (value.scale() << 1) ^ (value.scale() >> 31));
+    }
+
+    static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length - 1];
+        in.readFully(unscaled);
+        int zigZagScale = readVarInt(in);
+        int scale = (zigZagScale >>> 1) ^ -(zigZagScale & 1);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in outbox payload");
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.order.infrastructure.outbox.payload;
+
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.order.infrastructure.outbox.payload.BinaryFields.*;
+
+/**
+ * Schema-based binary payload codec.
+ *
+ * Fields are written in declaration order without names, using the encodings in
+ * {@link BinaryFields}. Items follow the order fields as a varint count (0 for null, count + 1
+ * otherwise), each item being its SKU, a varint quantity and its unit price. A new field means a
+ * new format id, not a change to this layout; {@link BinaryV1OutboxPayloadCodec} reads the layout
+ * from before items were added.
+ */
+@Component
+public class BinaryOutboxPayloadCodec implements OutboxPayloadCodec {
+
+    static final byte FORMAT = 3;
+
+    @Override
+    public byte format() {
+        return FORMAT;
+    }
+
+    @Override
+    public String name() {
+        return "binary";
+    }
+
+    @Override
+    public byte[] encode(OrderCreatedPayload payload) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeUuid(out, payload.orderId());
+            writeString(out, payload.idempotencyKey());
+            writeString(out, payload.shippingAddress());
+            writeDecimal(out, payload.totalAmount());
+            writeString(out, payload.currency());
+            writeItems(out, payload.items());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode binary outbox payload", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public OrderCreatedPayload decode(byte[] body) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            return new OrderCreatedPayload(
+                    readUuid(in),
+                    readString(in),
+                    readString(in),
+                    readDecimal(in),
+                    readString(in),
+                    readItems(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode binary outbox payload", e);
+        }
+    }
+
+    private static void writeItems(DataOutputStream out, List<OrderCreatedPayload.Item> items) throws IOException {
+        if (items == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, items.size() + 1);
+        for (OrderCreatedPayload.Item item : items) {
+            writeString(out, item.skuCode());
+            writeVarInt(out, item.quantity());
+            writeDecimal(out, item.unitPrice());
+        }
+    }
+
+    private static List<OrderCreatedPayload.Item> readItems(DataInputStream in) throws IOException {
+        int count = readVarInt(in);
+        if (count == 0) {
+            return null;
+        }
+        List<OrderCreatedPayload.Item> items = new ArrayList<>(count - 1);
+        for (int i = 0; i < count - 1; i++) {
+            items.add(new OrderCreatedPayload.Item(readString(in), readVarInt(in), readDecimal(in)));
+        }
+        return List.copyOf(items);
+    }
+}
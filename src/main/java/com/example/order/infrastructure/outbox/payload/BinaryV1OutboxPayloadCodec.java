@@ -0,0 +1,65 @@
+package com.example.order.infrastructure.outbox.payload;
+
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static com.example.order.infrastructure.outbox.payload.BinaryFields.*;
+
+/**
+ * First binary payload layout, without order items.
+ *
+ * Kept so events written before items were added to the payload can still be read; they decode
+ * with {@code items == null}. Writing it is only useful while older instances still need to read
+ * new events during a rolling deployment.
+ */
+@Component
+public class BinaryV1OutboxPayloadCodec implements OutboxPayloadCodec {
+
+    static final byte FORMAT = 2;
+
+    @Override
+    public byte format() {
+        return FORMAT;
+    }
+
+    @Override
+    public String name() {
+        return "binary-v1";
+    }
+
+    @Override
+    public byte[] encode(OrderCreatedPayload payload) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeUuid(out, payload.orderId());
+            writeString(out, payload.idempotencyKey());
+            writeString(out, payload.shippingAddress());
+            writeDecimal(out, payload.totalAmount());
+            writeString(out, payload.currency());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode binary outbox payload", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public OrderCreatedPayload decode(byte[] body) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            return new OrderCreatedPayload(
+                    readUuid(in),
+                    readString(in),
+                    readString(in),
+                    readDecimal(in),
+                    readString(in),
+                    null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode binary outbox payload", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.order.infrastructure.outbox.payload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Jackson JSON payload codec, the format outbox payloads were originally stored in.
+ */
+@Component
+public class JsonOutboxPayloadCodec implements OutboxPayloadCodec {
+
+    static final byte FORMAT = 1;
+
+    private final ObjectMapper objectMapper;
+
+    public JsonOutboxPayloadCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte format() {
+        return FORMAT;
+    }
+
+    @Override
+    public String name() {
+        return "json";
+    }
+
+    @Override
+    public byte[] encode(OrderCreatedPayload payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode outbox payload as JSON", e);
+        }
+    }
+
+    @Override
+    public OrderCreatedPayload decode(byte[] body) {
+        try {
+            return objectMapper.readValue(body, OrderCreatedPayload.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode JSON outbox payload", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.order.infrastructure.outbox.payload;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Payload of an {@code OrderCreated} outbox event.
+ *
+ * Carries everything the saga needs, so processing the event does not reload the order.
+ * {@code items} is null for events written before items were part of the payload.
+ */
+public record OrderCreatedPayload(
+        String orderId,
+        String idempotencyKey,
+        String shippingAddress,
+        BigDecimal totalAmount,
+        String currency,
+        List<Item> items
+) {
+
+    /**
+     * @return whether the payload carries the order items
+     */
+    public boolean hasItems() {
+        return items != null && !items.isEmpty();
+    }
+
+    /**
+     * One order line.
+     */
+    public record Item(String skuCode, int quantity, BigDecimal unitPrice) {
+    }
+}
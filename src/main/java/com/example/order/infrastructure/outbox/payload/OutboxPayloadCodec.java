@@ -0,0 +1,24 @@
+package com.example.order.infrastructure.outbox.payload;
+
+/**
+ * Encodes outbox payloads to bytes and back.
+ *
+ * Each codec owns a format id, which {@link OutboxPayloadSerializer} writes in front of the
+ * encoded body so stored payloads stay readable after the configured codec changes.
+ */
+public interface OutboxPayloadCodec {
+
+    /**
+     * @return the format id stored in the first byte of every payload written by this codec
+     */
+    byte format();
+
+    /**
+     * @return the name used to select this codec in {@code outbox.payload.codec}
+     */
+    String name();
+
+    byte[] encode(OrderCreatedPayload payload);
+
+    OrderCreatedPayload decode(byte[] body);
+}
@@ -0,0 +1,157 @@
+package com.example.order.infrastructure.outbox.payload;
+
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Frames outbox payloads with the configured {@link OutboxPayloadCodec}.
+ *
+ * A stored payload is {@code [format][flags][body]}: the codec's format id, a flag byte whose
+ * lowest bit marks a deflated body, and the body itself. Deflated bodies carry their original
+ * length as a 4-byte prefix. Bodies larger than {@code outbox.payload.compression-threshold-bytes}
+ * are deflated when that actually makes them smaller.
+ *
+ * Reading dispatches on the stored format id, so any registered codec can be read regardless of
+ * which one is configured for writing. Events written before binary payloads existed only have the
+ * JSON text column and are read with the JSON codec.
+ */
+@Component
+public class OutboxPayloadSerializer {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxPayloadSerializer.class);
+    private static final int HEADER_LENGTH = 2;
+    private static final byte FLAG_DEFLATED = 0x01;
+
+    private final Map<Byte, OutboxPayloadCodec> codecsByFormat;
+    private final OutboxPayloadCodec writeCodec;
+    private final OutboxPayloadCodec jsonCodec;
+    private final int compressionThreshold;
+
+    public OutboxPayloadSerializer(
+            List<OutboxPayloadCodec> codecs,
+            @Value("${outbox.payload.codec:binary}") String codecName,
+            @Value("${outbox.payload.compression-threshold-bytes:512}") int compressionThreshold) {
+        this.codecsByFormat = codecs.stream()
+                .collect(Collectors.toMap(OutboxPayloadCodec::format, Function.identity()));
+        this.writeCodec = codecs.stream()
+                .filter(codec -> codec.name().equals(codecName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown outbox payload codec: " + codecName));
+        this.jsonCodec = codecsByFormat.get(JsonOutboxPayloadCodec.FORMAT);
+        this.compressionThreshold = compressionThreshold;
+        log.info("Outbox payload codec: {} (compression above {} bytes)", codecName, compressionThreshold);
+    }
+
+    /**
+     * Stores the encoded payload on the event.
+     */
+    public void write(OutboxEvent event, OrderCreatedPayload payload) {
+        event.setPayloadBytes(encode(payload));
+        event.setPayload(null);
+    }
+
+    /**
+     * Reads the payload stored on the event, in whichever format it was written.
+     */
+    public OrderCreatedPayload read(OutboxEvent event) {
+        if (event.getPayloadBytes() != null) {
+            return decode(event.getPayloadBytes());
+        }
+        if (event.getPayload() != null && jsonCodec != null) {
+            return jsonCodec.decode(event.getPayload().getBytes(StandardCharsets.UTF_8));
+        }
+        throw new IllegalStateException("Outbox event " + event.getId() + " has no payload");
+    }
+
+    public byte[] encode(OrderCreatedPayload payload) {
+        byte[] body = writeCodec.encode(payload);
+        byte flags = 0;
+
+        if (body.length > compressionThreshold) {
+            byte[] deflated = deflate(body);
+            if (deflated.length < body.length) {
+                body = deflated;
+                flags |= FLAG_DEFLATED;
+            }
+        }
+
+        byte[] framed = new byte[HEADER_LENGTH + body.length];
+        framed[0] = writeCodec.format();
+        framed[1] = flags;
+        System.arraycopy(body, 0, framed, HEADER_LENGTH, body.length);
+        return framed;
+    }
+
+    public OrderCreatedPayload decode(byte[] framed) {
+        if (framed.length < HEADER_LENGTH) {
+            throw new IllegalArgumentException("Outbox payload is too short: " + framed.length + " bytes");
+        }
+        OutboxPayloadCodec codec = codecsByFormat.get(framed[0]);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown outbox payload format: " + framed[0]);
+        }
+
+        byte[] body = new byte[framed.length - HEADER_LENGTH];
+        System.arraycopy(framed, HEADER_LENGTH, body, 0, body.length);
+        if ((framed[1] & FLAG_DEFLATED) != 0) {
+            body = inflate(body);
+        }
+        return codec.decode(body);
+    }
+
+    private static byte[] deflate(byte[] body) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length);
+            out.writeBytes(ByteBuffer.allocate(4).putInt(body.length).array());
+            byte[] buffer = new byte[Math.max(64, body.length)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        byte[] inflated = new byte[buffer.getInt()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(body, 4, body.length - 4);
+            int length = 0;
+            while (length < inflated.length && !inflater.finished()) {
+                int read = inflater.inflate(inflated, length, inflated.length - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != inflated.length) {
+                throw new IllegalArgumentException("Truncated compressed outbox payload");
+            }
+            return inflated;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed outbox payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
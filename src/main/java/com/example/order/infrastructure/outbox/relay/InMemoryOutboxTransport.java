@@ -0,0 +1,100 @@
+package com.example.order.infrastructure.outbox.relay;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Embedded broker for local runs and tests.
+ *
+ * Messages are kept per event type (the topic), up to {@code outbox.relay.in-memory.retention}
+ * each, and delivered in publish order to the subscribers of their topic. A batch is confirmed
+ * once it is stored and delivered; a failing subscriber is logged and does not fail the batch,
+ * as it would not with a real broker.
+ */
+@Component
+@ConditionalOnExpression("'${outbox.dispatcher.mode:concurrent}' == 'relay' and '${outbox.relay.transport:in-memory}' == 'in-memory'")
+public class InMemoryOutboxTransport implements OutboxTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryOutboxTransport.class);
+
+    private final int retention;
+    private final Map<String, Deque<OutboxMessage>> topics = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<OutboxMessage>>> subscribers = new ConcurrentHashMap<>();
+    // Single thread so delivery order matches publish order
+    private final ExecutorService broker =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("outbox-in-memory-broker-"));
+
+    public InMemoryOutboxTransport(@Value("${outbox.relay.in-memory.retention:10000}") int retention) {
+        this.retention = Math.max(1, retention);
+    }
+
+    @Override
+    public String name() {
+        return "in-memory";
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(List<OutboxMessage> messages) {
+        return CompletableFuture.runAsync(() -> messages.forEach(this::store), broker);
+    }
+
+    /**
+     * Subscribes to all future messages of an event type.
+     */
+    public void subscribe(String eventType, Consumer<OutboxMessage> subscriber) {
+        subscribers.computeIfAbsent(eventType, type -> new CopyOnWriteArrayList<>()).add(subscriber);
+    }
+
+    /**
+     * Returns the retained messages of an event type, oldest first.
+     */
+    public List<OutboxMessage> messages(String eventType) {
+        Deque<OutboxMessage> topic = topics.get(eventType);
+        if (topic == null) {
+            return List.of();
+        }
+        synchronized (topic) {
+            return List.copyOf(topic);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        broker.shutdown();
+        broker.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void store(OutboxMessage message) {
+        Deque<OutboxMessage> topic = topics.computeIfAbsent(message.eventType(), type -> new ArrayDeque<>());
+        synchronized (topic) {
+            topic.addLast(message);
+            if (topic.size() > retention) {
+                topic.removeFirst();
+            }
+        }
+        for (Consumer<OutboxMessage> subscriber : subscribers.getOrDefault(message.eventType(), List.of())) {
+            try {
+                subscriber.accept(message);
+            } catch (Exception e) {
+                log.warn("In-memory subscriber failed for outbox message {}", message.id(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.order.infrastructure.outbox.relay;
+
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * An outbox event as published to a transport.
+ *
+ * {@code payload} holds the stored payload as is: the framed bytes written by
+ * {@link com.example.order.infrastructure.outbox.payload.OutboxPayloadSerializer}, or the UTF-8
+ * JSON text for events written before binary payloads existed.
+ */
+public record OutboxMessage(
+        String id,
+        String aggregateType,
+        String aggregateId,
+        String eventType,
+        byte[] payload,
+        Instant createdAt
+) {
+
+    public static OutboxMessage from(OutboxEvent event) {
+        byte[] payload = event.getPayloadBytes() != null
+                ? event.getPayloadBytes()
+                : event.getPayload() != null ? event.getPayload().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        return new OutboxMessage(
+                event.getId(),
+                event.getAggregateType(),
+                event.getAggregateId(),
+                event.getEventType(),
+                payload,
+                event.getCreatedAt());
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.order.infrastructure.outbox.relay;
+
+import com.example.order.infrastructure.config.InstanceIdentity;
+import com.example.order.infrastructure.outbox.OutboxDispatcher;
+import com.example.order.infrastructure.outbox.OutboxMetrics;
+import com.example.order.infrastructure.outbox.OutboxRetryPolicy;
+import com.example.order.infrastructure.outbox.OutboxStatusWriter;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import com.example.order.infrastructure.persistence.entity.OutboxEventStatus;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes claimed outbox events to an {@link OutboxTransport} instead of running the saga
+ * in-process. Part of Strategy 3: Outbox Pattern.
+ *
+ * Each poll's events are published in batches of {@code outbox.relay.batch-size}. Once the
+ * transport confirms a batch, the whole batch is marked PROCESSED with one UPDATE; if it is not
+ * confirmed within {@code outbox.relay.confirm-timeout-ms}, every event in it is scheduled for
+ * retry like a failed saga. Consumers of the transport receive each event at least once.
+ *
+ * Activated when outbox.dispatcher.mode=relay.
+ */
+@Component
+@ConditionalOnExpression("${outbox.poller.enabled:true} and '${outbox.dispatcher.mode:concurrent}' == 'relay'")
+public class OutboxRelay implements OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxTransport transport;
+    private final OutboxRepository outboxRepository;
+    private final OutboxStatusWriter statusWriter;
+    private final OutboxRetryPolicy retryPolicy;
+    private final OutboxMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final long confirmTimeoutMs;
+
+    private final Timer publishLatency;
+    private final DistributionSummary batchSizes;
+    private final Counter confirmedBatches;
+    private final Counter failedBatches;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private volatile Runnable capacityListener = () -> { };
+
+    public OutboxRelay(
+            OutboxTransport transport,
+            OutboxRepository outboxRepository,
+            OutboxStatusWriter statusWriter,
+            OutboxRetryPolicy retryPolicy,
+            OutboxMetrics metrics,
+            PlatformTransactionManager transactionManager,
+            InstanceIdentity instanceIdentity,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:100}") int batchSize,
+            @Value("${outbox.relay.max-in-flight-batches:4}") int maxInFlightBatches,
+            @Value("${outbox.relay.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.transport = transport;
+        this.outboxRepository = outboxRepository;
+        this.statusWriter = statusWriter;
+        this.retryPolicy = retryPolicy;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.owner = instanceIdentity.getId();
+        this.batchSize = Math.max(1, batchSize);
+        this.maxInFlight = this.batchSize * Math.max(1, maxInFlightBatches);
+        this.confirmTimeoutMs = confirmTimeoutMs;
+
+        this.publishLatency = Timer.builder("outbox.relay.publish.latency")
+                .description("Time from publishing an outbox batch to its confirmation")
+                .tag("transport", transport.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Outbox events per published batch")
+                .tag("transport", transport.name())
+                .register(meterRegistry);
+        this.confirmedBatches = Counter.builder("outbox.relay.batches")
+                .tag("transport", transport.name())
+                .tag("outcome", "confirmed")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("outbox.relay.batches")
+                .tag("transport", transport.name())
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.inflight", inFlight, AtomicInteger::get)
+                .description("Outbox events published but not yet confirmed")
+                .register(meterRegistry);
+
+        log.info("Outbox relay to {} transport, batches of {}", transport.name(), this.batchSize);
+    }
+
+    @Override
+    public int availableCapacity() {
+        return Math.max(0, maxInFlight - inFlight.get());
+    }
+
+    @Override
+    public void dispatch(OutboxEvent event) {
+        dispatchAll(List.of(event));
+    }
+
+    @Override
+    public void dispatchAll(List<OutboxEvent> events) {
+        for (int from = 0; from < events.size(); from += batchSize) {
+            publish(events.subList(from, Math.min(events.size(), from + batchSize)));
+        }
+    }
+
+    @Override
+    public void onCapacityAvailable(Runnable listener) {
+        this.capacityListener = listener;
+    }
+
+    private void publish(List<OutboxEvent> batch) {
+        inFlight.addAndGet(batch.size());
+        batchSizes.record(batch.size());
+        long start = System.nanoTime();
+
+        List<OutboxMessage> messages = batch.stream().map(OutboxMessage::from).toList();
+        transport.publish(messages)
+                .orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, throwable) -> {
+                    try {
+                        if (throwable == null) {
+                            publishLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                            confirmed(batch);
+                        } else {
+                            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                                    throwable.getCause() : throwable;
+                            failed(batch, cause);
+                        }
+                    } catch (Exception e) {
+                        // The leases expire and the reaper returns the events to PENDING
+                        log.error("Failed to record relay outcome for {} outbox events", batch.size(), e);
+                    } finally {
+                        inFlight.addAndGet(-batch.size());
+                        capacityListener.run();
+                    }
+                });
+    }
+
+    private void confirmed(List<OutboxEvent> batch) {
+        confirmedBatches.increment();
+        List<String> ids = batch.stream().map(OutboxEvent::getId).toList();
+        Instant now = Instant.now();
+        Integer updated = transactionTemplate.execute(status ->
+                outboxRepository.markProcessed(ids, OutboxEventStatus.PROCESSED, now, owner));
+        if (updated != null && updated < ids.size()) {
+            log.warn("Only {} of {} relayed outbox events were still leased to this instance", updated, ids.size());
+        }
+        batch.forEach(event -> {
+            event.markProcessed();
+            metrics.recordOutcome(event);
+        });
+        log.debug("Relayed {} outbox events to {}", batch.size(), transport.name());
+    }
+
+    private void failed(List<OutboxEvent> batch, Throwable cause) {
+        failedBatches.increment();
+        log.warn("Publishing {} outbox events to {} failed: {}", batch.size(), transport.name(), cause.toString());
+        String error = "Relay to " + transport.name() + " failed: " + cause.getMessage();
+        for (OutboxEvent event : batch) {
+            retryPolicy.fail(event, error);
+            metrics.recordOutcome(event);
+            statusWriter.write(event);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.order.infrastructure.outbox.relay;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Message transport the {@link OutboxRelay} publishes outbox events to.
+ */
+public interface OutboxTransport {
+
+    /**
+     * @return the transport name, used as a metric tag
+     */
+    String name();
+
+    /**
+     * Publishes a batch of messages.
+     *
+     * @param messages the messages, in outbox order
+     * @return future completing once the transport has confirmed every message in the batch,
+     *         or completing exceptionally if any of them was not accepted
+     */
+    CompletableFuture<Void> publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,260 @@
+package com.example.order.infrastructure.persistence;
+
+import com.example.order.application.dto.CreateOrderCommand;
+import com.example.order.application.dto.OrderResult;
+import com.example.order.infrastructure.persistence.OrderPersistenceService.NewOrder;
+import com.example.order.infrastructure.persistence.wal.OrderWriteAheadLog;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Group-commit stage in front of {@link OrderPersistenceService} for the outbox mode.
+ *
+ * Request threads enqueue orders on a lock-free queue and get a future back. A single writer
+ * thread takes the first waiting order, keeps collecting for up to
+ * {@code outbox.ingestion.max-wait-micros} or until {@code outbox.ingestion.max-batch-size}
+ * orders are gathered, and commits the whole group in one transaction. Each future completes
+ * only after its group has committed, so an accepted order is as durable as before. Futures are
+ * completed on a separate pool so the callers' continuations, such as storing the idempotent
+ * response, never hold up the next group.
+ *
+ * If a group fails to commit, its orders are retried one transaction each so a single bad order
+ * does not fail the others. With outbox.ingestion.enabled=false every order is committed on the
+ * calling thread as before.
+ *
+ * When the {@link OrderWriteAheadLog} is enabled, groups are appended to it instead of the
+ * database, with one disk flush per group, and written to the database later by its drainer.
+ */
+@Component
+@ConditionalOnProperty(value = "outbox.enabled", havingValue = "true")
+public class OrderIngestionPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIngestionPipeline.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final OrderPersistenceService persistenceService;
+    private final OrderWriteAheadLog wal;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final int maxQueueSize;
+    private final DistributionSummary groupSize;
+    private final Timer commitTimer;
+    private final ExecutorService completer;
+
+    private final Queue<Submission> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger(0);
+    private volatile boolean running = false;
+    private volatile boolean writerWaiting = false;
+    private Thread writer;
+
+    public OrderIngestionPipeline(
+            OrderPersistenceService persistenceService,
+            Optional<OrderWriteAheadLog> wal,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.ingestion.enabled:true}") boolean enabled,
+            @Value("${outbox.ingestion.max-batch-size:64}") int maxBatchSize,
+            @Value("${outbox.ingestion.max-wait-micros:2000}") long maxWaitMicros,
+            @Value("${outbox.ingestion.max-queue-size:10000}") int maxQueueSize,
+            @Value("${outbox.ingestion.completion-threads:8}") int completionThreads) {
+        this.persistenceService = persistenceService;
+        this.wal = wal.orElse(null);
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, maxWaitMicros));
+        this.maxQueueSize = Math.max(1, maxQueueSize);
+        this.completer = Executors.newFixedThreadPool(
+                Math.max(1, completionThreads), new CustomizableThreadFactory("order-ingest-complete-"));
+
+        this.groupSize = DistributionSummary.builder("orders.ingestion.group.size")
+                .description("Orders committed per ingestion transaction")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("orders.ingestion.commit")
+                .description("Time to commit one ingestion group")
+                .register(meterRegistry);
+        Gauge.builder("orders.ingestion.queued", queued, AtomicInteger::get)
+                .description("Orders waiting for the next group commit")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("Order group commit disabled, committing each order on the request thread");
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, "order-ingest");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Order group commit: up to {} orders or {}µs per transaction",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMicros(maxWaitNanos));
+    }
+
+    /**
+     * Queues an order for the next group commit.
+     *
+     * @param command        the create order command
+     * @param idempotencyKey the idempotency key
+     * @return future completing with the order result once the order's group has committed
+     */
+    public CompletableFuture<OrderResult> submit(CreateOrderCommand command, String idempotencyKey) {
+        NewOrder order;
+        try {
+            // Orders going to the WAL are acknowledged before they reach the database, so they get their id now
+            order = wal != null
+                    ? new NewOrder(command, idempotencyKey).withAssignedId()
+                    : new NewOrder(command, idempotencyKey);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        if (!running) {
+            if (enabled) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Order ingestion is shutting down"));
+            }
+            try {
+                return CompletableFuture.completedFuture(write(List.of(order)).get(0));
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        if (queued.incrementAndGet() > maxQueueSize) {
+            queued.decrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("Order ingestion queue is full"));
+        }
+
+        Submission submission = new Submission(order, new CompletableFuture<>());
+        queue.offer(submission);
+        if (writerWaiting) {
+            LockSupport.unpark(writer);
+        }
+        return submission.result();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            completer.shutdown();
+            return;
+        }
+        // The writer drains whatever is already queued before it exits
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        Submission late;
+        while ((late = queue.poll()) != null) {
+            late.result().completeExceptionally(new IllegalStateException("Order ingestion is shutting down"));
+        }
+        // Futures already handed to the completer still complete
+        completer.shutdown();
+        completer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void run() {
+        List<Submission> group = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            Submission first = queue.poll();
+            if (first == null) {
+                awaitSubmission(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            group.add(first);
+            long deadline = System.nanoTime() + maxWaitNanos;
+            while (group.size() < maxBatchSize) {
+                Submission next = queue.poll();
+                if (next != null) {
+                    group.add(next);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) {
+                    break;
+                }
+                awaitSubmission(remaining);
+            }
+
+            queued.addAndGet(-group.size());
+            commit(group);
+            group.clear();
+        }
+    }
+
+    private void awaitSubmission(long nanos) {
+        writerWaiting = true;
+        // Re-checked after publishing the flag so a concurrent offer is never missed
+        if (queue.isEmpty() && running) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        writerWaiting = false;
+    }
+
+    private void commit(List<Submission> group) {
+        long start = System.nanoTime();
+        List<OrderResult> results;
+        try {
+            results = write(group.stream().map(Submission::order).toList());
+        } catch (Exception e) {
+            if (group.size() == 1) {
+                fail(group.get(0), e);
+                return;
+            }
+            log.warn("Group commit of {} orders failed, committing them one by one", group.size(), e);
+            group.forEach(this::commitAlone);
+            return;
+        }
+
+        commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        groupSize.record(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            OrderResult result = results.get(i);
+            group.get(i).result().completeAsync(() -> result, completer);
+        }
+    }
+
+    private List<OrderResult> write(List<NewOrder> orders) {
+        return wal != null ? wal.append(orders) : persistenceService.createOrdersWithOutbox(orders);
+    }
+
+    private void commitAlone(Submission submission) {
+        OrderResult result;
+        try {
+            result = write(List.of(submission.order())).get(0);
+        } catch (Exception e) {
+            fail(submission, e);
+            return;
+        }
+        submission.result().completeAsync(() -> result, completer);
+    }
+
+    private void fail(Submission submission, Exception e) {
+        completer.execute(() -> submission.result().completeExceptionally(e));
+    }
+
+    private record Submission(NewOrder order, CompletableFuture<OrderResult> result) {
+    }
+}
@@ -4,21 +4,26 @@ import com.example.order.application.dto.CreateOrderCommand;
 import com.example.order.application.dto.OrderResult;
 import com.example.order.domain.model.Money;
 import com.example.order.domain.model.Order;
+import com.example.order.domain.model.OrderId;
 import com.example.order.domain.model.OrderItem;
 import com.example.order.domain.model.OrderStatus;
 import com.example.order.domain.model.SkuCode;
+import com.example.order.infrastructure.outbox.OutboxEventCreated;
+import com.example.order.infrastructure.outbox.payload.OutboxPayloadSerializer;
 import com.example.order.infrastructure.persistence.entity.*;
 import com.example.order.infrastructure.persistence.mapper.OrderPersistenceMapper;
 import com.example.order.infrastructure.persistence.repository.OrderJpaRepository;
-import com.example.order.infrastructure.persistence.repository.OutboxRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -33,19 +38,22 @@ public class OrderPersistenceService {
     private static final Logger log = LoggerFactory.getLogger(OrderPersistenceService.class);
 
     private final OrderJpaRepository orderRepository;
-    private final OutboxRepository outboxRepository;
     private final OrderPersistenceMapper mapper;
-    private final ObjectMapper objectMapper;
+    private final OutboxPayloadSerializer payloadSerializer;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public OrderPersistenceService(
             OrderJpaRepository orderRepository,
-            OutboxRepository outboxRepository,
             OrderPersistenceMapper mapper,
-            ObjectMapper objectMapper) {
+            OutboxPayloadSerializer payloadSerializer,
+            ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
-        this.outboxRepository = outboxRepository;
         this.mapper = mapper;
-        this.objectMapper = objectMapper;
+        this.payloadSerializer = payloadSerializer;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -58,17 +66,31 @@ public class OrderPersistenceService {
      */
     @Transactional
     public OrderResult createOrderWithOutbox(CreateOrderCommand command, String idempotencyKey) {
+        return persistWithOutbox(new NewOrder(command, idempotencyKey));
+    }
+
+    /**
+     * Creates several orders with their OrderCreated events in one transaction.
+     * All inserts are flushed at commit, where Hibernate sends them as JDBC batches.
+     *
+     * @param orders the orders to create
+     * @return one OrderResult per order, in the same order
+     */
+    @Transactional
+    public List<OrderResult> createOrdersWithOutbox(List<NewOrder> orders) {
+        List<OrderResult> results = new ArrayList<>(orders.size());
+        for (NewOrder order : orders) {
+            results.add(persistWithOutbox(order));
+        }
+        return results;
+    }
+
+    private OrderResult persistWithOutbox(NewOrder newOrder) {
+        String idempotencyKey = newOrder.idempotencyKey();
         log.debug("Creating order with outbox pattern, idempotencyKey: {}", idempotencyKey);
 
         // Create domain order
-        List<OrderItem> items = command.items().stream()
-                .map(item -> OrderItem.of(
-                        SkuCode.of(item.skuCode()),
-                        item.quantity(),
-                        Money.of(item.unitPrice())))
-                .toList();
-
-        Order order = Order.create(items, command.shippingAddress());
+        Order order = newOrder.toDomain();
         String orderId = order.getOrderId().getValue();
 
         // Create and save order entity
@@ -80,7 +102,8 @@ public class OrderPersistenceService {
         orderEntity.setTotalAmount(totalAmount);
         orderEntity.setCurrency("TWD");
 
-        orderRepository.save(orderEntity);
+        // persist rather than save: the id is assigned, so save would merge and SELECT first
+        entityManager.persist(orderEntity);
         log.debug("Saved order entity: {}", orderId);
 
         // Create outbox event in the same transaction
@@ -89,17 +112,28 @@ public class OrderPersistenceService {
         outboxEvent.setAggregateType("Order");
         outboxEvent.setAggregateId(orderId);
         outboxEvent.setEventType("OrderCreated");
-        outboxEvent.setPayload(serializeOrderPayload(orderEntity));
+        payloadSerializer.write(outboxEvent, mapper.toOutboxPayload(orderEntity));
         outboxEvent.setStatus(OutboxEventStatus.PENDING);
 
-        outboxRepository.save(outboxEvent);
+        entityManager.persist(outboxEvent);
         log.debug("Saved outbox event for order: {}", orderId);
 
+        // Wakes the OutboxPoller once this transaction commits
+        eventPublisher.publishEvent(new OutboxEventCreated(
+                outboxEvent.getId(), outboxEvent.getEventType(), orderId));
+
         // Return immediately with PENDING status
         // The actual processing will be done by the OutboxPoller
+        return accepted(order);
+    }
+
+    /**
+     * Result returned for an order that was accepted for asynchronous processing.
+     */
+    public static OrderResult accepted(Order order) {
         return OrderResult.pending(
-                orderId,
-                totalAmount,
+                order.getOrderId().getValue(),
+                order.getTotalAmount().getAmount(),
                 "TWD",
                 order.getCreatedAt(),
                 "訂單已接收，正在處理中"
@@ -181,26 +215,41 @@ public class OrderPersistenceService {
         };
     }
 
-    private String serializeOrderPayload(OrderEntity entity) {
-        try {
-            return objectMapper.writeValueAsString(new OrderPayload(
-                    entity.getId(),
-                    entity.getIdempotencyKey(),
-                    entity.getShippingAddress(),
-                    entity.getTotalAmount(),
-                    entity.getCurrency()
-            ));
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize order payload", e);
-            return "{}";
+    /**
+     * An order waiting to be created, with the idempotency key it was submitted under.
+     * {@code orderId} and {@code createdAt} are null until an id is assigned; orders buffered
+     * before they are persisted get one when accepted so the caller can be told the order id.
+     */
+    public record NewOrder(CreateOrderCommand command, String idempotencyKey, String orderId, Instant createdAt) {
+
+        public NewOrder(CreateOrderCommand command, String idempotencyKey) {
+            this(command, idempotencyKey, null, null);
+        }
+
+        /**
+         * Builds the domain order, keeping the assigned id and creation time if there are any.
+         */
+        public Order toDomain() {
+            List<OrderItem> items = command.items().stream()
+                    .map(item -> OrderItem.of(
+                            SkuCode.of(item.skuCode()),
+                            item.quantity(),
+                            Money.of(item.unitPrice())))
+                    .toList();
+
+            if (orderId == null) {
+                return Order.create(items, command.shippingAddress());
+            }
+            return Order.reconstitute(OrderId.of(orderId), items, command.shippingAddress(),
+                    createdAt, OrderStatus.PENDING);
         }
-    }
 
-    private record OrderPayload(
-            String orderId,
-            String idempotencyKey,
-            String shippingAddress,
-            BigDecimal totalAmount,
-            String currency
-    ) {}
+        /**
+         * Returns this order with a freshly generated id and creation time.
+         */
+        public NewOrder withAssignedId() {
+            Order order = toDomain();
+            return new NewOrder(command, idempotencyKey, order.getOrderId().getValue(), order.getCreatedAt());
+        }
+    }
 }
@@ -0,0 +1,355 @@
+package com.example.order.infrastructure.persistence;
+
+import com.example.order.infrastructure.persistence.entity.OrderStatusEnum;
+import com.example.order.infrastructure.persistence.repository.OrderJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static com.example.order.infrastructure.persistence.entity.OrderStatusEnum.*;
+
+/**
+ * Applies order status transitions for the saga as guarded UPDATEs, group-committed across sagas.
+ *
+ * Every target status may only be reached from the statuses listed in {@link #ALLOWED_FROM};
+ * the current status is checked in the UPDATE's WHERE clause, so two workers racing on the
+ * same order cannot overwrite each other's result. The returned futures report whether the
+ * transition applied.
+ *
+ * Transitions from all in-flight sagas are buffered and flushed together, as one JDBC batch per
+ * transaction, every {@code saga.status-writer.flush-interval-ms} or
+ * {@code saga.status-writer.batch-size} orders. Transitions of the same order within one flush
+ * window are coalesced, so only its latest status is written. Statuses in
+ * {@code saga.status-writer.durable-states} are flushed right away and their future completes
+ * only after the commit, so the saga does not proceed past them until they are stored; the
+ * other transitions complete immediately. With saga.status-writer.enabled=false every
+ * transition is written on its own, synchronously.
+ */
+@Component
+public class OrderStatusWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusWriter.class);
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    static final Map<OrderStatusEnum, Set<OrderStatusEnum>> ALLOWED_FROM = Map.of(
+            // A retried or reclaimed saga starts over from wherever the last run stopped
+            PROCESSING, EnumSet.of(PENDING, PROCESSING, INVENTORY_RESERVED, PAYMENT_COMPLETED,
+                    SHIPPING_REQUESTED, FAILED),
+            INVENTORY_RESERVED, EnumSet.of(PROCESSING, INVENTORY_RESERVED),
+            PAYMENT_COMPLETED, EnumSet.of(INVENTORY_RESERVED, PAYMENT_COMPLETED),
+            SHIPPING_REQUESTED, EnumSet.of(PAYMENT_COMPLETED, SHIPPING_REQUESTED),
+            COMPLETED, EnumSet.of(PAYMENT_COMPLETED, SHIPPING_REQUESTED),
+            FAILED, EnumSet.of(PENDING, PROCESSING, INVENTORY_RESERVED, PAYMENT_COMPLETED,
+                    SHIPPING_REQUESTED, FAILED)
+    );
+
+    private final OrderJpaRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Set<OrderStatusEnum> durableStates;
+    private final DistributionSummary flushSize;
+    private final Counter coalesced;
+
+    private final Map<String, PendingTransition> pending = new ConcurrentHashMap<>();
+    private final Map<Set<OrderStatusEnum>, String> guards = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService flusher =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("order-status-writer-"));
+
+    public OrderStatusWriter(
+            OrderJpaRepository orderRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${saga.status-writer.enabled:true}") boolean enabled,
+            @Value("${saga.status-writer.batch-size:100}") int batchSize,
+            @Value("${saga.status-writer.flush-interval-ms:20}") long flushIntervalMs,
+            @Value("${saga.status-writer.durable-states:PROCESSING,PAYMENT_COMPLETED,COMPLETED,FAILED}")
+            List<OrderStatusEnum> durableStates) {
+        this.orderRepository = orderRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.durableStates = durableStates.isEmpty() ? EnumSet.noneOf(OrderStatusEnum.class) : EnumSet.copyOf(durableStates);
+
+        this.flushSize = DistributionSummary.builder("orders.status.flush.size")
+                .description("Order status updates written per flush")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("orders.status.coalesced")
+                .description("Order status transitions superseded by a later one before being written")
+                .register(meterRegistry);
+
+        if (enabled) {
+            flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Moves the order to {@code status}, keeping the current error message unless one is given.
+     *
+     * @return future with whether the order was in a status that allows the transition
+     */
+    public CompletableFuture<Boolean> transition(String orderId, OrderStatusEnum status, String errorMessage) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(applied(orderId, status, transactionTemplate.execute(tx ->
+                    orderRepository.transitionStatus(orderId, ALLOWED_FROM.get(status), status, errorMessage, Instant.now()))));
+        }
+        return submit(new Transition(orderId, status, errorMessage, null, false, null));
+    }
+
+    /**
+     * Moves the order to PAYMENT_COMPLETED and stores the payment transaction id.
+     *
+     * @return future with whether the order was in a status that allows the transition
+     */
+    public CompletableFuture<Boolean> paymentCompleted(String orderId, String transactionId) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(applied(orderId, PAYMENT_COMPLETED, transactionTemplate.execute(tx ->
+                    orderRepository.transitionStatusWithPayment(orderId, ALLOWED_FROM.get(PAYMENT_COMPLETED),
+                            PAYMENT_COMPLETED, transactionId, Instant.now()))));
+        }
+        return submit(new Transition(orderId, PAYMENT_COMPLETED, null, transactionId, false, null));
+    }
+
+    /**
+     * Moves the order to COMPLETED with its tracking number and a message for the customer.
+     *
+     * @return future with whether the order was in a status that allows the transition
+     */
+    public CompletableFuture<Boolean> completed(String orderId, String trackingNumber, String message) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(applied(orderId, COMPLETED, transactionTemplate.execute(tx ->
+                    orderRepository.transitionStatusWithTracking(orderId, ALLOWED_FROM.get(COMPLETED),
+                            COMPLETED, trackingNumber, message, Instant.now()))));
+        }
+        return submit(new Transition(orderId, COMPLETED, message, null, true, trackingNumber));
+    }
+
+    private CompletableFuture<Boolean> submit(Transition transition) {
+        boolean durable = durableStates.contains(transition.status());
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        pending.compute(transition.orderId(), (id, existing) -> {
+            if (existing == null) {
+                return new PendingTransition(ALLOWED_FROM.get(transition.status()), transition, result);
+            }
+            coalesced.increment();
+            return existing.merge(transition, result);
+        });
+
+        if (durable || pending.size() >= batchSize) {
+            requestFlush();
+        }
+        if (!durable) {
+            // Written with the next flush; the outcome is only logged
+            result.complete(true);
+        }
+        return result;
+    }
+
+    private void requestFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes all buffered transitions, in chunks of at most one batch.
+     */
+    synchronized void flush() {
+        List<PendingTransition> batch = new ArrayList<>(batchSize);
+        for (String orderId : List.copyOf(pending.keySet())) {
+            PendingTransition transition = pending.remove(orderId);
+            if (transition == null) {
+                continue;
+            }
+            batch.add(transition);
+            if (batch.size() >= batchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<PendingTransition> batch) {
+        Map<String, List<PendingTransition>> bySql = batch.stream()
+                .collect(Collectors.groupingBy(this::sqlFor, LinkedHashMap::new, Collectors.toList()));
+        Map<PendingTransition, Boolean> outcomes = new LinkedHashMap<>();
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                Timestamp now = Timestamp.from(Instant.now());
+                for (Map.Entry<String, List<PendingTransition>> group : bySql.entrySet()) {
+                    List<Object[]> rows = group.getValue().stream().map(transition -> transition.row(now)).toList();
+                    int[] counts = jdbcTemplate.batchUpdate(group.getKey(), rows);
+                    for (int i = 0; i < counts.length; i++) {
+                        outcomes.put(group.getValue().get(i), counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO);
+                    }
+                }
+            });
+            flushSize.record(batch.size());
+            log.debug("Flushed {} order status transitions", batch.size());
+        } catch (Exception e) {
+            log.error("Failed to flush {} order status transitions", batch.size(), e);
+            batch.forEach(transition -> transition.fail(e));
+            return;
+        }
+
+        for (PendingTransition transition : batch) {
+            boolean applied = outcomes.getOrDefault(transition, false);
+            applied(transition.current().orderId(), transition.current().status(), applied ? 1 : 0);
+            transition.complete(applied);
+        }
+    }
+
+    private String sqlFor(PendingTransition transition) {
+        String guard = guards.computeIfAbsent(transition.from(), from -> from.stream()
+                .map(status -> "'" + status.name() + "'")
+                .sorted()
+                .collect(Collectors.joining(", ", "(", ")")));
+        String message = transition.current().setsTracking()
+                ? "tracking_number = ?, error_message = ?"
+                : "error_message = COALESCE(?, error_message)";
+        return "UPDATE orders SET status = ?, " + message + ", " +
+                "payment_transaction_id = COALESCE(?, payment_transaction_id), updated_at = ? " +
+                "WHERE id = ? AND status IN " + guard;
+    }
+
+    private static boolean applied(String orderId, OrderStatusEnum status, Integer updated) {
+        if (updated == null || updated == 0) {
+            log.debug("Order {} was not moved to {}: missing or in a later status", orderId, status);
+            return false;
+        }
+        log.debug("Updated order {} status to {}", orderId, status);
+        return true;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private static SqlParameterValue varchar(String value) {
+        return new SqlParameterValue(Types.VARCHAR, value);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * One requested status change.
+     */
+    private record Transition(String orderId, OrderStatusEnum status, String message,
+                              String transactionId, boolean setsTracking, String trackingNumber) {
+    }
+
+    /**
+     * The coalesced transitions of one order waiting for the next flush.
+     * Guarded by the status the order must be in for the first of them.
+     */
+    private static final class PendingTransition {
+
+        private final Set<OrderStatusEnum> from;
+        private final List<CompletableFuture<Boolean>> waiting = new ArrayList<>();
+        private Transition current;
+
+        private PendingTransition(Set<OrderStatusEnum> from, Transition transition, CompletableFuture<Boolean> result) {
+            this.from = from;
+            this.current = transition;
+            this.waiting.add(result);
+        }
+
+        private PendingTransition merge(Transition next, CompletableFuture<Boolean> result) {
+            // Fields the later transition does not set keep the values of the earlier one
+            String message = next.message() != null || next.setsTracking() ? next.message() : current.message();
+            String transactionId = next.transactionId() != null ? next.transactionId() : current.transactionId();
+            boolean setsTracking = next.setsTracking() || current.setsTracking();
+            String trackingNumber = next.setsTracking() ? next.trackingNumber() : current.trackingNumber();
+            current = new Transition(next.orderId(), next.status(), message, transactionId, setsTracking, trackingNumber);
+            waiting.add(result);
+            return this;
+        }
+
+        private Set<OrderStatusEnum> from() {
+            return from;
+        }
+
+        private Transition current() {
+            return current;
+        }
+
+        private Object[] row(Timestamp now) {
+            List<Object> values = new ArrayList<>(6);
+            values.add(current.status().name());
+            if (current.setsTracking()) {
+                values.add(varchar(current.trackingNumber()));
+            }
+            values.add(varchar(truncate(current.message())));
+            values.add(varchar(current.transactionId()));
+            values.add(now);
+            values.add(current.orderId());
+            return values.toArray();
+        }
+
+        private void complete(boolean applied) {
+            // Continuations run off the flusher thread so a saga's next step never delays a flush
+            waiting.forEach(future -> future.completeAsync(() -> applied));
+        }
+
+        private void fail(Exception e) {
+            waiting.forEach(future -> future.completeExceptionally(e));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.order.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Reserved inventory of a compensated saga that still has to be returned to the inventory service.
+ * The row is deleted once the release has been accepted.
+ *
+ * Before its first call the row is assigned the id of the release it is sent with. Until the
+ * release is accepted or rejected, the row is only sent again as part of that release.
+ */
+@Entity
+@Table(name = "inventory_releases", indexes = {
+    @Index(name = "idx_inventory_releases_created", columnList = "created_at"),
+    @Index(name = "idx_inventory_releases_release", columnList = "release_id")
+})
+public class InventoryRelease implements Persistable<String> {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "order_id", nullable = false, length = 36)
+    private String orderId;
+
+    @Column(name = "sku_code", nullable = false, length = 20)
+    private String skuCode;
+
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "release_id", length = 36)
+    private String releaseId;
+
+    // Rows are only ever inserted once, so save() does not need to look them up first
+    @Transient
+    private boolean isNew = true;
+
+    protected InventoryRelease() {
+    }
+
+    public InventoryRelease(String orderId, String skuCode, int quantity) {
+        this.id = UUID.randomUUID().toString();
+        this.orderId = orderId;
+        this.skuCode = skuCode;
+        this.quantity = quantity;
+        this.createdAt = Instant.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getSkuCode() {
+        return skuCode;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getReleaseId() {
+        return releaseId;
+    }
+
+    public void setReleaseId(String releaseId) {
+        this.releaseId = releaseId;
+    }
+}
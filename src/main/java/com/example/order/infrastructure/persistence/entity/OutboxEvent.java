@@ -10,7 +10,9 @@ import java.time.Instant;
 @Entity
 @Table(name = "outbox_events", indexes = {
     @Index(name = "idx_outbox_status", columnList = "status"),
-    @Index(name = "idx_outbox_created_at", columnList = "created_at")
+    @Index(name = "idx_outbox_created_at", columnList = "created_at"),
+    @Index(name = "idx_outbox_status_next_attempt_at", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_outbox_aggregate_created_at", columnList = "aggregate_id, created_at")
 })
 public class OutboxEvent {
 
@@ -30,6 +32,9 @@ public class OutboxEvent {
     @Column(name = "payload", columnDefinition = "TEXT")
     private String payload;
 
+    @Column(name = "payload_bytes", length = 65536)
+    private byte[] payloadBytes;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -39,6 +44,9 @@ public class OutboxEvent {
     @Column(name = "retry_count")
     private Integer retryCount = 0;
 
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
     @Column(name = "status", length = 32)
     @Enumerated(EnumType.STRING)
     private OutboxEventStatus status = OutboxEventStatus.PENDING;
@@ -46,9 +54,18 @@ public class OutboxEvent {
     @Column(name = "error_message", length = 1000)
     private String errorMessage;
 
+    @Column(name = "locked_by", length = 128)
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
     @PrePersist
     protected void onCreate() {
         createdAt = Instant.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
     }
 
     // Getters and Setters
@@ -92,6 +109,14 @@ public class OutboxEvent {
         this.payload = payload;
     }
 
+    public byte[] getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    public void setPayloadBytes(byte[] payloadBytes) {
+        this.payloadBytes = payloadBytes;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -116,6 +141,14 @@ public class OutboxEvent {
         this.retryCount = retryCount;
     }
 
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
     public OutboxEventStatus getStatus() {
         return status;
     }
@@ -132,19 +165,61 @@ public class OutboxEvent {
         this.errorMessage = errorMessage;
     }
 
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    public void setLockedBy(String lockedBy) {
+        this.lockedBy = lockedBy;
+    }
+
+    public Instant getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(Instant lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    public void markClaimed(String owner, Instant leaseExpiry) {
+        this.status = OutboxEventStatus.PROCESSING;
+        this.lockedBy = owner;
+        this.lockedUntil = leaseExpiry;
+    }
+
     public void markProcessed() {
         this.status = OutboxEventStatus.PROCESSED;
         this.processedAt = Instant.now();
+        releaseLease();
     }
 
     public void markFailed(String error) {
         this.status = OutboxEventStatus.FAILED;
         this.errorMessage = error;
         this.retryCount++;
+        releaseLease();
     }
 
-    public void markRetrying() {
+    public void scheduleRetry(String error, Instant nextAttemptAt) {
         this.status = OutboxEventStatus.PENDING;
+        this.errorMessage = error;
         this.retryCount++;
+        this.nextAttemptAt = nextAttemptAt;
+        releaseLease();
+    }
+
+    /**
+     * Returns the event to PENDING without counting the attempt against its retry budget.
+     */
+    public void defer(String reason, Instant nextAttemptAt) {
+        this.status = OutboxEventStatus.PENDING;
+        this.errorMessage = reason;
+        this.nextAttemptAt = nextAttemptAt;
+        releaseLease();
+    }
+
+    private void releaseLease() {
+        this.lockedBy = null;
+        this.lockedUntil = null;
     }
 }
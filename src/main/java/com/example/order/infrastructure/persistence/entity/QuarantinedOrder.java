@@ -0,0 +1,73 @@
+package com.example.order.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Order from the write-ahead log that the database rejected permanently, e.g. with a constraint
+ * violation, moved aside so the WAL drainer can continue.
+ * The record holds the Base64-encoded WAL record body, so the order can be inspected and replayed.
+ */
+@Entity
+@Table(name = "order_wal_quarantine", indexes = {
+    @Index(name = "idx_order_wal_quarantine_quarantined_at", columnList = "quarantined_at")
+})
+public class QuarantinedOrder {
+
+    @Id
+    @Column(name = "order_id", length = 36)
+    private String orderId;
+
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "record", columnDefinition = "TEXT", nullable = false)
+    private String record;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "quarantined_at", nullable = false)
+    private Instant quarantinedAt;
+
+    // Getters and Setters
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getRecord() {
+        return record;
+    }
+
+    public void setRecord(String record) {
+        this.record = record;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public Instant getQuarantinedAt() {
+        return quarantinedAt;
+    }
+
+    public void setQuarantinedAt(Instant quarantinedAt) {
+        this.quarantinedAt = quarantinedAt;
+    }
+}
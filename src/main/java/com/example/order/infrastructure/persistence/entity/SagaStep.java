@@ -0,0 +1,10 @@
+package com.example.order.infrastructure.persistence.entity;
+
+/**
+ * Saga steps recorded in the saga step journal.
+ */
+public enum SagaStep {
+    INVENTORY_RESERVED,
+    PAYMENT_CHARGED,
+    SHIPMENT_CREATED
+}
@@ -0,0 +1,96 @@
+package com.example.order.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * A completed saga step of an order and its result, so a re-executed saga can skip it.
+ * Inventory reservations are recorded per order item.
+ *
+ * Entries are only ever inserted, so they report themselves as new and save() persists them
+ * without looking up the assigned id first.
+ */
+@Entity
+@Table(name = "saga_steps", indexes = {
+    @Index(name = "idx_saga_steps_order", columnList = "order_id"),
+    @Index(name = "idx_saga_steps_completed", columnList = "completed_at")
+})
+public class SagaStepEntry implements Persistable<String> {
+
+    @Id
+    @Column(name = "id", length = 100)
+    private String id;
+
+    @Column(name = "order_id", nullable = false, length = 36)
+    private String orderId;
+
+    @Column(name = "step", nullable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private SagaStep step;
+
+    @Column(name = "item_index")
+    private Integer itemIndex;
+
+    @Column(name = "result")
+    private String result;
+
+    @Column(name = "completed_at", nullable = false)
+    private Instant completedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected SagaStepEntry() {
+    }
+
+    public SagaStepEntry(String orderId, SagaStep step, Integer itemIndex, String result) {
+        this.id = idOf(orderId, step, itemIndex);
+        this.orderId = orderId;
+        this.step = step;
+        this.itemIndex = itemIndex;
+        this.result = result;
+        this.completedAt = Instant.now();
+    }
+
+    public static String idOf(String orderId, SagaStep step, Integer itemIndex) {
+        return orderId + ":" + step + (itemIndex != null ? ":" + itemIndex : "");
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public SagaStep getStep() {
+        return step;
+    }
+
+    public Integer getItemIndex() {
+        return itemIndex;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+}
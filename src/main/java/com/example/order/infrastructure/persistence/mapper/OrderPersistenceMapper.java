@@ -1,6 +1,7 @@
 package com.example.order.infrastructure.persistence.mapper;
 
 import com.example.order.domain.model.*;
+import com.example.order.infrastructure.outbox.payload.OrderCreatedPayload;
 import com.example.order.infrastructure.persistence.entity.OrderEntity;
 import com.example.order.infrastructure.persistence.entity.OrderItemEntity;
 import com.example.order.infrastructure.persistence.entity.OrderStatusEnum;
@@ -50,6 +51,24 @@ public class OrderPersistenceMapper {
         );
     }
 
+    public OrderCreatedPayload toOutboxPayload(OrderEntity entity) {
+        List<OrderCreatedPayload.Item> items = entity.getItems().stream()
+                .map(item -> new OrderCreatedPayload.Item(
+                        item.getSkuCode(),
+                        item.getQuantity(),
+                        item.getUnitPrice()))
+                .toList();
+
+        return new OrderCreatedPayload(
+                entity.getId(),
+                entity.getIdempotencyKey(),
+                entity.getShippingAddress(),
+                entity.getTotalAmount(),
+                entity.getCurrency(),
+                items
+        );
+    }
+
     private OrderItem toOrderItem(OrderItemEntity entity) {
         return OrderItem.of(
                 SkuCode.of(entity.getSkuCode()),
@@ -0,0 +1,40 @@
+package com.example.order.infrastructure.persistence.repository;
+
+import com.example.order.infrastructure.persistence.entity.InventoryRelease;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JPA Repository for InventoryRelease entities.
+ */
+@Repository
+public interface InventoryReleaseRepository extends JpaRepository<InventoryRelease, String> {
+
+    @Query("SELECT r FROM InventoryRelease r ORDER BY r.createdAt")
+    List<InventoryRelease> findOldest(Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM InventoryRelease r")
+    long sumQuantity();
+
+    @Query("SELECT COUNT(DISTINCT r.skuCode) FROM InventoryRelease r")
+    long countSkus();
+
+    boolean existsByIdIn(Collection<String> ids);
+
+    List<InventoryRelease> findByReleaseIdIn(Collection<String> releaseIds);
+
+    @Modifying
+    @Query("UPDATE InventoryRelease r SET r.releaseId = :releaseId WHERE r.id IN :ids")
+    int assignRelease(@Param("releaseId") String releaseId, @Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("DELETE FROM InventoryRelease r WHERE r.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<String> ids);
+}
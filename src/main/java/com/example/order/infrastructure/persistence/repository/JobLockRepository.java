@@ -0,0 +1,48 @@
+package com.example.order.infrastructure.persistence.repository;
+
+import com.example.order.infrastructure.persistence.entity.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * JPA Repository for JobLock entities.
+ */
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    /**
+     * Creates the lock row on first use; fails with a constraint violation if another instance created it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO job_locks (name, locked_until, locked_at, locked_by) " +
+            "VALUES (:name, :lockedUntil, :now, :owner)", nativeQuery = true)
+    int insertLock(@Param("name") String name,
+                   @Param("lockedUntil") Instant lockedUntil,
+                   @Param("now") Instant now,
+                   @Param("owner") String owner);
+
+    /**
+     * Takes over the lock if its lease has expired.
+     */
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedUntil = :lockedUntil, l.lockedAt = :now, l.lockedBy = :owner " +
+            "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int acquireExpired(@Param("name") String name,
+                       @Param("lockedUntil") Instant lockedUntil,
+                       @Param("now") Instant now,
+                       @Param("owner") String owner);
+
+    /**
+     * Shortens the lease of a finished job to {@code lockedUntil}.
+     */
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedUntil = :lockedUntil WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name,
+                @Param("lockedUntil") Instant lockedUntil,
+                @Param("owner") String owner);
+}
@@ -1,9 +1,15 @@
 package com.example.order.infrastructure.persistence.repository;
 
 import com.example.order.infrastructure.persistence.entity.OrderEntity;
+import com.example.order.infrastructure.persistence.entity.OrderStatusEnum;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Optional;
 
 /**
@@ -15,4 +21,37 @@ public interface OrderJpaRepository extends JpaRepository<OrderEntity, String> {
     Optional<OrderEntity> findByIdempotencyKey(String idempotencyKey);
 
     boolean existsByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Moves an order to {@code status} if it is currently in one of {@code from}.
+     * The error message is only overwritten when one is given.
+     */
+    @Modifying
+    @Query("UPDATE OrderEntity o SET o.status = :status, " +
+            "o.errorMessage = COALESCE(:errorMessage, o.errorMessage), o.updatedAt = :now " +
+            "WHERE o.id = :id AND o.status IN :from")
+    int transitionStatus(@Param("id") String id,
+                         @Param("from") Collection<OrderStatusEnum> from,
+                         @Param("status") OrderStatusEnum status,
+                         @Param("errorMessage") String errorMessage,
+                         @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE OrderEntity o SET o.status = :status, o.paymentTransactionId = :transactionId, " +
+            "o.updatedAt = :now WHERE o.id = :id AND o.status IN :from")
+    int transitionStatusWithPayment(@Param("id") String id,
+                                    @Param("from") Collection<OrderStatusEnum> from,
+                                    @Param("status") OrderStatusEnum status,
+                                    @Param("transactionId") String transactionId,
+                                    @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE OrderEntity o SET o.status = :status, o.trackingNumber = :trackingNumber, " +
+            "o.errorMessage = :message, o.updatedAt = :now WHERE o.id = :id AND o.status IN :from")
+    int transitionStatusWithTracking(@Param("id") String id,
+                                     @Param("from") Collection<OrderStatusEnum> from,
+                                     @Param("status") OrderStatusEnum status,
+                                     @Param("trackingNumber") String trackingNumber,
+                                     @Param("message") String message,
+                                     @Param("now") Instant now);
 }
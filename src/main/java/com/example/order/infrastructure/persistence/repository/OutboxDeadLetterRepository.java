@@ -0,0 +1,54 @@
+package com.example.order.infrastructure.persistence.repository;
+
+import com.example.order.infrastructure.persistence.entity.OutboxDeadLetter;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JPA Repository for dead-lettered outbox events.
+ */
+@Repository
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetter, String> {
+
+    /** Hibernate's lock timeout value for {@code SKIP LOCKED}. */
+    String SKIP_LOCKED = "-2";
+
+    /**
+     * Locks the oldest dead letters for replay. Rows already locked by a concurrent replay are
+     * skipped ({@code FOR UPDATE SKIP LOCKED} where the dialect supports it), so two replays
+     * never copy the same event back to the outbox.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("SELECT d FROM OutboxDeadLetter d ORDER BY d.deadLetteredAt ASC LIMIT :limit")
+    List<OutboxDeadLetter> lockOldest(@Param("limit") int limit);
+
+    /**
+     * Same as {@link #lockOldest(int)}, restricted to one event type.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("SELECT d FROM OutboxDeadLetter d WHERE d.eventType = :eventType " +
+            "ORDER BY d.deadLetteredAt ASC LIMIT :limit")
+    List<OutboxDeadLetter> lockOldestByEventType(@Param("eventType") String eventType, @Param("limit") int limit);
+
+    @Query("SELECT d.eventType, COUNT(d) FROM OutboxDeadLetter d GROUP BY d.eventType")
+    List<Object[]> countByEventType();
+
+    @Query("SELECT MIN(d.deadLetteredAt) FROM OutboxDeadLetter d")
+    Instant findOldestDeadLetteredAt();
+
+    @Modifying
+    @Query("DELETE FROM OutboxDeadLetter d WHERE d.id IN :ids")
+    int deleteByIds(@Param("ids") List<String> ids);
+}
@@ -20,11 +20,121 @@ public interface OutboxRepository extends JpaRepository<OutboxEvent, String> {
     @Query("SELECT o FROM OutboxEvent o WHERE o.status = :status ORDER BY o.createdAt ASC")
     List<OutboxEvent> findByStatus(@Param("status") OutboxEventStatus status);
 
-    @Query("SELECT o FROM OutboxEvent o WHERE o.status = 'PENDING' ORDER BY o.createdAt ASC LIMIT :limit")
-    List<OutboxEvent> findPendingEvents(@Param("limit") int limit);
+    long countByStatus(OutboxEventStatus status);
 
-    @Query("SELECT o FROM OutboxEvent o WHERE o.status = 'FAILED' AND o.retryCount < :maxRetries ORDER BY o.createdAt ASC LIMIT :limit")
-    List<OutboxEvent> findFailedEventsForRetry(@Param("maxRetries") int maxRetries, @Param("limit") int limit);
+    @Query("SELECT MIN(o.createdAt) FROM OutboxEvent o WHERE o.status = :status")
+    Instant findOldestCreatedAt(@Param("status") OutboxEventStatus status);
+
+    @Query("SELECT o FROM OutboxEvent o WHERE o.status = 'PENDING' AND o.nextAttemptAt <= :now " +
+            "ORDER BY o.nextAttemptAt ASC LIMIT :limit")
+    List<OutboxEvent> findPendingEvents(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Like {@link #findPendingEvents}, but skips events of aggregates that still have an older
+     * event pending, waiting for a retry or being processed, so the events of one aggregate are
+     * handed out one at a time in creation order.
+     */
+    @Query("SELECT o FROM OutboxEvent o WHERE o.status = 'PENDING' AND o.nextAttemptAt <= :now " +
+            "AND NOT EXISTS (SELECT p.id FROM OutboxEvent p WHERE p.aggregateId = o.aggregateId " +
+            "AND p.status IN ('PENDING', 'PROCESSING') " +
+            "AND (p.createdAt < o.createdAt OR (p.createdAt = o.createdAt AND p.id < o.id))) " +
+            "ORDER BY o.nextAttemptAt ASC LIMIT :limit")
+    List<OutboxEvent> findPendingEventsInAggregateOrder(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Locks a batch of pending events, skipping rows already locked by another instance.
+     * PostgreSQL only; must run inside a transaction.
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at ASC LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockPendingEvents(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Like {@link #lockPendingEvents}, but only locks the oldest unfinished event of each aggregate.
+     * An older event locked by another instance is still seen as PENDING, so its successors are
+     * skipped as well. PostgreSQL only; must run inside a transaction.
+     */
+    @Query(value = "SELECT * FROM outbox_events o WHERE o.status = 'PENDING' AND o.next_attempt_at <= :now " +
+            "AND NOT EXISTS (SELECT 1 FROM outbox_events p WHERE p.aggregate_id = o.aggregate_id " +
+            "AND p.status IN ('PENDING', 'PROCESSING') AND (p.created_at, p.id) < (o.created_at, o.id)) " +
+            "ORDER BY o.next_attempt_at ASC LIMIT :limit FOR UPDATE OF o SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockPendingEventsInAggregateOrder(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Claims the given events for an owner. Only rows that are still PENDING are updated,
+     * so concurrent claims on the same rows never both succeed.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OutboxEvent o SET o.status = :claimed, o.lockedBy = :owner, o.lockedUntil = :until " +
+            "WHERE o.id IN :ids AND o.status = 'PENDING'")
+    int claimEvents(@Param("ids") List<String> ids,
+                    @Param("claimed") OutboxEventStatus claimed,
+                    @Param("owner") String owner,
+                    @Param("until") Instant until);
+
+    @Query("SELECT o FROM OutboxEvent o WHERE o.id IN :ids AND o.lockedBy = :owner AND o.lockedUntil = :until " +
+            "ORDER BY o.nextAttemptAt ASC")
+    List<OutboxEvent> findClaimedEvents(@Param("ids") List<String> ids,
+                                        @Param("owner") String owner,
+                                        @Param("until") Instant until);
+
+    /**
+     * Marks a batch of events as processed in one statement and releases their leases.
+     * Events whose lease was reaped and possibly claimed by another instance are left untouched.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.status = :processed, o.processedAt = :processedAt, " +
+            "o.lockedBy = NULL, o.lockedUntil = NULL " +
+            "WHERE o.id IN :ids AND o.status = 'PROCESSING' AND o.lockedBy = :owner")
+    int markProcessed(@Param("ids") List<String> ids,
+                      @Param("processed") OutboxEventStatus processed,
+                      @Param("processedAt") Instant processedAt,
+                      @Param("owner") String owner);
+
+    /**
+     * Returns PROCESSING events whose lease has expired to the pending pool, counting the lost
+     * attempt as a retry. Events without a lease predate leasing and are treated as expired.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.status = :pending, o.retryCount = o.retryCount + 1, " +
+            "o.nextAttemptAt = :now, o.errorMessage = 'Lease expired', o.lockedBy = NULL, o.lockedUntil = NULL " +
+            "WHERE o.status = 'PROCESSING' AND (o.lockedUntil IS NULL OR o.lockedUntil < :now) " +
+            "AND o.retryCount < :maxRetries")
+    int requeueExpiredLeases(@Param("pending") OutboxEventStatus pending,
+                             @Param("now") Instant now,
+                             @Param("maxRetries") int maxRetries);
+
+    /**
+     * Fails PROCESSING events whose lease has expired and that have no retries left.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.status = :failed, o.retryCount = o.retryCount + 1, " +
+            "o.errorMessage = 'Lease expired', o.lockedBy = NULL, o.lockedUntil = NULL " +
+            "WHERE o.status = 'PROCESSING' AND (o.lockedUntil IS NULL OR o.lockedUntil < :now) " +
+            "AND o.retryCount >= :maxRetries")
+    int failExpiredLeases(@Param("failed") OutboxEventStatus failed,
+                          @Param("now") Instant now,
+                          @Param("maxRetries") int maxRetries);
+
+    @Query("SELECT o.id FROM OutboxEvent o WHERE o.status = 'FAILED' ORDER BY o.createdAt ASC LIMIT :limit")
+    List<String> findFailedEventIds(@Param("limit") int limit);
+
+    /**
+     * Copies the given FAILED events into the dead-letter table.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO outbox_dead_letters (id, aggregate_type, aggregate_id, event_type, payload, " +
+            "payload_bytes, created_at, retry_count, error_message, dead_lettered_at) " +
+            "SELECT id, aggregate_type, aggregate_id, event_type, payload, payload_bytes, created_at, " +
+            "retry_count, error_message, :now FROM outbox_events WHERE id IN (:ids) AND status = 'FAILED'",
+            nativeQuery = true)
+    int copyToDeadLetters(@Param("ids") List<String> ids, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.id IN :ids AND o.status = 'FAILED'")
+    int deleteFailedEvents(@Param("ids") List<String> ids);
 
     @Modifying
     @Query("DELETE FROM OutboxEvent o WHERE o.status = 'PROCESSED' AND o.processedAt < :before")
@@ -0,0 +1,12 @@
+package com.example.order.infrastructure.persistence.repository;
+
+import com.example.order.infrastructure.persistence.entity.QuarantinedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JPA Repository for orders the WAL drainer could not write to the database.
+ */
+@Repository
+public interface QuarantinedOrderRepository extends JpaRepository<QuarantinedOrder, String> {
+}
@@ -0,0 +1,29 @@
+package com.example.order.infrastructure.persistence.repository;
+
+import com.example.order.infrastructure.persistence.entity.SagaStep;
+import com.example.order.infrastructure.persistence.entity.SagaStepEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JPA Repository for SagaStepEntry entities.
+ */
+@Repository
+public interface SagaStepRepository extends JpaRepository<SagaStepEntry, String> {
+
+    List<SagaStepEntry> findByOrderId(String orderId);
+
+    @Modifying
+    @Query("DELETE FROM SagaStepEntry s WHERE s.orderId = :orderId AND s.step = :step")
+    int deleteByOrderIdAndStep(@Param("orderId") String orderId, @Param("step") SagaStep step);
+
+    @Modifying
+    @Query("DELETE FROM SagaStepEntry s WHERE s.completedAt < :before")
+    int deleteCompletedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,159 @@
+package com.example.order.infrastructure.persistence.wal;
+
+import com.example.order.infrastructure.persistence.OrderPersistenceService;
+import com.example.order.infrastructure.persistence.OrderPersistenceService.NewOrder;
+import com.example.order.infrastructure.persistence.entity.QuarantinedOrder;
+import com.example.order.infrastructure.persistence.repository.OrderJpaRepository;
+import com.example.order.infrastructure.persistence.repository.QuarantinedOrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes orders from the {@link OrderWriteAheadLog} to the orders and outbox tables.
+ *
+ * Batches are committed in one transaction each. When a batch fails, its orders are written one
+ * by one, skipping orders that are already in the database because they were drained just before
+ * a crash. An order the database rejects, e.g. with a constraint violation, is moved to the
+ * order_wal_quarantine table so it cannot hold up the orders behind it. If the database is still
+ * failing, the same batch is retried after {@code outbox.wal.drain-retry-delay-ms}; the checkpoint
+ * only moves once every order of a batch is stored or quarantined.
+ */
+@Component
+@ConditionalOnProperty(value = "outbox.wal.enabled", havingValue = "true")
+public class OrderWalDrainer {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderWalDrainer.class);
+    private static final long IDLE_WAIT_MS = 100;
+
+    private final OrderWriteAheadLog wal;
+    private final OrderPersistenceService persistenceService;
+    private final OrderJpaRepository orderRepository;
+    private final QuarantinedOrderRepository quarantineRepository;
+    private final Counter quarantined;
+    private final int batchSize;
+    private final long retryDelayMs;
+
+    private volatile boolean running = false;
+    private Thread worker;
+
+    public OrderWalDrainer(
+            OrderWriteAheadLog wal,
+            OrderPersistenceService persistenceService,
+            OrderJpaRepository orderRepository,
+            QuarantinedOrderRepository quarantineRepository,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.wal.drain-batch-size:200}") int batchSize,
+            @Value("${outbox.wal.drain-retry-delay-ms:1000}") long retryDelayMs) {
+        this.wal = wal;
+        this.persistenceService = persistenceService;
+        this.orderRepository = orderRepository;
+        this.quarantineRepository = quarantineRepository;
+        this.quarantined = Counter.builder("orders.wal.quarantined")
+                .description("Orders from the write-ahead log the database rejected, moved to quarantine")
+                .register(meterRegistry);
+        this.batchSize = Math.max(1, batchSize);
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "order-wal-drainer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                OrderWriteAheadLog.Batch batch = wal.read(batchSize);
+                if (batch.orders().isEmpty()) {
+                    wal.awaitBacklog(IDLE_WAIT_MS, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                drain(batch.orders());
+                wal.checkpoint(batch);
+                log.debug("Drained {} orders from the WAL, {} remaining", batch.orders().size(), wal.getBacklog());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Draining the order WAL failed, retrying in {}ms: {}", retryDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void drain(List<NewOrder> orders) {
+        try {
+            persistenceService.createOrdersWithOutbox(orders);
+        } catch (Exception e) {
+            log.debug("WAL batch of {} orders failed, writing them one by one", orders.size(), e);
+            for (NewOrder order : orders) {
+                if (orderRepository.existsById(order.orderId())) {
+                    continue;
+                }
+                try {
+                    persistenceService.createOrdersWithOutbox(List.of(order));
+                } catch (RuntimeException orderFailure) {
+                    if (!isRejected(orderFailure)) {
+                        throw orderFailure;
+                    }
+                    quarantine(order, orderFailure);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the database rejected the order itself; failures to reach the database are retried.
+     */
+    private static boolean isRejected(Exception e) {
+        return (e instanceof NonTransientDataAccessException && !(e instanceof DataAccessResourceFailureException))
+                || e instanceof IllegalArgumentException;
+    }
+
+    private void quarantine(NewOrder order, Exception cause) {
+        QuarantinedOrder entry = new QuarantinedOrder();
+        entry.setOrderId(order.orderId());
+        entry.setIdempotencyKey(truncate(order.idempotencyKey(), 64));
+        entry.setRecord(Base64.getEncoder().encodeToString(OrderWalRecordCodec.encode(order)));
+        entry.setErrorMessage(truncate(cause.getMessage(), 1000));
+        entry.setQuarantinedAt(Instant.now());
+        quarantineRepository.save(entry);
+        quarantined.increment();
+        log.error("Order {} was rejected by the database and moved to quarantine: {}", order.orderId(), cause.getMessage());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.order.infrastructure.persistence.wal;
+
+import com.example.order.application.dto.CreateOrderCommand;
+import com.example.order.application.dto.CreateOrderCommand.OrderItemDto;
+import com.example.order.infrastructure.persistence.OrderPersistenceService.NewOrder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes accepted orders as write-ahead log record bodies.
+ *
+ * Layout: version byte, order id, creation time in epoch millis, idempotency key, shipping
+ * address, item count, then SKU, quantity and plain-string unit price per item.
+ */
+final class OrderWalRecordCodec {
+
+    private static final byte VERSION = 1;
+
+    private OrderWalRecordCodec() {
+    }
+
+    static byte[] encode(NewOrder order) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(order.orderId());
+            out.writeLong(order.createdAt().toEpochMilli());
+            out.writeUTF(order.idempotencyKey());
+            out.writeUTF(order.command().shippingAddress());
+            out.writeInt(order.command().items().size());
+            for (OrderItemDto item : order.command().items()) {
+                out.writeUTF(item.skuCode());
+                out.writeInt(item.quantity());
+                out.writeUTF(item.unitPrice().toPlainString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode order for the write-ahead log", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static NewOrder decode(byte[] body) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported write-ahead log record version: " + version);
+            }
+            String orderId = in.readUTF();
+            Instant createdAt = Instant.ofEpochMilli(in.readLong());
+            String idempotencyKey = in.readUTF();
+            String shippingAddress = in.readUTF();
+            int count = in.readInt();
+            List<OrderItemDto> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(new OrderItemDto(in.readUTF(), in.readInt(), new BigDecimal(in.readUTF())));
+            }
+            return new NewOrder(new CreateOrderCommand(items, shippingAddress), idempotencyKey, orderId, createdAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode write-ahead log record", e);
+        }
+    }
+}
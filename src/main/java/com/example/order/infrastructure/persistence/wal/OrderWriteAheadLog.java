@@ -0,0 +1,348 @@
+package com.example.order.infrastructure.persistence.wal;
+
+import com.example.order.application.dto.CreateOrderCommand.OrderItemDto;
+import com.example.order.application.dto.OrderResult;
+import com.example.order.domain.model.Order;
+import com.example.order.infrastructure.persistence.OrderPersistenceService;
+import com.example.order.infrastructure.persistence.OrderPersistenceService.NewOrder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Local write-ahead log that accepts orders while the database is slow or unavailable.
+ *
+ * Accepted orders are appended to memory-mapped, checksummed segment files and forced to disk
+ * once per group before they are acknowledged as PENDING. The {@link OrderWalDrainer} then writes
+ * them to the orders and outbox tables and moves the checkpoint forward; segments behind the
+ * checkpoint are deleted. After a crash, every record past the checkpoint is drained again.
+ *
+ * Orders the database could not store are rejected before they are acknowledged. Orders the
+ * database still rejects when drained are moved to a quarantine table by the drainer.
+ *
+ * Until an order has been drained it is not visible through the order query API.
+ *
+ * Activated when outbox.wal.enabled=true, together with outbox.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(value = "outbox.wal.enabled", havingValue = "true")
+public class OrderWriteAheadLog {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderWriteAheadLog.class);
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    // Column sizes of the orders and order_items tables
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+    private static final int MAX_SHIPPING_ADDRESS_LENGTH = 500;
+    private static final int MAX_SKU_CODE_LENGTH = 64;
+    private static final int MAX_AMOUNT_INTEGER_DIGITS = 17;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Map<Long, WalSegment> segments = new ConcurrentSkipListMap<>();
+    private final AtomicLong backlog = new AtomicLong(0);
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition appended = appendLock.newCondition();
+
+    private WalSegment active;
+    private volatile Position checkpoint;
+
+    public OrderWriteAheadLog(
+            MeterRegistry meterRegistry,
+            @Value("${outbox.wal.directory:./data/order-wal}") String directory,
+            @Value("${outbox.wal.segment-size-bytes:16777216}") int segmentSize) throws IOException {
+        this.directory = Paths.get(directory);
+        this.segmentSize = Math.max(4096, segmentSize);
+        Files.createDirectories(this.directory);
+        recover();
+
+        Gauge.builder("orders.wal.backlog", backlog, AtomicLong::get)
+                .description("Orders in the write-ahead log not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("orders.wal.segments", segments, Map::size)
+                .description("Write-ahead log segment files on disk")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Appends a group of orders and forces them to disk with a single flush.
+     * The group is written completely or not at all.
+     *
+     * @param orders orders with assigned ids
+     * @return one PENDING result per order, in the same order
+     */
+    public List<OrderResult> append(List<NewOrder> orders) {
+        // Encoded and checked before anything is written, so an oversized order rejects the whole group
+        List<byte[]> bodies = new ArrayList<>(orders.size());
+        List<OrderResult> results = new ArrayList<>(orders.size());
+        for (NewOrder order : orders) {
+            Order domain = order.toDomain();
+            checkColumns(order, domain);
+            byte[] body = OrderWalRecordCodec.encode(order);
+            if (body.length > WalSegment.maxBodyLength(segmentSize)) {
+                throw new IllegalArgumentException("Order " + order.orderId() + " does not fit in a WAL segment");
+            }
+            bodies.add(body);
+            results.add(OrderPersistenceService.accepted(domain));
+        }
+
+        appendLock.lock();
+        List<WalSegment> rolled = new ArrayList<>();
+        try {
+            for (byte[] body : bodies) {
+                if (!active.fits(body.length)) {
+                    rolled.add(active);
+                    active = openNext();
+                }
+                active.append(body);
+            }
+            // Nothing of the group becomes visible before all of it is on disk
+            rolled.forEach(WalSegment::force);
+            active.force();
+            for (WalSegment segment : rolled) {
+                segment.publish();
+                segment.seal();
+            }
+            active.publish();
+            backlog.addAndGet(orders.size());
+            appended.signalAll();
+        } catch (IOException | RuntimeException e) {
+            for (WalSegment segment : rolled) {
+                segment.discardUnpublished();
+                segment.seal();
+            }
+            active.discardUnpublished();
+            if (e instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new UncheckedIOException("Failed to append orders to the write-ahead log", (IOException) e);
+        } finally {
+            appendLock.unlock();
+        }
+        return results;
+    }
+
+    /**
+     * Rejects an order the orders and order_items tables cannot store. It would be acknowledged
+     * now and only fail once drained, when the client can no longer be told.
+     */
+    private static void checkColumns(NewOrder order, Order domain) {
+        if (order.idempotencyKey() != null && order.idempotencyKey().length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must not exceed " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        if (order.command().shippingAddress().length() > MAX_SHIPPING_ADDRESS_LENGTH) {
+            throw new IllegalArgumentException("ShippingAddress must not exceed " + MAX_SHIPPING_ADDRESS_LENGTH + " characters");
+        }
+        for (OrderItemDto item : order.command().items()) {
+            if (item.skuCode().length() > MAX_SKU_CODE_LENGTH) {
+                throw new IllegalArgumentException("SkuCode must not exceed " + MAX_SKU_CODE_LENGTH + " characters");
+            }
+            checkAmount(item.unitPrice());
+        }
+        checkAmount(domain.getTotalAmount().getAmount());
+    }
+
+    private static void checkAmount(BigDecimal amount) {
+        if (amount.precision() - amount.scale() > MAX_AMOUNT_INTEGER_DIGITS) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " is too large");
+        }
+    }
+
+    /**
+     * Reads up to {@code max} orders after the checkpoint.
+     */
+    Batch read(int max) {
+        Position position = checkpoint;
+        List<NewOrder> orders = new ArrayList<>();
+        while (orders.size() < max) {
+            WalSegment segment = segments.get(position.segment());
+            if (segment == null) {
+                break;
+            }
+            WalSegment.Record record = segment.read(position.offset());
+            if (record == null) {
+                // A sealed segment is complete once its published records are read
+                if (segment.isSealed() && segments.containsKey(position.segment() + 1)) {
+                    position = new Position(position.segment() + 1, 0);
+                    continue;
+                }
+                break;
+            }
+            orders.add(OrderWalRecordCodec.decode(record.body()));
+            position = new Position(position.segment(), record.next());
+        }
+        return new Batch(orders, position);
+    }
+
+    /**
+     * Records that everything before {@code position} is in the database and deletes drained segments.
+     */
+    void checkpoint(Batch batch) {
+        Position position = batch.end();
+        try {
+            writeCheckpoint(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write write-ahead log checkpoint", e);
+        }
+        checkpoint = position;
+        backlog.addAndGet(-batch.orders().size());
+
+        for (WalSegment segment : List.copyOf(segments.values())) {
+            if (segment.sequence() >= position.segment()) {
+                break;
+            }
+            try {
+                segments.remove(segment.sequence());
+                segment.delete();
+                log.debug("Deleted drained WAL segment {}", segment.sequence());
+            } catch (IOException e) {
+                log.warn("Could not delete drained WAL segment {}", segment.sequence(), e);
+            }
+        }
+    }
+
+    /**
+     * Waits until new orders are appended, if none are waiting to be drained.
+     */
+    void awaitBacklog(long timeout, TimeUnit unit) throws InterruptedException {
+        appendLock.lock();
+        try {
+            if (backlog.get() == 0) {
+                appended.await(timeout, unit);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long getBacklog() {
+        return backlog.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        appendLock.lock();
+        try {
+            for (WalSegment segment : segments.values()) {
+                segment.close();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close WAL segments", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private WalSegment openNext() throws IOException {
+        WalSegment next = openSegment(active.sequence() + 1);
+        next.recover(0);
+        segments.put(next.sequence(), next);
+        log.debug("Rolled WAL to segment {}", next.sequence());
+        return next;
+    }
+
+    private void recover() throws IOException {
+        Position recovered = readCheckpoint();
+        List<Long> sequences;
+        try (Stream<Path> files = Files.list(directory)) {
+            sequences = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+
+        long pending = 0;
+        for (long sequence : sequences) {
+            if (sequence < recovered.segment()) {
+                Files.deleteIfExists(segmentPath(sequence));
+                continue;
+            }
+            WalSegment segment = openSegment(sequence);
+            pending += segment.recover(sequence == recovered.segment() ? recovered.offset() : 0);
+            segments.put(sequence, segment);
+        }
+
+        if (segments.isEmpty()) {
+            WalSegment first = openSegment(recovered.segment());
+            first.recover(0);
+            segments.put(first.sequence(), first);
+        }
+        List<WalSegment> open = List.copyOf(segments.values());
+        open.subList(0, open.size() - 1).forEach(WalSegment::seal);
+        active = open.get(open.size() - 1);
+        checkpoint = recovered;
+        backlog.set(pending);
+
+        if (pending > 0) {
+            log.warn("Recovered {} orders from the write-ahead log, replaying them into the database", pending);
+        }
+        log.info("Order WAL in {} ({} segments of {} bytes)", directory.toAbsolutePath(), segments.size(), segmentSize);
+    }
+
+    private WalSegment openSegment(long sequence) throws IOException {
+        return WalSegment.open(segmentPath(sequence), sequence, segmentSize);
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%020d%s", sequence, SEGMENT_SUFFIX));
+    }
+
+    private Position readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return new Position(1, 0);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        return new Position(buffer.getLong(), buffer.getInt());
+    }
+
+    private void writeCheckpoint(Position position) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(12).putLong(position.segment()).putInt(position.offset()).flip());
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Location in the log: segment sequence and byte offset within it.
+     */
+    record Position(long segment, int offset) {
+    }
+
+    /**
+     * Orders read from the log and the position right after the last one.
+     */
+    record Batch(List<NewOrder> orders, Position end) {
+    }
+}
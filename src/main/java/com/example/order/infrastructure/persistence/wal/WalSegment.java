@@ -0,0 +1,179 @@
+package com.example.order.infrastructure.persistence.wal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One preallocated, memory-mapped write-ahead log segment.
+ *
+ * Records are {@code [length][crc32c][body]}; a zero length marks the end of written data.
+ * Records are appended by a single writer and become visible to readers only once
+ * {@link #publish()} has been called after {@link #force()}, so a reader never sees a record
+ * that is not on disk yet.
+ */
+final class WalSegment {
+
+    static final int HEADER_LENGTH = 8;
+
+    private final long sequence;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private int writePosition;
+    private int forcedPosition;
+    private volatile int publishedPosition;
+    private volatile boolean sealed;
+
+    private WalSegment(long sequence, Path path, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.sequence = sequence;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    static WalSegment open(Path path, long sequence, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int size = (int) Math.max(capacity, channel.size());
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        return new WalSegment(sequence, path, channel, buffer, size);
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    /**
+     * Scans valid records from {@code from} and positions the writer after the last one.
+     * A torn or corrupt record ends the scan; everything after it is zeroed.
+     *
+     * @return number of valid records found
+     */
+    int recover(int from) {
+        int position = from;
+        int count = 0;
+        while (true) {
+            Record record = readRecord(position, capacity);
+            if (record == null) {
+                break;
+            }
+            position = record.next();
+            count++;
+        }
+        for (int i = position; i < capacity; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.force();
+        writePosition = position;
+        forcedPosition = position;
+        publishedPosition = position;
+        return count;
+    }
+
+    boolean fits(int bodyLength) {
+        return writePosition + HEADER_LENGTH + bodyLength <= capacity;
+    }
+
+    static int maxBodyLength(int capacity) {
+        return capacity - HEADER_LENGTH;
+    }
+
+    /**
+     * Writes a record after the previous one; it stays invisible until forced and published.
+     */
+    void append(byte[] body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        buffer.putInt(writePosition + 4, (int) crc.getValue());
+        buffer.put(writePosition + HEADER_LENGTH, body);
+        // Length last, so a torn write never looks like a complete record
+        buffer.putInt(writePosition, body.length);
+        writePosition += HEADER_LENGTH + body.length;
+    }
+
+    void force() {
+        if (writePosition > forcedPosition) {
+            buffer.force(forcedPosition, writePosition - forcedPosition);
+            forcedPosition = writePosition;
+        }
+    }
+
+    void publish() {
+        publishedPosition = forcedPosition;
+    }
+
+    /**
+     * Drops records appended since the last publish, e.g. of a group that could not be written
+     * completely, so they are neither read nor recovered after a restart.
+     */
+    void discardUnpublished() {
+        int from = publishedPosition;
+        if (writePosition > from) {
+            for (int i = from; i < writePosition; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force(from, writePosition - from);
+        }
+        writePosition = from;
+        forcedPosition = from;
+    }
+
+    void seal() {
+        sealed = true;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    int publishedPosition() {
+        return publishedPosition;
+    }
+
+    /**
+     * Reads the published record at {@code position}.
+     *
+     * @return the record, or null if nothing has been published there yet
+     */
+    Record read(int position) {
+        return readRecord(position, publishedPosition);
+    }
+
+    private Record readRecord(int position, int limit) {
+        if (position + HEADER_LENGTH > limit) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + HEADER_LENGTH + length > limit) {
+            return null;
+        }
+        byte[] body = new byte[length];
+        buffer.get(position + HEADER_LENGTH, body);
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            return null;
+        }
+        return new Record(body, position + HEADER_LENGTH + length);
+    }
+
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    record Record(byte[] body, int next) {
+    }
+}
@@ -0,0 +1,418 @@
+package com.example.order.infrastructure.saga;
+
+import com.example.order.application.port.out.InventoryPort;
+import com.example.order.application.port.out.InventoryPort.SkuQuantity;
+import com.example.order.domain.model.SkuCode;
+import com.example.order.infrastructure.exception.NonRetryableServiceException;
+import com.example.order.infrastructure.persistence.entity.InventoryRelease;
+import com.example.order.infrastructure.persistence.repository.InventoryReleaseRepository;
+import com.example.order.infrastructure.service.JobLockService;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Returns the inventory reserved by failed sagas to stock.
+ *
+ * Every release is first stored in the inventory_releases table, in the caller's transaction,
+ * and only deleted once the inventory service has accepted it. A crash or a shutdown therefore
+ * never loses a reservation: rows left behind are picked up by the next flush of any instance.
+ * A release may be sent twice if an instance stops between the call and the delete, under the
+ * same release id.
+ *
+ * Releases are not sent per order: quantities are added up per SKU and sent together every
+ * {@code saga.compensation.flush-interval-ms}, at most {@code saga.compensation.batch-size} SKUs
+ * per call to {@link InventoryPort#releaseInventory}. When many payments fail at once, e.g.
+ * during a payment outage, thousands of compensations turn into a few calls. Only one instance
+ * flushes at a time.
+ *
+ * Each call carries a release id as its idempotency key. The id is stored on the rows before the
+ * call, and rows whose call fails with an unknown outcome, e.g. a timeout, are sent again with
+ * the same id and quantities, so the inventory service applies each release only once.
+ *
+ * The calls go through the inventoryReleaseCB circuit breaker and inventoryReleaseRetry.
+ * Rows of a call that still fails are kept and sent with a later flush. When the service rejects
+ * a release of several SKUs with a 4xx, each of its SKUs is sent again on its own; a single SKU
+ * the service rejects is logged and deleted.
+ */
+@Component
+public class InventoryCompensationQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryCompensationQueue.class);
+
+    private static final String LOCK_NAME = "inventory-compensation";
+    private static final int MAX_ROWS_PER_FLUSH = 5000;
+    private static final Duration CALL_TIMEOUT = Duration.ofSeconds(30);
+
+    private final InventoryPort inventoryPort;
+    private final InventoryReleaseRepository releaseRepository;
+    private final JobLockService jobLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long scanIntervalMs;
+
+    // Set when rows may be waiting, so idle flushes do not query the table
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private volatile long nextScanAt;
+    private final AtomicLong pendingUnits = new AtomicLong(0);
+    private final AtomicLong pendingSkus = new AtomicLong(0);
+    private final ScheduledExecutorService flusher =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("inventory-compensation-"));
+
+    private final DistributionSummary batchSizes;
+    private final Counter releasedUnits;
+    private final Counter requeuedUnits;
+    private final Counter rejectedUnits;
+
+    public InventoryCompensationQueue(
+            InventoryPort inventoryPort,
+            InventoryReleaseRepository releaseRepository,
+            JobLockService jobLockService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${saga.compensation.batch-size:100}") int batchSize,
+            @Value("${saga.compensation.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${saga.compensation.scan-interval-ms:30000}") long scanIntervalMs) {
+        this.inventoryPort = inventoryPort;
+        this.releaseRepository = releaseRepository;
+        this.jobLockService = jobLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.scanIntervalMs = scanIntervalMs;
+
+        Gauge.builder("inventory.compensation.backlog", pendingUnits, AtomicLong::get)
+                .description("Units of reserved inventory waiting to be released")
+                .register(meterRegistry);
+        Gauge.builder("inventory.compensation.backlog.skus", pendingSkus, AtomicLong::get)
+                .description("SKUs with inventory waiting to be released")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("inventory.compensation.batch.size")
+                .description("SKUs per inventory release call")
+                .register(meterRegistry);
+        this.releasedUnits = unitsCounter(meterRegistry, "released");
+        this.requeuedUnits = unitsCounter(meterRegistry, "requeued");
+        this.rejectedUnits = unitsCounter(meterRegistry, "rejected");
+
+        flusher.scheduleWithFixedDelay(this::scheduledFlush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stores reserved inventory to be released. Joins the caller's transaction, so the release
+     * is only queued if the caller commits.
+     *
+     * @param orderId  the order the inventory was reserved for
+     * @param releases the reserved quantities
+     */
+    public void enqueue(String orderId, List<SkuQuantity> releases) {
+        store(orderId, releases);
+    }
+
+    /**
+     * Stores reserved inventory to be released and sends it right away, e.g. to undo part of a
+     * reservation before the reservation is reported as failed. The rows are stored on the flush
+     * thread, so callers completing HTTP responses never block on the database.
+     *
+     * @param reference id the rows are stored under, up to 36 characters
+     * @param releases  the reserved quantities
+     * @return future completing with true once the release was sent, or with false when it is
+     *         still stored, e.g. because the inventory service is down, and sent by a later flush
+     */
+    public CompletableFuture<Boolean> release(String reference, List<SkuQuantity> releases) {
+        return CompletableFuture.supplyAsync(() -> store(reference, releases), flusher)
+                .thenCompose(rows -> {
+                    if (rows.isEmpty()) {
+                        return CompletableFuture.completedFuture(true);
+                    }
+                    List<String> ids = rows.stream().map(InventoryRelease::getId).toList();
+                    return flush().thenApply(ignored -> !releaseRepository.existsByIdIn(ids));
+                });
+    }
+
+    private List<InventoryRelease> store(String orderId, List<SkuQuantity> releases) {
+        List<InventoryRelease> rows = releases.stream()
+                .filter(release -> release.quantity() > 0)
+                .map(release -> new InventoryRelease(orderId, release.skuCode().getValue(), release.quantity()))
+                .toList();
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        transactionTemplate.executeWithoutResult(status -> releaseRepository.saveAll(rows));
+        pendingUnits.addAndGet(rows.stream().mapToLong(InventoryRelease::getQuantity).sum());
+        dirty.set(true);
+        log.info("Queued release of {} SKUs for order {}", rows.size(), orderId);
+        return rows;
+    }
+
+    /**
+     * @return units of inventory waiting to be released, as of the last flush
+     */
+    public long getBacklog() {
+        return pendingUnits.get();
+    }
+
+    /**
+     * Sends all stored releases now, after any flush already running.
+     *
+     * @return future completing once the release calls of this flush have finished and the
+     *         released rows are deleted
+     */
+    public CompletableFuture<Void> flush() {
+        dirty.set(true);
+        return CompletableFuture.runAsync(this::flushPending, flusher);
+    }
+
+    private void scheduledFlush() {
+        long now = System.currentTimeMillis();
+        if (!dirty.get() && now < nextScanAt) {
+            return;
+        }
+        // Picks up rows of other instances and of earlier runs even without local enqueues
+        nextScanAt = now + scanIntervalMs;
+        flushPending();
+    }
+
+    private void flushPending() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            boolean locked = jobLockService.runLocked(LOCK_NAME, Duration.ofMinutes(1), Duration.ZERO, () -> {
+                releaseStored();
+                return true;
+            }).isPresent();
+            if (!locked) {
+                // Another instance is flushing; rows it did not see are sent next time
+                dirty.set(true);
+            }
+            refreshBacklog();
+        } catch (Exception e) {
+            dirty.set(true);
+            log.warn("Inventory release flush failed: {}", e.getMessage());
+        }
+    }
+
+    private void releaseStored() {
+        List<InventoryRelease> rows = releaseRepository.findOldest(PageRequest.of(0, MAX_ROWS_PER_FLUSH));
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (rows.size() == MAX_ROWS_PER_FLUSH) {
+            dirty.set(true);
+        }
+
+        List<Release> releases = new ArrayList<>(resend(rows));
+        Map<SkuCode, SkuRelease> perSku = new LinkedHashMap<>();
+        for (InventoryRelease row : rows) {
+            if (row.getReleaseId() == null) {
+                perSku.computeIfAbsent(SkuCode.of(row.getSkuCode()), SkuRelease::new).add(row);
+            }
+        }
+        List<SkuRelease> skus = new ArrayList<>(perSku.values());
+        List<Release> created = new ArrayList<>();
+        for (int from = 0; from < skus.size(); from += batchSize) {
+            created.add(new Release(UUID.randomUUID().toString(),
+                    List.copyOf(skus.subList(from, Math.min(skus.size(), from + batchSize)))));
+        }
+        // Committed before the calls, so a release with an unknown outcome is sent again under its id
+        assign(created);
+        releases.addAll(created);
+
+        List<CompletableFuture<Void>> calls = releases.stream().map(this::call).toList();
+        for (int i = 0; i < releases.size(); i++) {
+            complete(releases.get(i), calls.get(i));
+        }
+    }
+
+    /**
+     * Rebuilds the releases sent before whose outcome is unknown, with all of their rows.
+     */
+    private List<Release> resend(List<InventoryRelease> rows) {
+        Set<String> releaseIds = new LinkedHashSet<>();
+        rows.stream().map(InventoryRelease::getReleaseId).filter(Objects::nonNull).forEach(releaseIds::add);
+        if (releaseIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Map<SkuCode, SkuRelease>> perRelease = new LinkedHashMap<>();
+        releaseIds.forEach(releaseId -> perRelease.put(releaseId, new LinkedHashMap<>()));
+        for (InventoryRelease row : releaseRepository.findByReleaseIdIn(releaseIds)) {
+            perRelease.get(row.getReleaseId())
+                    .computeIfAbsent(SkuCode.of(row.getSkuCode()), SkuRelease::new).add(row);
+        }
+        return perRelease.entrySet().stream()
+                .filter(entry -> !entry.getValue().isEmpty())
+                .map(entry -> new Release(entry.getKey(), List.copyOf(entry.getValue().values())))
+                .toList();
+    }
+
+    private void assign(List<Release> releases) {
+        if (releases.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> releases.forEach(release ->
+                releaseRepository.assignRelease(release.id(), release.rowIds())));
+    }
+
+    private CompletableFuture<Void> call(Release release) {
+        batchSizes.record(release.skus().size());
+        try {
+            return inventoryPort.releaseInventory(release.id(),
+                    release.skus().stream().map(SkuRelease::toSkuQuantity).toList());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void complete(Release release, CompletableFuture<Void> call) {
+        long units = release.units();
+        Throwable failure = awaitCall(call);
+        if (failure == null) {
+            delete(release);
+            releasedUnits.increment(units);
+            log.debug("Released {} units of {} SKUs, release {}", units, release.skus().size(), release.id());
+            return;
+        }
+
+        if (failure instanceof NonRetryableServiceException && release.skus().size() > 1) {
+            // A rejected release was not applied: its SKUs are sent on their own so one bad SKU
+            // does not drop the releases of the others
+            assign(release.skus().stream()
+                    .map(sku -> new Release(UUID.randomUUID().toString(), List.of(sku)))
+                    .toList());
+            requeuedUnits.increment(units);
+            dirty.set(true);
+            log.warn("Inventory service rejected release {} of {} SKUs, retrying per SKU: {}",
+                    release.id(), release.skus().size(), failure.getMessage());
+            return;
+        }
+
+        if (failure instanceof NonRetryableServiceException) {
+            delete(release);
+            rejectedUnits.increment(units);
+            log.error("Inventory service rejected release {} of {}: {}", release.id(),
+                    release.skus().stream().map(SkuRelease::toSkuQuantity).toList(), failure.getMessage());
+            return;
+        }
+
+        // The outcome is unknown, e.g. after a timeout, so the rows keep their release id
+        requeuedUnits.increment(units);
+        dirty.set(true);
+        if (failure instanceof CallNotPermittedException) {
+            log.debug("Inventory release circuit breaker open, keeping {} SKUs queued", release.skus().size());
+        } else {
+            log.warn("Failed to release {} SKUs, sending release {} again with the next flush: {}",
+                    release.skus().size(), release.id(), failure.getMessage());
+        }
+    }
+
+    private static Throwable awaitCall(CompletableFuture<Void> call) {
+        try {
+            call.get(CALL_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        } catch (ExecutionException | CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (TimeoutException e) {
+            return e;
+        }
+    }
+
+    private void delete(Release release) {
+        transactionTemplate.executeWithoutResult(status -> releaseRepository.deleteByIds(release.rowIds()));
+    }
+
+    private void refreshBacklog() {
+        pendingUnits.set(releaseRepository.sumQuantity());
+        pendingSkus.set(releaseRepository.countSkus());
+    }
+
+    private static Counter unitsCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("inventory.compensation.units")
+                .description("Units of reserved inventory handed to the inventory service by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(CALL_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (pendingUnits.get() > 0) {
+            log.info("{} units of inventory are still stored for release on the next start", pendingUnits.get());
+        }
+    }
+
+    /**
+     * Up to batch-size SKUs sent in one call under one release id.
+     */
+    private record Release(String id, List<SkuRelease> skus) {
+
+        private List<String> rowIds() {
+            return skus.stream().flatMap(sku -> sku.rowIds.stream()).toList();
+        }
+
+        private long units() {
+            return skus.stream().mapToLong(sku -> sku.quantity).sum();
+        }
+    }
+
+    /**
+     * Stored rows of one SKU, released together.
+     */
+    private static final class SkuRelease {
+        private final SkuCode skuCode;
+        private final List<String> rowIds = new ArrayList<>();
+        private int quantity;
+
+        private SkuRelease(SkuCode skuCode) {
+            this.skuCode = skuCode;
+        }
+
+        private void add(InventoryRelease row) {
+            rowIds.add(row.getId());
+            quantity += row.getQuantity();
+        }
+
+        private SkuQuantity toSkuQuantity() {
+            return new SkuQuantity(skuCode, quantity);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.order.infrastructure.saga;
+
+import com.example.order.infrastructure.config.ClusterLock;
+import com.example.order.infrastructure.config.SchedulingConfig;
+import com.example.order.infrastructure.persistence.entity.SagaStep;
+import com.example.order.infrastructure.persistence.entity.SagaStepEntry;
+import com.example.order.infrastructure.persistence.repository.SagaStepRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal of completed saga steps, keyed by order id.
+ *
+ * Every step is recorded as soon as its downstream call succeeds, with the result a later run
+ * needs: the remaining quantity of each reserved item, the payment transaction id and the
+ * tracking number. When the outbox retries an order, {@link SagaOrchestrator} loads its
+ * {@link SagaProgress} and only calls the downstreams for the steps still missing.
+ *
+ * Entries are kept for {@code saga.journal.retention-hours} so redelivered events of completed
+ * orders are recognised as well. With saga.journal.enabled=false nothing is recorded and every
+ * run starts from the inventory reservation.
+ */
+@Component
+public class SagaJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(SagaJournal.class);
+
+    private final SagaStepRepository repository;
+    private final boolean enabled;
+    private final int retentionHours;
+
+    public SagaJournal(
+            SagaStepRepository repository,
+            @Value("${saga.journal.enabled:true}") boolean enabled,
+            @Value("${saga.journal.retention-hours:168}") int retentionHours) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.retentionHours = retentionHours;
+    }
+
+    /**
+     * Loads the steps already completed for an order.
+     */
+    @Transactional(readOnly = true)
+    public SagaProgress load(String orderId) {
+        if (!enabled) {
+            return SagaProgress.empty();
+        }
+        Map<Integer, Integer> reservedItems = new HashMap<>();
+        String transactionId = null;
+        String trackingNumber = null;
+        for (SagaStepEntry entry : repository.findByOrderId(orderId)) {
+            switch (entry.getStep()) {
+                case INVENTORY_RESERVED -> reservedItems.put(entry.getItemIndex(), parseQuantity(entry.getResult()));
+                case PAYMENT_CHARGED -> transactionId = entry.getResult();
+                case SHIPMENT_CREATED -> trackingNumber = entry.getResult();
+            }
+        }
+        SagaProgress progress = new SagaProgress(reservedItems, transactionId, trackingNumber);
+        if (!progress.isEmpty()) {
+            log.info("Resuming saga for order {}: {} items reserved, payment {}, shipment {}", orderId,
+                    reservedItems.size(), transactionId != null ? "charged" : "pending",
+                    trackingNumber != null ? "created" : "pending");
+        }
+        return progress;
+    }
+
+    /**
+     * Records a completed step.
+     *
+     * @param orderId   the order
+     * @param step      the step
+     * @param itemIndex index of the order item for per-item steps, otherwise null
+     * @param result    the step's result to reuse on a later run
+     */
+    @Transactional
+    public void record(String orderId, SagaStep step, Integer itemIndex, String result) {
+        if (!enabled) {
+            return;
+        }
+        repository.save(new SagaStepEntry(orderId, step, itemIndex, result));
+        log.debug("Recorded saga step {} for order {}", SagaStepEntry.idOf(orderId, step, itemIndex), orderId);
+    }
+
+    /**
+     * Records a per-item step for several items of an order in one transaction.
+     *
+     * @param orderId the order
+     * @param step    the step
+     * @param results the step's result per item index
+     */
+    @Transactional
+    public void recordAll(String orderId, SagaStep step, Map<Integer, String> results) {
+        if (!enabled || results.isEmpty()) {
+            return;
+        }
+        List<SagaStepEntry> entries = results.entrySet().stream()
+                .map(result -> new SagaStepEntry(orderId, step, result.getKey(), result.getValue()))
+                .toList();
+        repository.saveAll(entries);
+        log.debug("Recorded saga step {} of {} items for order {}", step, entries.size(), orderId);
+    }
+
+    /**
+     * Forgets a step after it has been compensated, so a later run performs it again.
+     */
+    @Transactional
+    public void forget(String orderId, SagaStep step) {
+        if (enabled) {
+            repository.deleteByOrderIdAndStep(orderId, step);
+        }
+    }
+
+    /**
+     * Removes entries older than the retention.
+     * Runs every hour on one instance.
+     */
+    @Scheduled(fixedRate = 3600000, scheduler = SchedulingConfig.OUTBOX_MAINTENANCE_SCHEDULER)
+    @ClusterLock(name = "saga-journal-cleanup", lockAtMostFor = "59m", lockAtLeastFor = "55m")
+    @Transactional
+    public void cleanupCompletedSteps() {
+        int deleted = repository.deleteCompletedBefore(Instant.now().minus(retentionHours, ChronoUnit.HOURS));
+        if (deleted > 0) {
+            log.info("Cleaned up {} saga journal entries older than {} hours", deleted, retentionHours);
+        }
+    }
+
+    private static int parseQuantity(String result) {
+        try {
+            return result != null ? Integer.parseInt(result) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
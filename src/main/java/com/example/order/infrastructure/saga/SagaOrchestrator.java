@@ -2,6 +2,7 @@ package com.example.order.infrastructure.saga;
 
 import com.example.order.application.port.out.InventoryPort;
 import com.example.order.application.port.out.InventoryPort.InventoryReservationResult;
+import com.example.order.application.port.out.InventoryPort.SkuQuantity;
 import com.example.order.application.port.out.PaymentPort;
 import com.example.order.application.port.out.PaymentPort.PaymentResult;
 import com.example.order.application.port.out.ShippingPort;
@@ -11,24 +12,48 @@ import com.example.order.domain.model.Money;
 import com.example.order.domain.model.OrderId;
 import com.example.order.domain.model.OrderItem;
 import com.example.order.domain.model.SkuCode;
-import com.example.order.infrastructure.persistence.entity.OrderEntity;
-import com.example.order.infrastructure.persistence.entity.OrderItemEntity;
+import com.example.order.infrastructure.outbox.payload.OrderCreatedPayload;
+import com.example.order.infrastructure.persistence.OrderStatusWriter;
 import com.example.order.infrastructure.persistence.entity.OrderStatusEnum;
+import com.example.order.infrastructure.persistence.entity.SagaStep;
+import com.example.order.infrastructure.persistence.mapper.OrderPersistenceMapper;
 import com.example.order.infrastructure.persistence.repository.OrderJpaRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
 /**
  * Saga Orchestrator for order processing.
  * Handles the order flow: Inventory → Payment → Shipping
  * with compensation logic for failures.
+ *
+ * The saga runs on the {@link OrderCreatedPayload} carried by the outbox event; the order is only
+ * loaded for events written before the payload carried the order items.
+ *
+ * Completed steps are recorded in the {@link SagaJournal}. When the outbox retries an order, the
+ * saga resumes at the first incomplete step instead of calling every downstream again.
+ *
+ * Status changes go through the {@link OrderStatusWriter} as guarded, group-committed UPDATEs; a
+ * saga whose order is already COMPLETED, e.g. a redelivered event, ends without calling any
+ * downstream.
+ *
+ * When payment fails, whether declined or because the payment call itself failed, the reserved
+ * inventory is stored in the {@link InventoryCompensationQueue}, in the same transaction that
+ * forgets the reservation in the journal, and released from there in batches per SKU. A failed reservation releases the items an earlier run had reserved.
  */
 @Component
 public class SagaOrchestrator {
@@ -36,23 +61,53 @@ public class SagaOrchestrator {
     private static final Logger log = LoggerFactory.getLogger(SagaOrchestrator.class);
 
     private final OrderJpaRepository orderRepository;
+    private final OrderStatusWriter statusWriter;
+    private final OrderPersistenceMapper mapper;
     private final InventoryPort inventoryPort;
     private final PaymentPort paymentPort;
     private final ShippingPort shippingPort;
+    private final SagaJournal sagaJournal;
+    private final InventoryCompensationQueue compensationQueue;
+    private final TransactionTemplate transactionTemplate;
 
     public SagaOrchestrator(
             OrderJpaRepository orderRepository,
+            OrderStatusWriter statusWriter,
+            OrderPersistenceMapper mapper,
             InventoryPort inventoryPort,
             PaymentPort paymentPort,
-            ShippingPort shippingPort) {
+            ShippingPort shippingPort,
+            SagaJournal sagaJournal,
+            InventoryCompensationQueue compensationQueue,
+            PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
+        this.statusWriter = statusWriter;
+        this.mapper = mapper;
         this.inventoryPort = inventoryPort;
         this.paymentPort = paymentPort;
         this.shippingPort = shippingPort;
+        this.sagaJournal = sagaJournal;
+        this.compensationQueue = compensationQueue;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
-     * Executes the order processing saga.
+     * Executes the order processing saga from an outbox event payload.
+     *
+     * @param payload the decoded OrderCreated payload
+     * @return CompletableFuture with the processing result
+     */
+    public CompletableFuture<SagaResult> executeSaga(OrderCreatedPayload payload) {
+        if (!payload.hasItems()) {
+            // Written before the payload carried the order items
+            return executeSaga(payload.orderId());
+        }
+        log.info("Starting saga for order: {}", payload.orderId());
+        return executeOrderSaga(payload);
+    }
+
+    /**
+     * Executes the order processing saga, loading the order first.
      *
      * @param orderId the order ID to process
      * @return CompletableFuture with the processing result
@@ -61,180 +116,247 @@ public class SagaOrchestrator {
         log.info("Starting saga for order: {}", orderId);
 
         return orderRepository.findById(orderId)
-                .map(order -> executeOrderSaga(order))
+                .map(order -> executeOrderSaga(mapper.toOutboxPayload(order)))
                 .orElseGet(() -> CompletableFuture.completedFuture(
                         SagaResult.failure(orderId, "Order not found")));
     }
 
-    private CompletableFuture<SagaResult> executeOrderSaga(OrderEntity order) {
-        String orderId = order.getId();
-
+    private CompletableFuture<SagaResult> executeOrderSaga(OrderCreatedPayload order) {
+        String orderId = order.orderId();
         // Update status to PROCESSING
-        updateOrderStatus(orderId, OrderStatusEnum.PROCESSING, null);
+        return statusWriter.transition(orderId, OrderStatusEnum.PROCESSING, null)
+                .thenCompose(started -> started
+                        ? runSteps(order)
+                        : CompletableFuture.completedFuture(alreadyFinished(orderId)))
+                .exceptionallyCompose(throwable -> {
+                    log.error("Saga failed for order: {}", orderId, throwable);
+                    return statusWriter.transition(orderId, OrderStatusEnum.FAILED, throwable.getMessage())
+                            .handle((updated, ignored) -> SagaResult.failure(orderId, throwable.getMessage(), throwable));
+                });
+    }
+
+    private CompletableFuture<SagaResult> runSteps(OrderCreatedPayload order) {
+        String orderId = order.orderId();
+        SagaProgress progress = sagaJournal.load(orderId);
+        // Set while the inventory of every item is reserved and the payment is not charged yet
+        AtomicBoolean holdsInventory = new AtomicBoolean(false);
+        // Set when the reservation call itself failed, e.g. because the inventory service is down
+        AtomicReference<Throwable> reservationError = new AtomicReference<>();
 
         // Step 1: Reserve Inventory
-        return reserveInventory(order)
+        return reserveInventory(order, progress, reservationError)
                 .thenCompose(inventoryResult -> {
                     if (!inventoryResult.reserved()) {
-                        return CompletableFuture.completedFuture(
-                                handleInventoryFailure(order, inventoryResult));
+                        // Items reserved by an earlier run are released as well
+                        compensateInventory(order, progress.reservedItems().keySet());
+                        return handleInventoryFailure(order, inventoryResult, reservationError.get());
                     }
 
-                    updateOrderStatus(orderId, OrderStatusEnum.INVENTORY_RESERVED, null);
+                    holdsInventory.set(!progress.isPaymentCharged());
+                    statusWriter.transition(orderId, OrderStatusEnum.INVENTORY_RESERVED, null);
 
                     // Step 2: Process Payment
-                    return processPayment(order)
+                    return processPayment(order, progress)
                             .thenCompose(paymentResult -> {
+                                holdsInventory.set(false);
                                 if (!paymentResult.success()) {
                                     // Compensate: Release inventory
-                                    compensateInventory(order);
-                                    return CompletableFuture.completedFuture(
-                                            handlePaymentFailure(order, paymentResult));
+                                    compensateInventory(order, allItems(order));
+                                    return handlePaymentFailure(order, paymentResult);
                                 }
 
-                                updateOrderStatus(orderId, OrderStatusEnum.PAYMENT_COMPLETED,
-                                        paymentResult.transactionId());
-
-                                // Step 3: Create Shipment (with graceful degradation)
-                                return createShipment(order)
-                                        .thenApply(shippingResult ->
+                                // Step 3: Create Shipment (with graceful degradation), once the payment is stored
+                                return statusWriter.paymentCompleted(orderId, paymentResult.transactionId())
+                                        .thenCompose(updated -> createShipment(order, progress))
+                                        .thenCompose(shippingResult ->
                                                 handleShippingResult(order, shippingResult));
                             });
                 })
-                .exceptionally(throwable -> {
-                    log.error("Saga failed for order: {}", orderId, throwable);
-                    updateOrderStatus(orderId, OrderStatusEnum.FAILED,
-                            throwable.getMessage());
-                    return SagaResult.failure(orderId, throwable.getMessage());
+                .exceptionallyCompose(throwable -> {
+                    // The payment call failed, e.g. the payment service is down: release the inventory
+                    // before the saga is marked FAILED, a retry reserves it again
+                    if (holdsInventory.getAndSet(false)) {
+                        compensateInventory(order, allItems(order));
+                    }
+                    return CompletableFuture.failedFuture(throwable);
                 });
     }
 
-    private CompletableFuture<InventoryReservationResult> reserveInventory(OrderEntity order) {
-        log.debug("Reserving inventory for order: {}", order.getId());
-
-        // Reserve inventory for each item
-        List<CompletableFuture<InventoryReservationResult>> reservations = order.getItems().stream()
-                .map(item -> inventoryPort.reserveInventory(
-                        SkuCode.of(item.getSkuCode()),
-                        item.getQuantity()))
-                .toList();
+    private CompletableFuture<InventoryReservationResult> reserveInventory(OrderCreatedPayload order,
+                                                                           SagaProgress progress,
+                                                                           AtomicReference<Throwable> error) {
+        log.debug("Reserving inventory for order: {}", order.orderId());
+
+        // Reserve inventory for all items not reserved by an earlier run, in one all-or-nothing call
+        List<Integer> itemIndexes = new ArrayList<>();
+        List<SkuQuantity> items = new ArrayList<>();
+        for (int i = 0; i < order.items().size(); i++) {
+            if (progress.isReserved(i)) {
+                continue;
+            }
+            OrderCreatedPayload.Item item = order.items().get(i);
+            itemIndexes.add(i);
+            items.add(SkuQuantity.of(item.skuCode(), item.quantity()));
+        }
+        InventoryReservationResult reserved = InventoryReservationResult.success(order.items().get(0).skuCode(), 0);
+        if (items.isEmpty()) {
+            return CompletableFuture.completedFuture(reserved);
+        }
 
-        // Combine all reservations - fail if any fails
-        return CompletableFuture.allOf(reservations.toArray(new CompletableFuture[0]))
-                .thenApply(v -> {
-                    boolean allReserved = reservations.stream()
-                            .map(CompletableFuture::join)
-                            .allMatch(InventoryReservationResult::reserved);
-
-                    if (allReserved) {
-                        return InventoryReservationResult.success(
-                                order.getItems().get(0).getSkuCode(), 0);
-                    } else {
-                        return InventoryReservationResult.failure(
-                                "INSUFFICIENT_STOCK", "One or more items could not be reserved");
+        return inventoryPort.reserveAll(items)
+                .thenApply(results -> {
+                    Map<String, Integer> remaining = new HashMap<>();
+                    results.forEach(result -> remaining.put(result.skuCode(), result.remainingQuantity()));
+                    Map<Integer, String> journal = new HashMap<>();
+                    for (int i = 0; i < itemIndexes.size(); i++) {
+                        String skuCode = items.get(i).skuCode().getValue();
+                        journal.put(itemIndexes.get(i), String.valueOf(remaining.getOrDefault(skuCode, 0)));
                     }
+                    try {
+                        sagaJournal.recordAll(order.orderId(), SagaStep.INVENTORY_RESERVED, journal);
+                    } catch (RuntimeException e) {
+                        // The caller only releases journaled items, so this run's reservations are released here
+                        releaseUnjournaled(order, items, e);
+                        throw e;
+                    }
+                    return reserved;
                 })
                 .exceptionally(throwable -> {
                     log.error("Inventory reservation failed", throwable);
                     Throwable cause = throwable instanceof CompletionException ?
                             throwable.getCause() : throwable;
+                    error.set(cause);
                     return InventoryReservationResult.failure(
                             "RESERVATION_ERROR", cause.getMessage());
                 });
     }
 
-    private CompletableFuture<PaymentResult> processPayment(OrderEntity order) {
-        log.debug("Processing payment for order: {}", order.getId());
+    private CompletableFuture<PaymentResult> processPayment(OrderCreatedPayload order, SagaProgress progress) {
+        if (progress.isPaymentCharged()) {
+            log.debug("Payment for order {} already charged: {}", order.orderId(), progress.transactionId());
+            return CompletableFuture.completedFuture(
+                    PaymentResult.success(progress.transactionId(), "Charged by an earlier saga run"));
+        }
+        log.debug("Processing payment for order: {}", order.orderId());
 
-        BigDecimal totalAmount = order.getTotalAmount();
-        String currency = order.getCurrency() != null ? order.getCurrency() : "TWD";
+        BigDecimal totalAmount = order.totalAmount();
+        String currency = order.currency() != null ? order.currency() : "TWD";
 
         return paymentPort.processPayment(
-                OrderId.of(order.getId()),
-                Money.of(totalAmount, currency),
-                order.getIdempotencyKey());
+                        OrderId.of(order.orderId()),
+                        Money.of(totalAmount, currency),
+                        order.idempotencyKey())
+                .thenApply(result -> {
+                    if (result.success()) {
+                        sagaJournal.record(order.orderId(), SagaStep.PAYMENT_CHARGED, null, result.transactionId());
+                    }
+                    return result;
+                });
     }
 
-    private CompletableFuture<ShippingResult> createShipment(OrderEntity order) {
-        log.debug("Creating shipment for order: {}", order.getId());
+    private CompletableFuture<ShippingResult> createShipment(OrderCreatedPayload order, SagaProgress progress) {
+        if (progress.isShipmentCreated()) {
+            log.debug("Shipment for order {} already created: {}", order.orderId(), progress.trackingNumber());
+            return CompletableFuture.completedFuture(
+                    ShippingResult.created(progress.trackingNumber(), "Created by an earlier saga run"));
+        }
+        log.debug("Creating shipment for order: {}", order.orderId());
 
-        List<OrderItem> items = order.getItems().stream()
+        List<OrderItem> items = order.items().stream()
                 .map(item -> OrderItem.of(
-                        SkuCode.of(item.getSkuCode()),
-                        item.getQuantity(),
-                        Money.of(item.getUnitPrice())))
+                        SkuCode.of(item.skuCode()),
+                        item.quantity(),
+                        Money.of(item.unitPrice())))
                 .toList();
 
         return shippingPort.createShipment(
-                OrderId.of(order.getId()),
-                order.getShippingAddress(),
-                items);
+                        OrderId.of(order.orderId()),
+                        order.shippingAddress(),
+                        items)
+                .thenApply(result -> {
+                    if (!result.deferred() && result.trackingNumber() != null) {
+                        sagaJournal.record(order.orderId(), SagaStep.SHIPMENT_CREATED, null, result.trackingNumber());
+                    }
+                    return result;
+                });
+    }
+
+    private void compensateInventory(OrderCreatedPayload order, Collection<Integer> itemIndexes) {
+        if (itemIndexes.isEmpty()) {
+            return;
+        }
+        log.info("Compensating inventory for order: {}", order.orderId());
+        List<SkuQuantity> releases = itemIndexes.stream()
+                .sorted()
+                .map(order.items()::get)
+                .map(item -> SkuQuantity.of(item.skuCode(), item.quantity()))
+                .toList();
+        // The reservation is only forgotten once its release is stored; a retry reserves again
+        transactionTemplate.executeWithoutResult(status -> {
+            compensationQueue.enqueue(order.orderId(), releases);
+            sagaJournal.forget(order.orderId(), SagaStep.INVENTORY_RESERVED);
+        });
+    }
+
+    private void releaseUnjournaled(OrderCreatedPayload order, List<SkuQuantity> items, RuntimeException failure) {
+        log.error("Could not journal the inventory reserved for order {}, releasing it", order.orderId(), failure);
+        try {
+            compensationQueue.enqueue(order.orderId(), items);
+        } catch (RuntimeException e) {
+            log.error("Could not store the release of the inventory reserved for order {}: {}",
+                    order.orderId(), items, e);
+            failure.addSuppressed(e);
+        }
     }
 
-    private void compensateInventory(OrderEntity order) {
-        log.info("Compensating inventory for order: {}", order.getId());
-        // In a real implementation, this would release the reserved inventory
-        // For this PoC, we just log the compensation
-        order.getItems().forEach(item ->
-                log.info("Would release {} units of SKU {} for order {}",
-                        item.getQuantity(), item.getSkuCode(), order.getId()));
+    private static List<Integer> allItems(OrderCreatedPayload order) {
+        return IntStream.range(0, order.items().size()).boxed().toList();
     }
 
-    private SagaResult handleInventoryFailure(OrderEntity order, InventoryReservationResult result) {
+    private CompletableFuture<SagaResult> handleInventoryFailure(OrderCreatedPayload order,
+                                                                 InventoryReservationResult result,
+                                                                 Throwable cause) {
         String message = "庫存預留失敗: " + result.errorMessage();
-        updateOrderStatus(order.getId(), OrderStatusEnum.FAILED, message);
-        return SagaResult.failure(order.getId(), message);
+        return statusWriter.transition(order.orderId(), OrderStatusEnum.FAILED, message)
+                .thenApply(updated -> SagaResult.failure(order.orderId(), message, cause));
     }
 
-    private SagaResult handlePaymentFailure(OrderEntity order, PaymentResult result) {
+    private CompletableFuture<SagaResult> handlePaymentFailure(OrderCreatedPayload order, PaymentResult result) {
         String message = "支付處理失敗: " + result.errorMessage();
-        updateOrderStatus(order.getId(), OrderStatusEnum.FAILED, message);
-        return SagaResult.failure(order.getId(), message);
+        return statusWriter.transition(order.orderId(), OrderStatusEnum.FAILED, message)
+                .thenApply(updated -> SagaResult.failure(order.orderId(), message));
     }
 
-    private SagaResult handleShippingResult(OrderEntity order, ShippingResult result) {
-        String orderId = order.getId();
+    private CompletableFuture<SagaResult> handleShippingResult(OrderCreatedPayload order, ShippingResult result) {
+        String orderId = order.orderId();
 
         if (result.deferred()) {
             // Shipping is deferred but order is successful
-            updateOrderStatusWithTracking(orderId, OrderStatusEnum.COMPLETED, null,
-                    "訂單完成，物流單號稍後通知");
-            return SagaResult.successWithDeferredShipping(orderId);
+            return statusWriter.completed(orderId, null, "訂單完成，物流單號稍後通知")
+                    .thenApply(updated -> SagaResult.successWithDeferredShipping(orderId));
         } else if (result.trackingNumber() != null) {
             // Full success
-            updateOrderStatusWithTracking(orderId, OrderStatusEnum.COMPLETED,
-                    result.trackingNumber(), "訂單完成");
-            return SagaResult.success(orderId, result.trackingNumber());
+            return statusWriter.completed(orderId, result.trackingNumber(), "訂單完成")
+                    .thenApply(updated -> SagaResult.success(orderId, result.trackingNumber()));
         } else {
             // Shipping failed but we still complete the order (graceful degradation)
-            updateOrderStatusWithTracking(orderId, OrderStatusEnum.COMPLETED, null,
-                    "訂單完成，物流建單失敗將稍後重試");
-            return SagaResult.successWithDeferredShipping(orderId);
+            return statusWriter.completed(orderId, null, "訂單完成，物流建單失敗將稍後重試")
+                    .thenApply(updated -> SagaResult.successWithDeferredShipping(orderId));
         }
     }
 
-    @Transactional
-    protected void updateOrderStatus(String orderId, OrderStatusEnum status, String errorMessage) {
-        orderRepository.findById(orderId).ifPresent(order -> {
-            order.setStatus(status);
-            if (errorMessage != null) {
-                order.setErrorMessage(errorMessage);
-            }
-            orderRepository.save(order);
-            log.debug("Updated order {} status to {}", orderId, status);
-        });
-    }
-
-    @Transactional
-    protected void updateOrderStatusWithTracking(String orderId, OrderStatusEnum status,
-                                                  String trackingNumber, String message) {
-        orderRepository.findById(orderId).ifPresent(order -> {
-            order.setStatus(status);
-            order.setTrackingNumber(trackingNumber);
-            order.setErrorMessage(message);
-            orderRepository.save(order);
-            log.debug("Updated order {} status to {} with tracking {}",
-                    orderId, status, trackingNumber);
-        });
+    /**
+     * Result for an order that could not be moved to PROCESSING: already completed, or missing.
+     */
+    private SagaResult alreadyFinished(String orderId) {
+        return orderRepository.findById(orderId)
+                .filter(order -> order.getStatus() == OrderStatusEnum.COMPLETED)
+                .map(order -> {
+                    log.info("Order {} is already completed, skipping saga", orderId);
+                    return order.getTrackingNumber() != null
+                            ? SagaResult.success(orderId, order.getTrackingNumber())
+                            : SagaResult.successWithDeferredShipping(orderId);
+                })
+                .orElseGet(() -> SagaResult.failure(orderId, "Order not found"));
     }
 }
@@ -0,0 +1,41 @@
+package com.example.order.infrastructure.saga;
+
+import java.util.Map;
+
+/**
+ * Steps of an order saga that completed in earlier runs, loaded from the {@link SagaJournal}.
+ *
+ * @param reservedItems  remaining stock reported for each reserved order item, by item index
+ * @param transactionId  payment transaction id, or null if the payment is not charged yet
+ * @param trackingNumber shipment tracking number, or null if no shipment was created yet
+ */
+public record SagaProgress(
+        Map<Integer, Integer> reservedItems,
+        String transactionId,
+        String trackingNumber
+) {
+
+    public SagaProgress {
+        reservedItems = Map.copyOf(reservedItems);
+    }
+
+    public static SagaProgress empty() {
+        return new SagaProgress(Map.of(), null, null);
+    }
+
+    public boolean isReserved(int itemIndex) {
+        return reservedItems.containsKey(itemIndex);
+    }
+
+    public boolean isPaymentCharged() {
+        return transactionId != null;
+    }
+
+    public boolean isShipmentCreated() {
+        return trackingNumber != null;
+    }
+
+    public boolean isEmpty() {
+        return reservedItems.isEmpty() && transactionId == null && trackingNumber == null;
+    }
+}
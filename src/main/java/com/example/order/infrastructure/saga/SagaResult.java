@@ -2,24 +2,30 @@ package com.example.order.infrastructure.saga;
 
 /**
  * Result of saga execution.
+ * A failure caused by a downstream call carries that call's exception as its cause.
  */
 public record SagaResult(
         String orderId,
         boolean success,
         String trackingNumber,
         boolean deferredShipping,
-        String errorMessage
+        String errorMessage,
+        Throwable cause
 ) {
 
     public static SagaResult success(String orderId, String trackingNumber) {
-        return new SagaResult(orderId, true, trackingNumber, false, null);
+        return new SagaResult(orderId, true, trackingNumber, false, null, null);
     }
 
     public static SagaResult successWithDeferredShipping(String orderId) {
-        return new SagaResult(orderId, true, null, true, null);
+        return new SagaResult(orderId, true, null, true, null, null);
     }
 
     public static SagaResult failure(String orderId, String errorMessage) {
-        return new SagaResult(orderId, false, null, false, errorMessage);
+        return new SagaResult(orderId, false, null, false, errorMessage, null);
+    }
+
+    public static SagaResult failure(String orderId, String errorMessage, Throwable cause) {
+        return new SagaResult(orderId, false, null, false, errorMessage, cause);
     }
 }
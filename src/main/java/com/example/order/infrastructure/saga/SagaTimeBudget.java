@@ -0,0 +1,69 @@
+package com.example.order.infrastructure.saga;
+
+import io.github.resilience4j.core.functions.Either;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Longest time one saga run can spend calling its downstreams with the configured resilience
+ * settings: every attempt of every retry running into its call timeout, plus the waits between
+ * the attempts. Inventory, payment and shipping are called one after another, so their budgets
+ * add up.
+ *
+ * A call times out after the connect timeout plus the service's response timeout of the
+ * WebClient, or earlier when a TimeLimiter guards it.
+ */
+@Component
+public class SagaTimeBudget {
+
+    private static final Logger log = LoggerFactory.getLogger(SagaTimeBudget.class);
+
+    private final Duration inventory;
+    private final Duration payment;
+    private final Duration shipping;
+
+    public SagaTimeBudget(
+            RetryRegistry retryRegistry,
+            TimeLimiterRegistry timeLimiterRegistry,
+            @Value("${services.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${services.inventory.timeout-ms:4000}") long inventoryTimeoutMs,
+            @Value("${services.payment.timeout-ms:8000}") long paymentTimeoutMs,
+            @Value("${services.shipping.timeout-ms:3000}") long shippingTimeoutMs) {
+        Duration connect = Duration.ofMillis(connectTimeoutMs);
+        this.inventory = retried(retryRegistry.retry("inventoryRetry").getRetryConfig(),
+                connect.plusMillis(inventoryTimeoutMs));
+        this.payment = retried(retryRegistry.retry("paymentRetry").getRetryConfig(),
+                connect.plusMillis(paymentTimeoutMs));
+        Duration shippingCall = connect.plusMillis(shippingTimeoutMs);
+        Duration shippingLimit = timeLimiterRegistry.timeLimiter("shippingTL").getTimeLimiterConfig().getTimeoutDuration();
+        this.shipping = retried(retryRegistry.retry("shippingRetry").getRetryConfig(),
+                shippingLimit.compareTo(shippingCall) < 0 ? shippingLimit : shippingCall);
+
+        log.info("Saga downstream budget: {}ms (inventory {}ms, payment {}ms, shipping {}ms)",
+                total().toMillis(), inventory.toMillis(), payment.toMillis(), shipping.toMillis());
+    }
+
+    /**
+     * @return the longest time the downstream calls of one saga run can take
+     */
+    public Duration total() {
+        return inventory.plus(payment).plus(shipping);
+    }
+
+    private static Duration retried(RetryConfig config, Duration callTimeout) {
+        int attempts = Math.max(1, config.getMaxAttempts());
+        Duration budget = callTimeout.multipliedBy(attempts);
+        for (int attempt = 1; attempt < attempts; attempt++) {
+            Long waitMs = config.getIntervalBiFunction().apply(attempt, Either.left(new RuntimeException()));
+            budget = budget.plusMillis(waitMs != null ? waitMs : 0);
+        }
+        return budget;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.order.infrastructure.service;
 
 import com.example.order.application.dto.OrderResult;
+import com.example.order.infrastructure.config.ClusterLock;
+import com.example.order.infrastructure.config.SchedulingConfig;
 import com.example.order.infrastructure.persistence.entity.IdempotencyRecord;
 import com.example.order.infrastructure.persistence.entity.IdempotencyStatus;
 import com.example.order.infrastructure.persistence.repository.IdempotencyRepository;
@@ -138,9 +140,10 @@ public class IdempotencyService {
 
     /**
      * Cleans up expired idempotency records.
-     * Runs every hour.
+     * Runs every hour on one instance.
      */
-    @Scheduled(fixedRate = 3600000) // Every hour
+    @Scheduled(fixedRate = 3600000, scheduler = SchedulingConfig.IDEMPOTENCY_CLEANUP_SCHEDULER) // Every hour
+    @ClusterLock(name = "idempotency-cleanup", lockAtMostFor = "59m", lockAtLeastFor = "55m")
     @Transactional
     public void cleanupExpiredRecords() {
         int deleted = repository.deleteExpiredRecords(Instant.now());
@@ -0,0 +1,153 @@
+package com.example.order.infrastructure.service;
+
+import com.example.order.infrastructure.config.InstanceIdentity;
+import com.example.order.infrastructure.persistence.repository.JobLockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Database-backed leases so that only one instance runs a maintenance job per period.
+ *
+ * A lease is held until {@code lockAtMostFor} after it was taken, in case the holder dies.
+ * When the job finishes the lease is shortened to {@code lockAtLeastFor} after it was taken,
+ * so instances whose schedules fire a little later in the same period skip the run. Lease
+ * times come from each instance's clock; keep {@code lockAtLeastFor} well above the clock skew.
+ *
+ * Leases are taken and released in their own transactions, outside the job's transaction.
+ */
+@Service
+public class JobLockService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobLockService.class);
+
+    private final JobLockRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String owner;
+
+    public JobLockService(
+            JobLockRepository repository,
+            PlatformTransactionManager transactionManager,
+            InstanceIdentity instanceIdentity,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.owner = instanceIdentity.getId();
+    }
+
+    /**
+     * Runs the job if this instance can take its lease.
+     *
+     * @param name           lock name, one per job
+     * @param lockAtMostFor  how long the lease lasts if this instance dies while running the job
+     * @param lockAtLeastFor how long the lease lasts at minimum after it was taken
+     * @param job            the job
+     * @return the job's result, or empty if another instance holds the lease
+     */
+    public <T> Optional<T> runLocked(String name, Duration lockAtMostFor, Duration lockAtLeastFor, Supplier<T> job) {
+        Optional<Lease> lease = tryLock(name, lockAtMostFor, lockAtLeastFor);
+        if (lease.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(job.get());
+        } finally {
+            unlock(lease.get());
+        }
+    }
+
+    /**
+     * Takes the lease of a job unless another instance holds it.
+     *
+     * @return the lease, or empty if it is held elsewhere or the database could not be reached
+     */
+    public Optional<Lease> tryLock(String name, Duration lockAtMostFor, Duration lockAtLeastFor) {
+        if (lockAtLeastFor.compareTo(lockAtMostFor) > 0) {
+            throw new IllegalArgumentException("lockAtLeastFor must not exceed lockAtMostFor for job lock " + name);
+        }
+        Instant now = Instant.now();
+        Instant lockedUntil = now.plus(lockAtMostFor);
+
+        boolean acquired;
+        try {
+            acquired = update(() -> repository.acquireExpired(name, lockedUntil, now, owner)) > 0
+                    || insert(name, lockedUntil, now);
+        } catch (Exception e) {
+            log.warn("Could not acquire job lock {}, skipping this run: {}", name, e.getMessage());
+            acquired = false;
+        }
+
+        outcomeCounter(name, acquired ? "acquired" : "skipped").increment();
+        if (!acquired) {
+            log.debug("Job lock {} is held by another instance, skipping this run", name);
+            return Optional.empty();
+        }
+        log.debug("Acquired job lock {} until {}", name, lockedUntil);
+        return Optional.of(new Lease(name, now, lockAtLeastFor));
+    }
+
+    /**
+     * Releases a lease, keeping it until {@code lockAtLeastFor} after it was taken.
+     */
+    public void unlock(Lease lease) {
+        Instant now = Instant.now();
+        Instant earliest = lease.lockedAt().plus(lease.lockAtLeastFor());
+        Instant lockedUntil = earliest.isAfter(now) ? earliest : now;
+        try {
+            update(() -> repository.release(lease.name(), lockedUntil, owner));
+        } catch (Exception e) {
+            // The lease expires on its own after lockAtMostFor
+            log.warn("Could not release job lock {}: {}", lease.name(), e.getMessage());
+        }
+
+        Timer.builder("scheduled.job.lock.held")
+                .description("How long a maintenance job ran while holding its lease")
+                .tag("job", lease.name())
+                .tag("holder", owner)
+                .register(meterRegistry)
+                .record(Duration.between(lease.lockedAt(), now));
+    }
+
+    private boolean insert(String name, Instant lockedUntil, Instant now) {
+        try {
+            return update(() -> repository.insertLock(name, lockedUntil, now, owner)) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // The row exists and its lease has not expired
+            return false;
+        }
+    }
+
+    private int update(Supplier<Integer> statement) {
+        Integer updated = transactionTemplate.execute(status -> statement.get());
+        return updated != null ? updated : 0;
+    }
+
+    private Counter outcomeCounter(String name, String outcome) {
+        return Counter.builder("scheduled.job.lock")
+                .description("Maintenance job runs by whether this instance got the lease")
+                .tag("job", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A lease held by this instance.
+     */
+    public record Lease(String name, Instant lockedAt, Duration lockAtLeastFor) {
+    }
+}
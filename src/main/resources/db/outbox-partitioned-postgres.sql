@@ -0,0 +1,55 @@
+-- Partitioned outbox table for PostgreSQL (outbox.partitioning.enabled=true)
+--
+-- Apply once, with spring.jpa.hibernate.ddl-auto=none or validate so Hibernate does not
+-- recreate outbox_events as a plain table. Daily partitions are created and dropped by
+-- OutboxPartitionManager; the default partition only catches rows written while the
+-- manager is behind and should stay empty. A day with rows in it cannot get its own
+-- partition, so the manager detaches the default partition, creates the day's partition,
+-- moves the rows and attaches it again, and reports the rows it found in the
+-- outbox.partitions.default.rows gauge.
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id              VARCHAR(36)              NOT NULL,
+    aggregate_type  VARCHAR(64)              NOT NULL,
+    aggregate_id    VARCHAR(64)              NOT NULL,
+    event_type      VARCHAR(64)              NOT NULL,
+    payload         TEXT,
+    payload_bytes   BYTEA,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    processed_at    TIMESTAMP(6) WITH TIME ZONE,
+    retry_count     INTEGER,
+    next_attempt_at TIMESTAMP(6) WITH TIME ZONE,
+    status          VARCHAR(32),
+    error_message   VARCHAR(1000),
+    locked_by       VARCHAR(128),
+    locked_until    TIMESTAMP(6) WITH TIME ZONE,
+    -- The partition key must be part of the primary key
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_status ON outbox_events (status);
+CREATE INDEX IF NOT EXISTS idx_outbox_created_at ON outbox_events (created_at);
+CREATE INDEX IF NOT EXISTS idx_outbox_status_next_attempt_at ON outbox_events (status, next_attempt_at);
+-- Sharded dispatch only claims an event once the older events of its aggregate are finished
+CREATE INDEX IF NOT EXISTS idx_outbox_aggregate_created_at ON outbox_events (aggregate_id, created_at);
+-- Status writes are keyed by id alone and probe every partition
+CREATE INDEX IF NOT EXISTS idx_outbox_id ON outbox_events (id);
+
+CREATE TABLE IF NOT EXISTS outbox_events_default PARTITION OF outbox_events DEFAULT;
+
+-- Dead-lettered events are not partitioned; they are few and kept until replayed
+CREATE TABLE IF NOT EXISTS outbox_dead_letters (
+    id               VARCHAR(36)                 NOT NULL PRIMARY KEY,
+    aggregate_type   VARCHAR(64)                 NOT NULL,
+    aggregate_id     VARCHAR(64)                 NOT NULL,
+    event_type       VARCHAR(64)                 NOT NULL,
+    payload          TEXT,
+    payload_bytes    BYTEA,
+    created_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    retry_count      INTEGER,
+    error_message    VARCHAR(1000),
+    dead_lettered_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_dead_letters_event_type ON outbox_dead_letters (event_type);
+CREATE INDEX IF NOT EXISTS idx_outbox_dead_letters_dead_lettered_at ON outbox_dead_letters (dead_lettered_at);
@@ -0,0 +1,120 @@
+package com.example.order.benchmark;
+
+import com.example.order.infrastructure.outbox.payload.BinaryOutboxPayloadCodec;
+import com.example.order.infrastructure.outbox.payload.JsonOutboxPayloadCodec;
+import com.example.order.infrastructure.outbox.payload.OrderCreatedPayload;
+import com.example.order.infrastructure.outbox.payload.OutboxPayloadSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Compares stored bytes and encode/decode time per event of the outbox payload codecs
+ * against the original Jackson JSON text column.
+ *
+ * Run with: ./gradlew outboxPayloadBenchmark
+ */
+public final class OutboxPayloadCodecBenchmark {
+
+    private static final int SAMPLES = 1_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    private static volatile Object sink;
+
+    private OutboxPayloadCodecBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<OrderCreatedPayload> payloads = samplePayloads();
+
+        System.out.printf("%-18s %12s %14s %14s%n", "codec", "bytes/event", "encode ns/op", "decode ns/op");
+
+        // Baseline: JSON string in the TEXT column, as written by OrderPersistenceService before codecs
+        run("json-text", payloads,
+                payload -> {
+                    try {
+                        return objectMapper.writeValueAsString(payload);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                },
+                text -> {
+                    try {
+                        return objectMapper.readValue(text, OrderCreatedPayload.class);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                },
+                text -> text.getBytes(StandardCharsets.UTF_8).length);
+
+        for (String codec : List.of("json", "binary")) {
+            for (int threshold : new int[]{Integer.MAX_VALUE, 64}) {
+                OutboxPayloadSerializer serializer = new OutboxPayloadSerializer(
+                        List.of(new JsonOutboxPayloadCodec(objectMapper), new BinaryOutboxPayloadCodec()),
+                        codec, threshold);
+                String label = codec + (threshold == Integer.MAX_VALUE ? "" : "+deflate");
+                run(label, payloads, serializer::encode, serializer::decode, bytes -> bytes.length);
+            }
+        }
+    }
+
+    private static <T> void run(String label,
+                                List<OrderCreatedPayload> payloads,
+                                Function<OrderCreatedPayload, T> encoder,
+                                Function<T, OrderCreatedPayload> decoder,
+                                ToIntFunction<T> size) {
+        List<T> encoded = payloads.stream().map(encoder).toList();
+        long totalBytes = encoded.stream().mapToLong(size::applyAsInt).sum();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            payloads.forEach(payload -> sink = encoder.apply(payload));
+            encoded.forEach(value -> sink = decoder.apply(value));
+        }
+
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            payloads.forEach(payload -> sink = encoder.apply(payload));
+            encodeNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            encoded.forEach(value -> sink = decoder.apply(value));
+            decodeNanos += System.nanoTime() - start;
+        }
+
+        long operations = (long) SAMPLES * MEASURED_ROUNDS;
+        System.out.printf("%-18s %12.1f %14d %14d%n", label,
+                (double) totalBytes / SAMPLES, encodeNanos / operations, decodeNanos / operations);
+    }
+
+    private static List<OrderCreatedPayload> samplePayloads() {
+        String[] addresses = {
+                "台北市信義區信義路五段7號",
+                "新北市板橋區中山路一段161號",
+                "高雄市前鎮區成功二路39號10樓之3"
+        };
+        return IntStream.range(0, SAMPLES)
+                .mapToObj(i -> new OrderCreatedPayload(
+                        UUID.randomUUID().toString(),
+                        UUID.randomUUID().toString(),
+                        addresses[i % addresses.length],
+                        BigDecimal.valueOf(100 + i * 37L, 2),
+                        "TWD",
+                        IntStream.range(0, 1 + i % 3)
+                                .mapToObj(n -> new OrderCreatedPayload.Item(
+                                        "SKU" + String.format("%03d", n + 1),
+                                        1 + i % 5,
+                                        BigDecimal.valueOf(50 + n * 25L, 2)))
+                                .toList()))
+                .toList();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.order.integration;
+
+import com.example.order.application.port.out.InventoryPort;
+import com.example.order.application.port.out.InventoryPort.InventoryReservationResult;
+import com.example.order.application.port.out.InventoryPort.SkuQuantity;
+import com.example.order.infrastructure.exception.BusinessException;
+import com.example.order.infrastructure.exception.ServiceUnavailableException;
+import com.example.order.infrastructure.persistence.repository.InventoryReleaseRepository;
+import com.example.order.support.WireMockTestSupport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for multi-SKU inventory reservation.
+ *
+ * BDD Scenarios:
+ * - Given 庫存服務支援批次預留, When 訂單包含多個品項, Then 只呼叫一次批次端點且重複 SKU 合併
+ * - Given 庫存服務沒有批次端點（404）, When 訂單包含多個品項, Then 改為逐一呼叫單品項端點
+ * - Given 逐一預留時其中一個 SKU 庫存不足, When 其他 SKU 已預留, Then 釋放已預留的庫存後才回報失敗
+ * - Given 釋放呼叫失敗, When 逐一預留失敗, Then 釋放保留在資料庫中並回報服務暫時不可用（不重試預留）
+ */
+@ActiveProfiles("test")
+@DisplayName("Inventory Batch Reservation Integration Tests")
+class InventoryBatchReservationIntegrationTest extends WireMockTestSupport {
+
+    @Autowired
+    private InventoryPort inventoryPort;
+
+    @Autowired
+    private InventoryReleaseRepository releaseRepository;
+
+    @Test
+    @DisplayName("should reserve all SKUs with one batch call and merge duplicate lines")
+    void should_reserve_all_skus_in_one_batch_call() throws Exception {
+        // Given
+        stubInventoryBatchSuccess(90, "SKU001", "SKU002");
+
+        // When
+        List<InventoryReservationResult> results = inventoryPort.reserveAll(List.of(
+                SkuQuantity.of("SKU001", 2),
+                SkuQuantity.of("SKU002", 1),
+                SkuQuantity.of("SKU001", 3))).get();
+
+        // Then
+        assertThat(results).extracting(InventoryReservationResult::skuCode).containsExactly("SKU001", "SKU002");
+        assertThat(results).allMatch(InventoryReservationResult::reserved);
+        verifyInventoryBatchCalledTimes(1);
+        verifyInventoryCalledTimes(0);
+        inventoryServer.verify(postRequestedFor(urlEqualTo("/api/inventory/deduct/batch"))
+                .withRequestBody(equalToJson("""
+                        {"items": [{"skuCode": "SKU001", "quantity": 5}, {"skuCode": "SKU002", "quantity": 1}]}
+                        """)));
+    }
+
+    @Test
+    @DisplayName("should fall back to one call per SKU when the batch endpoint does not exist")
+    void should_fall_back_to_per_item_calls() throws Exception {
+        // Given - only the single-item endpoint is stubbed, the batch endpoint answers 404
+        stubInventorySuccess("SKU001", 90);
+
+        // When
+        List<InventoryReservationResult> results = inventoryPort.reserveAll(List.of(
+                SkuQuantity.of("SKU001", 2),
+                SkuQuantity.of("SKU002", 1))).get();
+
+        // Then
+        assertThat(results).hasSize(2).allMatch(InventoryReservationResult::reserved);
+        verifyInventoryBatchCalledTimes(1);
+        verifyInventoryCalledTimes(2);
+    }
+
+    @Test
+    @DisplayName("should release reserved SKUs when another SKU is out of stock in per-item mode")
+    void should_release_partial_reservation() {
+        // Given - the batch endpoint answers 404, SKU001 can be reserved and SKU002 is out of stock
+        stubInventorySuccess("SKU001", 90);
+        inventoryServer.stubFor(post(urlEqualTo("/api/inventory/deduct"))
+                .withRequestBody(matchingJsonPath("$.skuCode", equalTo("SKU002")))
+                .willReturn(aResponse()
+                        .withStatus(409)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"code\": \"INSUFFICIENT_STOCK\"}")));
+        inventoryServer.stubFor(post(urlEqualTo("/api/inventory/release"))
+                .willReturn(aResponse().withStatus(200)));
+
+        // When & Then
+        assertThatThrownBy(() -> inventoryPort.reserveAll(List.of(
+                SkuQuantity.of("SKU001", 2),
+                SkuQuantity.of("SKU002", 1))).get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(BusinessException.class);
+        // Released before the failure was reported
+        inventoryServer.verify(postRequestedFor(urlEqualTo("/api/inventory/release"))
+                .withHeader("Idempotency-Key", matching("[0-9a-f-]{36}"))
+                .withRequestBody(equalToJson("""
+                        {"items": [{"skuCode": "SKU001", "quantity": 2}]}
+                        """)));
+        assertThat(releaseRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("should keep the release stored and not retry the reservation while the release fails")
+    void should_keep_pending_release_stored() {
+        // Given - SKU001 is reserved, SKU002 and the release answer 503
+        stubInventorySuccess("SKU001", 90);
+        inventoryServer.stubFor(post(urlEqualTo("/api/inventory/deduct"))
+                .withRequestBody(matchingJsonPath("$.skuCode", equalTo("SKU002")))
+                .willReturn(aResponse().withStatus(503)));
+        inventoryServer.stubFor(post(urlEqualTo("/api/inventory/release"))
+                .willReturn(aResponse().withStatus(503)));
+
+        try {
+            // When & Then
+            assertThatThrownBy(() -> inventoryPort.reserveAll(List.of(
+                    SkuQuantity.of("SKU001", 2),
+                    SkuQuantity.of("SKU002", 1))).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(ServiceUnavailableException.class);
+            inventoryServer.verify(1, postRequestedFor(urlEqualTo("/api/inventory/deduct"))
+                    .withRequestBody(matchingJsonPath("$.skuCode", equalTo("SKU001"))));
+            assertThat(releaseRepository.findAll())
+                    .singleElement()
+                    .satisfies(release -> {
+                        assertThat(release.getSkuCode()).isEqualTo("SKU001");
+                        assertThat(release.getQuantity()).isEqualTo(2);
+                    });
+        } finally {
+            releaseRepository.deleteAll();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.order.integration;
+
+import com.example.order.infrastructure.config.InstanceIdentity;
+import com.example.order.infrastructure.persistence.repository.JobLockRepository;
+import com.example.order.infrastructure.service.JobLockService;
+import com.example.order.support.WireMockTestSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for maintenance job leases shared between instances.
+ */
+@DisplayName("Job Lock Integration Tests")
+class JobLockIntegrationTest extends WireMockTestSupport {
+
+    @Autowired
+    private JobLockRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("should let only one instance run a job while its lease is held")
+    void should_skip_job_on_other_instance_while_lease_is_held() {
+        // Given
+        String job = "job-" + UUID.randomUUID();
+        JobLockService podA = instance("pod-a");
+        JobLockService podB = instance("pod-b");
+
+        // When
+        Optional<String> ranOnA = podA.runLocked(job, Duration.ofMinutes(10), Duration.ofMinutes(5), () -> "a");
+        Optional<String> ranOnB = podB.runLocked(job, Duration.ofMinutes(10), Duration.ofMinutes(5), () -> "b");
+
+        // Then
+        assertThat(ranOnA).contains("a");
+        assertThat(ranOnB).isEmpty();
+        assertThat(repository.findById(job)).get()
+                .satisfies(lock -> assertThat(lock.getLockedBy()).isEqualTo("pod-a"));
+    }
+
+    @Test
+    @DisplayName("should let another instance take the lease once it is released")
+    void should_take_over_lease_after_release() {
+        // Given
+        String job = "job-" + UUID.randomUUID();
+        JobLockService podA = instance("pod-a");
+        JobLockService podB = instance("pod-b");
+        Optional<JobLockService.Lease> lease = podA.tryLock(job, Duration.ofMinutes(10), Duration.ZERO);
+        assertThat(podB.tryLock(job, Duration.ofMinutes(10), Duration.ZERO)).isEmpty();
+
+        // When
+        podA.unlock(lease.orElseThrow());
+
+        // Then
+        assertThat(podB.tryLock(job, Duration.ofMinutes(10), Duration.ZERO)).isPresent();
+        assertThat(repository.findById(job)).get()
+                .satisfies(lock -> assertThat(lock.getLockedBy()).isEqualTo("pod-b"));
+    }
+
+    private JobLockService instance(String id) {
+        return new JobLockService(repository, transactionManager, new InstanceIdentity(id), new SimpleMeterRegistry());
+    }
+}
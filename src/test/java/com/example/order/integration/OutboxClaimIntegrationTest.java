@@ -0,0 +1,171 @@
+package com.example.order.integration;
+
+import com.example.order.infrastructure.config.InstanceIdentity;
+import com.example.order.infrastructure.outbox.OutboxEventClaimer;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import com.example.order.infrastructure.persistence.entity.OutboxEventStatus;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import com.example.order.support.WireMockTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for claiming outbox events atomically across instances.
+ */
+@DisplayName("Outbox Claim Integration Tests")
+class OutboxClaimIntegrationTest extends WireMockTestSupport {
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should lease every pending event to exactly one instance")
+    void should_claim_disjoint_batches() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            save(pendingEvent());
+        }
+
+        // When
+        List<OutboxEvent> claimedByA = claim(claimer("pod-a"), 3);
+        List<OutboxEvent> claimedByB = claim(claimer("pod-b"), 3);
+        List<OutboxEvent> claimedAgain = claim(claimer("pod-a"), 3);
+
+        // Then
+        assertThat(claimedByA).hasSize(3).allMatch(event -> "pod-a".equals(event.getLockedBy()));
+        assertThat(claimedByB).hasSize(1).allMatch(event -> "pod-b".equals(event.getLockedBy()));
+        assertThat(claimedAgain).isEmpty();
+        assertThat(claimedByA).extracting(OutboxEvent::getId)
+                .doesNotContainAnyElementsOf(claimedByB.stream().map(OutboxEvent::getId).toList());
+        assertThat(outboxRepository.findAll())
+                .allSatisfy(event -> {
+                    assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.PROCESSING);
+                    assertThat(event.getLockedUntil()).isAfter(Instant.now());
+                });
+    }
+
+    @Test
+    @DisplayName("should not let an instance claim or complete an event leased to another instance")
+    void should_guard_writes_by_lease_owner() {
+        // Given
+        OutboxEvent event = save(pendingEvent());
+        List<String> ids = List.of(event.getId());
+        claim(claimer("pod-a"), 1);
+
+        // When
+        Integer stolen = transactionTemplate.execute(status -> outboxRepository.claimEvents(
+                ids, OutboxEventStatus.PROCESSING, "pod-b", Instant.now().plusSeconds(300)));
+        Integer completedByB = transactionTemplate.execute(status -> outboxRepository.markProcessed(
+                ids, OutboxEventStatus.PROCESSED, Instant.now(), "pod-b"));
+
+        // Then
+        assertThat(stolen).isZero();
+        assertThat(completedByB).isZero();
+        assertThat(reload(event).getStatus()).isEqualTo(OutboxEventStatus.PROCESSING);
+        assertThat(reload(event).getLockedBy()).isEqualTo("pod-a");
+
+        Integer completedByA = transactionTemplate.execute(status -> outboxRepository.markProcessed(
+                ids, OutboxEventStatus.PROCESSED, Instant.now(), "pod-a"));
+        assertThat(completedByA).isEqualTo(1);
+        assertThat(reload(event).getStatus()).isEqualTo(OutboxEventStatus.PROCESSED);
+        assertThat(reload(event).getLockedBy()).isNull();
+    }
+
+    @Test
+    @DisplayName("should not claim an aggregate's next event in sharded mode while an older one is unfinished")
+    void should_claim_aggregate_events_in_order() {
+        // Given - two events of the same order, created one after the other
+        String aggregateId = UUID.randomUUID().toString();
+        Instant createdAt = Instant.now().minusSeconds(10);
+        OutboxEvent first = save(pendingEvent(aggregateId), createdAt);
+        OutboxEvent second = save(pendingEvent(aggregateId), createdAt.plusMillis(1));
+
+        // When - another instance polls while the first event is in flight
+        List<OutboxEvent> claimedByA = claim(claimer("pod-a", "sharded"), 10);
+        List<OutboxEvent> claimedByB = claim(claimer("pod-b", "sharded"), 10);
+
+        // Then
+        assertThat(claimedByA).extracting(OutboxEvent::getId).containsExactly(first.getId());
+        assertThat(claimedByB).isEmpty();
+
+        // A failed first event waiting for its retry still holds back the second one
+        OutboxEvent failed = reload(first);
+        failed.scheduleRetry("payment declined", Instant.now().plusSeconds(60));
+        save(failed);
+        assertThat(claim(claimer("pod-b", "sharded"), 10)).isEmpty();
+
+        // Once the first event is done, the second one is claimed
+        OutboxEvent done = reload(first);
+        done.markProcessed();
+        save(done);
+        assertThat(claim(claimer("pod-b", "sharded"), 10))
+                .extracting(OutboxEvent::getId).containsExactly(second.getId());
+    }
+
+    private OutboxEventClaimer claimer(String instanceId) {
+        return claimer(instanceId, "concurrent");
+    }
+
+    private OutboxEventClaimer claimer(String instanceId, String dispatcherMode) {
+        return new OutboxEventClaimer(outboxRepository, new InstanceIdentity(instanceId), dataSource, 300000,
+                dispatcherMode);
+    }
+
+    private List<OutboxEvent> claim(OutboxEventClaimer claimer, int limit) {
+        return transactionTemplate.execute(status -> claimer.claimPendingEvents(limit));
+    }
+
+    private OutboxEvent save(OutboxEvent event) {
+        return transactionTemplate.execute(status -> outboxRepository.save(event));
+    }
+
+    private OutboxEvent save(OutboxEvent event, Instant createdAt) {
+        // Inserting sets createdAt to now, so it is changed afterwards
+        OutboxEvent saved = save(event);
+        saved.setCreatedAt(createdAt);
+        return save(saved);
+    }
+
+    private OutboxEvent reload(OutboxEvent event) {
+        return outboxRepository.findById(event.getId()).orElseThrow();
+    }
+
+    private static OutboxEvent pendingEvent() {
+        return pendingEvent(UUID.randomUUID().toString());
+    }
+
+    private static OutboxEvent pendingEvent(String aggregateId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(UUID.randomUUID().toString());
+        event.setAggregateType("Order");
+        event.setAggregateId(aggregateId);
+        event.setEventType("OrderCreated");
+        event.setNextAttemptAt(Instant.now().minusSeconds(1));
+        return event;
+    }
+}
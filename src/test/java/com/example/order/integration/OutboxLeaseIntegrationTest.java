@@ -0,0 +1,96 @@
+package com.example.order.integration;
+
+import com.example.order.infrastructure.outbox.OutboxLeaseReaper;
+import com.example.order.infrastructure.outbox.OutboxMetrics;
+import com.example.order.infrastructure.outbox.OutboxRetryPolicy;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import com.example.order.infrastructure.persistence.entity.OutboxEventStatus;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import com.example.order.support.WireMockTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Integration tests for reclaiming outbox events whose lease expired.
+ */
+@DisplayName("Outbox Lease Integration Tests")
+class OutboxLeaseIntegrationTest extends WireMockTestSupport {
+
+    private static final int MAX_RETRIES = 3;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should requeue expired leases with retries left and fail the others")
+    void should_requeue_or_fail_expired_leases() {
+        // Given
+        OutboxEvent retriesLeft = save(leasedEvent(0, Instant.now().minusSeconds(60)));
+        OutboxEvent exhausted = save(leasedEvent(MAX_RETRIES, Instant.now().minusSeconds(60)));
+        OutboxEvent stillLeased = save(leasedEvent(0, Instant.now().plusSeconds(300)));
+        OutboxLeaseReaper reaper = new OutboxLeaseReaper(outboxRepository,
+                new OutboxRetryPolicy(MAX_RETRIES, 5000, 2.0, 300000, 0.0), mock(OutboxMetrics.class));
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> reaper.reapExpiredLeases());
+
+        // Then
+        OutboxEvent requeued = reload(retriesLeft);
+        assertThat(requeued.getStatus()).isEqualTo(OutboxEventStatus.PENDING);
+        assertThat(requeued.getRetryCount()).isEqualTo(1);
+        assertThat(requeued.getErrorMessage()).isEqualTo("Lease expired");
+        assertThat(requeued.getLockedBy()).isNull();
+
+        OutboxEvent failed = reload(exhausted);
+        assertThat(failed.getStatus()).isEqualTo(OutboxEventStatus.FAILED);
+        assertThat(failed.getRetryCount()).isEqualTo(MAX_RETRIES + 1);
+
+        assertThat(reload(stillLeased).getStatus()).isEqualTo(OutboxEventStatus.PROCESSING);
+    }
+
+    private OutboxEvent save(OutboxEvent event) {
+        return transactionTemplate.execute(status -> outboxRepository.save(event));
+    }
+
+    private OutboxEvent reload(OutboxEvent event) {
+        return outboxRepository.findById(event.getId()).orElseThrow();
+    }
+
+    private static OutboxEvent pendingEvent() {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(UUID.randomUUID().toString());
+        event.setAggregateType("Order");
+        event.setAggregateId(UUID.randomUUID().toString());
+        event.setEventType("OrderCreated");
+        event.setNextAttemptAt(Instant.now().minusSeconds(1));
+        return event;
+    }
+
+    private static OutboxEvent leasedEvent(int retryCount, Instant leaseExpiry) {
+        OutboxEvent event = pendingEvent();
+        event.setRetryCount(retryCount);
+        event.markClaimed("pod-dead", leaseExpiry);
+        return event;
+    }
+}
@@ -12,6 +12,9 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 
 /**
@@ -109,6 +112,26 @@ public abstract class WireMockTestSupport {
                                 """.formatted(skuCode, remainingQty))));
     }
 
+    /**
+     * Stubs the inventory batch endpoint to reserve every SKU, each with the given remaining quantity.
+     */
+    protected void stubInventoryBatchSuccess(int remainingQty, String... skuCodes) {
+        String items = Arrays.stream(skuCodes)
+                .map(skuCode -> "{\"skuCode\": \"%s\", \"reserved\": true, \"remainingQty\": %d}"
+                        .formatted(skuCode, remainingQty))
+                .collect(Collectors.joining(", "));
+        inventoryServer.stubFor(post(urlEqualTo("/api/inventory/deduct/batch"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {
+                                    "reserved": true,
+                                    "items": [%s]
+                                }
+                                """.formatted(items))));
+    }
+
     /**
      * Stubs inventory service to return insufficient stock (409).
      */
@@ -311,6 +334,13 @@ public abstract class WireMockTestSupport {
         inventoryServer.verify(count, postRequestedFor(urlEqualTo("/api/inventory/deduct")));
     }
 
+    /**
+     * Verifies that the inventory batch endpoint was called exactly n times.
+     */
+    protected void verifyInventoryBatchCalledTimes(int count) {
+        inventoryServer.verify(count, postRequestedFor(urlEqualTo("/api/inventory/deduct/batch")));
+    }
+
     /**
      * Verifies that payment service was called exactly n times.
      */
@@ -0,0 +1,142 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.outbox.ConcurrentOutboxDispatcher;
+import com.example.order.infrastructure.outbox.OutboxEventProcessor;
+import com.example.order.infrastructure.outbox.handler.OutboxEventHandler;
+import com.example.order.infrastructure.outbox.handler.OutboxHandlerRegistry;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for per-event-type lanes in the concurrent outbox dispatcher.
+ */
+@DisplayName("Concurrent Outbox Dispatcher Tests")
+class ConcurrentOutboxDispatcherTest {
+
+    private final OutboxEventHandler orderHandler = handler("OrderCreated", 4);
+    private final OutboxEventHandler shipmentHandler = handler("ShipmentDeferred", 1);
+    private final OutboxEventProcessor processor = mock(OutboxEventProcessor.class);
+    private final CompletableFuture<Void> slowShipment = new CompletableFuture<>();
+    private final List<String> processed = new CopyOnWriteArrayList<>();
+
+    private ConcurrentOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        when(processor.process(any(OutboxEventHandler.class), anyList())).thenAnswer(invocation -> {
+            OutboxEventHandler handler = invocation.getArgument(0);
+            List<OutboxEvent> events = invocation.getArgument(1);
+            if (handler == shipmentHandler) {
+                return slowShipment;
+            }
+            events.forEach(event -> processed.add(event.getId()));
+            return CompletableFuture.completedFuture(null);
+        });
+        when(processor.defer(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(processor.process(any(OutboxEvent.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        dispatcher = new ConcurrentOutboxDispatcher(processor,
+                new OutboxHandlerRegistry(List.of(orderHandler, shipmentHandler)), new SimpleMeterRegistry(), 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowShipment.complete(null);
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("should_keep_processing_orders_while_slow_event_type_fills_its_lane")
+    void should_keep_processing_orders_while_slow_event_type_fills_its_lane() {
+        // Given - the only shipment slot is stuck and its queue is full
+        dispatcher.dispatch(event("ship-1", "ShipmentDeferred"));
+        dispatcher.dispatch(event("ship-2", "ShipmentDeferred"));
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            dispatcher.dispatch(event("order-" + i, "OrderCreated"));
+        }
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> processed.size() == 8);
+        verify(processor, never()).defer(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should_defer_events_beyond_the_lane_of_their_type")
+    void should_defer_events_beyond_the_lane_of_their_type() {
+        // Given
+        dispatcher.dispatch(event("ship-1", "ShipmentDeferred"));
+        dispatcher.dispatch(event("ship-2", "ShipmentDeferred"));
+
+        // When
+        OutboxEvent overflow = event("ship-3", "ShipmentDeferred");
+        dispatcher.dispatch(overflow);
+
+        // Then
+        verify(processor).defer(eq(overflow), any(), any());
+    }
+
+    @Test
+    @DisplayName("should_hand_events_without_handler_to_processor_directly")
+    void should_hand_events_without_handler_to_processor_directly() {
+        // Given
+        OutboxEvent unknown = event("evt-1", "Unknown");
+
+        // When
+        dispatcher.dispatch(unknown);
+
+        // Then
+        verify(processor).process(unknown);
+        assertThat(dispatcher.availableCapacity()).isEqualTo(32);
+    }
+
+    private static OutboxEventHandler handler(String eventType, int maxConcurrency) {
+        return new OutboxEventHandler() {
+            @Override
+            public String eventType() {
+                return eventType;
+            }
+
+            @Override
+            public CompletableFuture<Void> handle(OutboxEvent event) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public int maxConcurrency() {
+                return maxConcurrency;
+            }
+        };
+    }
+
+    private static OutboxEvent event(String id, String eventType) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setAggregateType("Order");
+        event.setAggregateId("order-" + id);
+        event.setEventType(eventType);
+        event.setCreatedAt(Instant.now());
+        return event;
+    }
+}
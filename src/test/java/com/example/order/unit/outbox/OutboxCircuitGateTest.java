@@ -0,0 +1,136 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.exception.ServiceUnavailableException;
+import com.example.order.infrastructure.outbox.OutboxCircuitGate;
+import com.example.order.infrastructure.outbox.handler.OutboxHandlerException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Unit tests for gating outbox claims and failures on the downstream circuit breakers.
+ */
+@DisplayName("Outbox Circuit Gate Tests")
+class OutboxCircuitGateTest {
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private OutboxCircuitGate gate;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .waitDurationInOpenState(Duration.ofSeconds(30))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .build());
+        gate = new OutboxCircuitGate(circuitBreakerRegistry, new SimpleMeterRegistry(),
+                List.of("inventoryCB", "paymentCB"));
+    }
+
+    @Test
+    @DisplayName("should pause claims while a required breaker is open")
+    void should_pause_claims_while_open() {
+        // Given
+        circuitBreakerRegistry.circuitBreaker("paymentCB").transitionToOpenState();
+
+        // When / Then
+        assertThat(gate.admit(50)).isZero();
+    }
+
+    @Test
+    @DisplayName("should not probe an open breaker before its wait ends")
+    void should_not_probe_open_breaker_during_wait() {
+        // Given
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("paymentCB");
+        circuitBreaker.transitionToOpenState();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            gate.admit(50);
+        }
+
+        // Then
+        assertThat(circuitBreaker.getMetrics().getNumberOfNotPermittedCalls()).isZero();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("should move an open breaker to half-open once its wait has ended")
+    void should_probe_open_breaker_after_wait() {
+        // Given
+        CircuitBreakerRegistry shortWait = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .waitDurationInOpenState(Duration.ofMillis(50))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .build());
+        OutboxCircuitGate shortWaitGate = new OutboxCircuitGate(shortWait, new SimpleMeterRegistry(),
+                List.of("paymentCB"));
+        shortWait.circuitBreaker("paymentCB").transitionToOpenState();
+        assertThat(shortWaitGate.admit(50)).isZero();
+
+        // When / Then
+        await().atMost(Duration.ofSeconds(2)).until(() -> shortWaitGate.admit(50) == 3);
+        assertThat(shortWait.circuitBreaker("paymentCB").getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    @DisplayName("should limit claims to the remaining trial calls while a breaker is half-open")
+    void should_limit_claims_while_half_open() {
+        // Given
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("inventoryCB");
+        circuitBreaker.transitionToOpenState();
+        circuitBreaker.transitionToHalfOpenState();
+
+        // When / Then
+        assertThat(gate.admit(50)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should defer a call rejected by an open breaker until its open-state wait ends")
+    void should_defer_rejected_call_until_wait_ends() {
+        // Given
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("inventoryCB");
+        circuitBreaker.transitionToOpenState();
+        Throwable failure = new CompletionException(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+
+        // When / Then
+        assertThat(gate.outageEnd(failure)).hasValueSatisfying(end ->
+                assertThat(end).isCloseTo(Instant.now().plusSeconds(30), within(Duration.ofSeconds(2))));
+    }
+
+    @Test
+    @DisplayName("should defer a failure of an unavailable service whose breaker is open")
+    void should_defer_unavailable_service_with_open_breaker() {
+        // Given
+        circuitBreakerRegistry.circuitBreaker("paymentCB").transitionToOpenState();
+        Throwable failure = new OutboxHandlerException("payment failed",
+                new ServiceUnavailableException("payment", "支付服務暫時不可用"));
+
+        // When / Then
+        assertThat(gate.outageEnd(failure)).isPresent();
+    }
+
+    @Test
+    @DisplayName("should not defer failures that are not caused by the open breaker")
+    void should_not_defer_unrelated_failures() {
+        // Given
+        circuitBreakerRegistry.circuitBreaker("paymentCB").transitionToOpenState();
+
+        // When / Then - unrelated error, a downstream with a closed breaker, and one that is not gated
+        assertThat(gate.outageEnd(new IllegalStateException("mapping failed"))).isEmpty();
+        assertThat(gate.outageEnd(new ServiceUnavailableException("inventory", "unavailable"))).isEmpty();
+        assertThat(gate.outageEnd(new ServiceUnavailableException("shipping", "unavailable"))).isEmpty();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.outbox.OutboxDeadLetterService;
+import com.example.order.infrastructure.persistence.entity.OutboxDeadLetter;
+import com.example.order.infrastructure.persistence.repository.OutboxDeadLetterRepository;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for moving exhausted outbox events to the dead-letter table and replaying them.
+ */
+@DisplayName("Outbox Dead Letter Service Tests")
+class OutboxDeadLetterServiceTest {
+
+    private final OutboxRepository outboxRepository = mock(OutboxRepository.class);
+    private final OutboxDeadLetterRepository deadLetterRepository = mock(OutboxDeadLetterRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    @DisplayName("should copy a batch of FAILED events to the dead-letter table and delete them")
+    void should_move_failed_events() {
+        // Given
+        List<String> ids = List.of("evt-1", "evt-2");
+        when(outboxRepository.findFailedEventIds(500)).thenReturn(ids);
+
+        // When
+        service(1000).moveExhaustedEvents();
+
+        // Then
+        verify(outboxRepository).copyToDeadLetters(any(), any());
+        verify(outboxRepository).deleteFailedEvents(ids);
+    }
+
+    @Test
+    @DisplayName("should do nothing when there are no FAILED events")
+    void should_skip_move_without_failed_events() {
+        // Given
+        when(outboxRepository.findFailedEventIds(anyInt())).thenReturn(List.of());
+
+        // When
+        service(1000).moveExhaustedEvents();
+
+        // Then
+        verify(outboxRepository, never()).copyToDeadLetters(any(), any());
+        verify(outboxRepository, never()).deleteFailedEvents(any());
+    }
+
+    @Test
+    @DisplayName("should stagger replayed events at the configured rate")
+    void should_pace_replayed_events() {
+        // Given
+        when(deadLetterRepository.lockOldest(1000))
+                .thenReturn(List.of(deadLetter("evt-1"), deadLetter("evt-2"), deadLetter("evt-3")));
+
+        // When
+        OutboxDeadLetterService.ReplayResult result = service(1000).replay(null, null);
+
+        // Then
+        List<Instant> dueTimes = replayedDueTimes(1).get(0);
+        assertThat(result.replayed()).isEqualTo(3);
+        assertThat(Duration.between(dueTimes.get(0), dueTimes.get(1))).isEqualTo(Duration.ofSeconds(1));
+        assertThat(Duration.between(dueTimes.get(1), dueTimes.get(2))).isEqualTo(Duration.ofSeconds(1));
+        assertThat(result.lastDueAt()).isEqualTo(dueTimes.get(2));
+        verify(deadLetterRepository).deleteByIds(List.of("evt-1", "evt-2", "evt-3"));
+    }
+
+    @Test
+    @DisplayName("should continue after the last slot of the previous replay")
+    void should_continue_pacing_across_replays() {
+        // Given
+        when(deadLetterRepository.lockOldest(anyInt()))
+                .thenReturn(List.of(deadLetter("evt-1"), deadLetter("evt-2")))
+                .thenReturn(List.of(deadLetter("evt-3")));
+        OutboxDeadLetterService service = service(1000);
+
+        // When
+        service.replay(null, null);
+        service.replay(null, null);
+
+        // Then
+        List<List<Instant>> batches = replayedDueTimes(2);
+        assertThat(Duration.between(batches.get(0).get(1), batches.get(1).get(0))).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("should cap the replay at replay-max-batch and filter by event type")
+    void should_cap_replay_and_filter_by_event_type() {
+        // Given
+        when(deadLetterRepository.lockOldestByEventType("OrderCreated", 20)).thenReturn(List.of());
+
+        // When
+        OutboxDeadLetterService.ReplayResult result = service(20).replay(500, "OrderCreated");
+
+        // Then
+        assertThat(result.replayed()).isZero();
+        assertThat(result.lastDueAt()).isNull();
+        verify(deadLetterRepository).lockOldestByEventType("OrderCreated", 20);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private OutboxDeadLetterService service(int replayMaxBatch) {
+        return new OutboxDeadLetterService(outboxRepository, deadLetterRepository, jdbcTemplate,
+                500, 1, replayMaxBatch);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Instant>> replayedDueTimes(int batches) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(batches)).batchUpdate(anyString(), rows.capture());
+        // next_attempt_at is the last bound parameter of each inserted row
+        return rows.getAllValues().stream()
+                .map(batch -> batch.stream().map(row -> ((Timestamp) row[row.length - 1]).toInstant()).toList())
+                .toList();
+    }
+
+    private OutboxDeadLetter deadLetter(String id) {
+        OutboxDeadLetter deadLetter = new OutboxDeadLetter();
+        deadLetter.setId(id);
+        deadLetter.setAggregateType("Order");
+        deadLetter.setAggregateId("ORD-" + id);
+        deadLetter.setEventType("OrderCreated");
+        deadLetter.setPayload("{}");
+        deadLetter.setCreatedAt(Instant.now());
+        deadLetter.setRetryCount(5);
+        deadLetter.setDeadLetteredAt(Instant.now());
+        return deadLetter;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.exception.ServiceUnavailableException;
+import com.example.order.infrastructure.outbox.OutboxCircuitGate;
+import com.example.order.infrastructure.outbox.OutboxEventProcessor;
+import com.example.order.infrastructure.outbox.OutboxMetrics;
+import com.example.order.infrastructure.outbox.OutboxPollController;
+import com.example.order.infrastructure.outbox.OutboxRetryPolicy;
+import com.example.order.infrastructure.outbox.OutboxStatusWriter;
+import com.example.order.infrastructure.outbox.handler.OutboxEventHandler;
+import com.example.order.infrastructure.outbox.handler.OutboxHandlerRegistry;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import com.example.order.infrastructure.persistence.entity.OutboxEventStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for processing claimed outbox events with their handler.
+ */
+@DisplayName("Outbox Event Processor Tests")
+class OutboxEventProcessorTest {
+
+    private final OutboxStatusWriter statusWriter = mock(OutboxStatusWriter.class);
+    private final OutboxCircuitGate circuitGate = mock(OutboxCircuitGate.class);
+    private final CompletableFuture<Void> attempt = new CompletableFuture<>();
+
+    private OutboxEventProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        when(statusWriter.write(any())).thenReturn(CompletableFuture.completedFuture(null));
+        processor = new OutboxEventProcessor(statusWriter,
+                new OutboxHandlerRegistry(List.of(handler(attempt, Duration.ofMillis(50)))),
+                new OutboxRetryPolicy(3, 5000, 2.0, 300000, 0.0), mock(OutboxMetrics.class),
+                mock(OutboxPollController.class), circuitGate);
+    }
+
+    @Test
+    @DisplayName("should keep an attempt past its timeout leased and record its actual outcome")
+    void should_wait_for_attempt_past_timeout() throws Exception {
+        // Given
+        OutboxEvent event = claimedEvent(Instant.now().plusSeconds(300));
+
+        // When
+        CompletableFuture<Void> processed = processor.process(event);
+        Thread.sleep(200);
+
+        // Then - still PROCESSING and leased after the timeout
+        assertThat(processed).isNotDone();
+        verify(statusWriter, never()).write(any());
+
+        attempt.complete(null);
+        processed.get(5, TimeUnit.SECONDS);
+        verify(statusWriter).write(event);
+        assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.PROCESSED);
+    }
+
+    @Test
+    @DisplayName("should count an attempt as failed once its lease is about to expire")
+    void should_fail_attempt_at_lease_expiry() throws Exception {
+        // Given - the lease ends just after the safety margin
+        OutboxEvent event = claimedEvent(Instant.now().plusMillis(5300));
+
+        // When
+        processor.process(event).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.PENDING);
+        assertThat(event.getRetryCount()).isEqualTo(1);
+        assertThat(event.getErrorMessage()).contains("lease");
+    }
+
+    @Test
+    @DisplayName("should defer a failure blamed on an open breaker until its wait ends without using a retry")
+    void should_defer_outage_failure_until_breaker_wait_ends() throws Exception {
+        // Given
+        OutboxEvent event = claimedEvent(Instant.now().plusSeconds(300));
+        Instant outageEnd = Instant.now().plusSeconds(30);
+        ServiceUnavailableException outage = new ServiceUnavailableException("payment", "支付服務暫時不可用");
+        when(circuitGate.outageEnd(outage)).thenReturn(Optional.of(outageEnd));
+
+        // When
+        CompletableFuture<Void> processed = processor.process(event);
+        attempt.completeExceptionally(outage);
+        processed.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.PENDING);
+        assertThat(event.getRetryCount()).isZero();
+        assertThat(event.getNextAttemptAt()).isEqualTo(outageEnd);
+    }
+
+    @Test
+    @DisplayName("should use a retry for a failure the circuit gate does not blame on an outage")
+    void should_charge_retry_for_other_failure() throws Exception {
+        // Given
+        OutboxEvent event = claimedEvent(Instant.now().plusSeconds(300));
+        when(circuitGate.outageEnd(any())).thenReturn(Optional.empty());
+
+        // When
+        CompletableFuture<Void> processed = processor.process(event);
+        attempt.completeExceptionally(new IllegalStateException("mapping failed"));
+        processed.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.PENDING);
+        assertThat(event.getRetryCount()).isEqualTo(1);
+        assertThat(event.getNextAttemptAt()).isAfter(Instant.now().plusSeconds(4));
+    }
+
+    private static OutboxEvent claimedEvent(Instant leaseExpiry) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId("evt-1");
+        event.setAggregateType("Order");
+        event.setAggregateId("order-1");
+        event.setEventType("OrderCreated");
+        event.setCreatedAt(Instant.now());
+        event.markClaimed("instance-1", leaseExpiry);
+        return event;
+    }
+
+    private static OutboxEventHandler handler(CompletableFuture<Void> attempt, Duration timeout) {
+        return new OutboxEventHandler() {
+            @Override
+            public String eventType() {
+                return "OrderCreated";
+            }
+
+            @Override
+            public CompletableFuture<Void> handle(OutboxEvent event) {
+                return attempt;
+            }
+
+            @Override
+            public Duration timeout() {
+                return timeout;
+            }
+        };
+    }
+}
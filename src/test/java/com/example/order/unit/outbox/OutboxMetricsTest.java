@@ -0,0 +1,162 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.config.ScheduledJobMetrics;
+import com.example.order.infrastructure.outbox.OutboxCircuitGate;
+import com.example.order.infrastructure.outbox.OutboxDispatcher;
+import com.example.order.infrastructure.outbox.OutboxEndpoint;
+import com.example.order.infrastructure.outbox.OutboxEventClaimer;
+import com.example.order.infrastructure.outbox.OutboxMetrics;
+import com.example.order.infrastructure.outbox.OutboxPollController;
+import com.example.order.infrastructure.outbox.OutboxPoller;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import com.example.order.infrastructure.persistence.entity.OutboxEventStatus;
+import com.example.order.infrastructure.persistence.repository.OutboxDeadLetterRepository;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the outbox meters and the /actuator/outbox summary.
+ */
+@DisplayName("Outbox Metrics Tests")
+class OutboxMetricsTest {
+
+    private final OutboxRepository outboxRepository = mock(OutboxRepository.class);
+    private final OutboxDeadLetterRepository deadLetterRepository = mock(OutboxDeadLetterRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxMetrics metrics = new OutboxMetrics(outboxRepository, deadLetterRepository, meterRegistry);
+
+    @Test
+    @DisplayName("should publish the backlog read on refresh")
+    void should_refresh_backlog_gauges() {
+        // Given
+        when(outboxRepository.countByStatus(OutboxEventStatus.PENDING)).thenReturn(42L);
+        when(outboxRepository.countByStatus(OutboxEventStatus.FAILED)).thenReturn(3L);
+        when(deadLetterRepository.count()).thenReturn(7L);
+        when(outboxRepository.findOldestCreatedAt(OutboxEventStatus.PENDING))
+                .thenReturn(Instant.now().minusSeconds(30));
+
+        // When
+        metrics.refreshBacklog();
+
+        // Then
+        assertThat(meterRegistry.get("outbox.events.pending").gauge().value()).isEqualTo(42);
+        assertThat(meterRegistry.get("outbox.events.failed").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("outbox.events.dead.lettered").gauge().value()).isEqualTo(7);
+        assertThat(meterRegistry.get("outbox.events.oldest.pending.age").timeGauge().value(TimeUnit.SECONDS))
+                .isGreaterThanOrEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("should keep the last backlog when the refresh query fails")
+    void should_keep_backlog_when_refresh_fails() {
+        // Given
+        when(outboxRepository.countByStatus(OutboxEventStatus.PENDING))
+                .thenReturn(42L)
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+        metrics.refreshBacklog();
+
+        // When
+        metrics.refreshBacklog();
+
+        // Then
+        assertThat(meterRegistry.get("outbox.events.pending").gauge().value()).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("should count attempts by outcome and time processed events end to end")
+    void should_record_outcomes() {
+        // Given
+        Instant createdAt = Instant.now().minusSeconds(2);
+
+        // When
+        metrics.recordOutcome(event(OutboxEventStatus.PROCESSED, 1, createdAt, createdAt.plusMillis(1500)));
+        metrics.recordOutcome(event(OutboxEventStatus.PENDING, 1, createdAt, null));
+        metrics.recordOutcome(event(OutboxEventStatus.FAILED, 5, createdAt, null));
+
+        // Then
+        assertThat(dispatched("processed")).isEqualTo(1);
+        assertThat(dispatched("retry")).isEqualTo(1);
+        assertThat(dispatched("failed")).isEqualTo(1);
+        assertThat(meterRegistry.get("outbox.event.end-to-end").tag("event_type", "OrderCreated").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(1500);
+        // Retries are only recorded once an event is processed or given up
+        assertThat(meterRegistry.get("outbox.event.retries").summary().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("outbox.event.retries").summary().max()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("should record the claim query cost and batch size of each poll")
+    void should_record_poll() {
+        // Given
+        OutboxEventClaimer claimer = mock(OutboxEventClaimer.class);
+        OutboxDispatcher dispatcher = mock(OutboxDispatcher.class);
+        OutboxPollController pollController = mock(OutboxPollController.class);
+        when(pollController.getBatchSize()).thenReturn(10);
+        when(dispatcher.availableCapacity()).thenReturn(100);
+        when(claimer.claimPendingEvents(anyInt())).thenReturn(List.of(new OutboxEvent(), new OutboxEvent()));
+        OutboxPoller poller = new OutboxPoller(outboxRepository, claimer, dispatcher, metrics, pollController,
+                mock(OutboxCircuitGate.class), mock(ScheduledJobMetrics.class), mock(TaskScheduler.class),
+                false, "relay");
+
+        // When
+        poller.pollAndProcess();
+
+        // Then
+        assertThat(meterRegistry.get("outbox.poll.duration").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("outbox.poll.claimed").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should summarize backlog, outcomes and lag on /actuator/outbox")
+    @SuppressWarnings("unchecked")
+    void should_summarize_on_endpoint() {
+        // Given
+        when(outboxRepository.countByStatus(OutboxEventStatus.PENDING)).thenReturn(42L);
+        metrics.refreshBacklog();
+        Instant createdAt = Instant.now().minusSeconds(2);
+        metrics.recordOutcome(event(OutboxEventStatus.PROCESSED, 0, createdAt, createdAt.plusMillis(250)));
+        metrics.recordOutcome(event(OutboxEventStatus.PROCESSED, 0, createdAt, createdAt.plusMillis(750)));
+
+        // When
+        Map<String, Object> summary = new OutboxEndpoint(metrics).outbox();
+
+        // Then
+        Map<String, Object> backlog = (Map<String, Object>) summary.get("backlog");
+        Map<String, Object> dispatched = (Map<String, Object>) summary.get("dispatched");
+        Map<String, Object> endToEnd = (Map<String, Object>) ((Map<String, Object>) summary.get("endToEnd"))
+                .get("OrderCreated");
+        assertThat(backlog).containsEntry("pending", 42L).containsKey("refreshedAt");
+        assertThat(dispatched).containsEntry("processed", 2L).containsEntry("retry", 0L);
+        assertThat(endToEnd).containsEntry("count", 2L).containsEntry("maxMs", 750.0);
+        assertThat((double) endToEnd.get("meanMs")).isEqualTo(500.0);
+    }
+
+    private long dispatched(String outcome) {
+        return (long) meterRegistry.get("outbox.events.dispatched").tag("outcome", outcome).counter().count();
+    }
+
+    private OutboxEvent event(OutboxEventStatus status, int retryCount, Instant createdAt, Instant processedAt) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType("OrderCreated");
+        event.setStatus(status);
+        event.setRetryCount(retryCount);
+        event.setCreatedAt(createdAt);
+        event.setProcessedAt(processedAt);
+        return event;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.outbox.OutboxPartitionManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for maintaining the daily outbox partitions.
+ */
+@DisplayName("Outbox Partition Manager Tests")
+class OutboxPartitionManagerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxPartitionManager manager = new OutboxPartitionManager(
+            jdbcTemplate, mock(PlatformTransactionManager.class), meterRegistry, 7, 24);
+
+    @Test
+    @DisplayName("should move rows of a day without partition out of DEFAULT before creating partitions")
+    void should_move_default_rows_into_daily_partition() {
+        // Given
+        when(jdbcTemplate.queryForList(startsWith("SELECT child.relname"), eq(String.class), any()))
+                .thenReturn(List.of("outbox_events_default"));
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events_default", Long.class))
+                .thenReturn(5L);
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT"), eq(Timestamp.class)))
+                .thenReturn(List.of(Timestamp.valueOf(LocalDateTime.of(2026, 10, 15, 0, 0))));
+        when(jdbcTemplate.update(startsWith("INSERT INTO outbox_events"))).thenReturn(5);
+
+        // When
+        manager.maintainPartitions();
+
+        // Then
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute("ALTER TABLE outbox_events DETACH PARTITION outbox_events_default");
+        order.verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS outbox_events_p20261015 "));
+        order.verify(jdbcTemplate).update(startsWith("INSERT INTO outbox_events SELECT * FROM outbox_events_default"));
+        order.verify(jdbcTemplate).update(startsWith("DELETE FROM outbox_events_default"));
+        order.verify(jdbcTemplate).execute("ALTER TABLE outbox_events ATTACH PARTITION outbox_events_default DEFAULT");
+        assertThat(meterRegistry.get("outbox.partitions.default.rows").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("should only create the coming partitions while DEFAULT is empty")
+    void should_leave_empty_default_attached() {
+        // Given
+        when(jdbcTemplate.queryForList(startsWith("SELECT child.relname"), eq(String.class), any()))
+                .thenReturn(List.of("outbox_events_default"));
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events_default", Long.class))
+                .thenReturn(0L);
+
+        // When
+        manager.maintainPartitions();
+
+        // Then - today and the 7 days ahead
+        verify(jdbcTemplate, never()).execute(startsWith("ALTER TABLE"));
+        verify(jdbcTemplate, times(8)).execute(startsWith("CREATE TABLE IF NOT EXISTS outbox_events_p"));
+        verify(jdbcTemplate, never()).update(anyString());
+    }
+}
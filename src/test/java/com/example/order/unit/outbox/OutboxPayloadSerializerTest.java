@@ -0,0 +1,121 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.outbox.payload.BinaryOutboxPayloadCodec;
+import com.example.order.infrastructure.outbox.payload.BinaryV1OutboxPayloadCodec;
+import com.example.order.infrastructure.outbox.payload.JsonOutboxPayloadCodec;
+import com.example.order.infrastructure.outbox.payload.OrderCreatedPayload;
+import com.example.order.infrastructure.outbox.payload.OutboxPayloadSerializer;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for outbox payload encoding.
+ */
+@DisplayName("Outbox Payload Serializer Tests")
+class OutboxPayloadSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final OrderCreatedPayload payload = new OrderCreatedPayload(
+            UUID.randomUUID().toString(),
+            "idem-key-001",
+            "台北市信義區信義路五段7號",
+            new BigDecimal("1234.50"),
+            "TWD",
+            List.of(new OrderCreatedPayload.Item("SKU001", 2, new BigDecimal("499.75")),
+                    new OrderCreatedPayload.Item("SKU002", 1, new BigDecimal("235.00"))));
+
+    @Test
+    @DisplayName("should round-trip payload through binary codec")
+    void should_round_trip_binary_payload() {
+        // Given
+        OutboxPayloadSerializer serializer = serializer("binary", 512);
+
+        // When
+        byte[] encoded = serializer.encode(payload);
+
+        // Then
+        assertThat(serializer.decode(encoded)).isEqualTo(payload);
+        assertThat(encoded.length).isLessThan(json(payload).length);
+    }
+
+    @Test
+    @DisplayName("should round-trip null fields and compressed bodies")
+    void should_round_trip_nulls_and_compressed_payload() {
+        // Given
+        OutboxPayloadSerializer serializer = serializer("binary", 0);
+        OrderCreatedPayload sparse = new OrderCreatedPayload(
+                UUID.randomUUID().toString(), null, "A".repeat(2000), null, "TWD", null);
+
+        // When
+        byte[] encoded = serializer.encode(sparse);
+
+        // Then
+        assertThat(encoded.length).isLessThan(2000);
+        assertThat(serializer.decode(encoded)).isEqualTo(sparse);
+    }
+
+    @Test
+    @DisplayName("should read payloads written by another codec")
+    void should_read_payload_written_by_other_codec() {
+        // Given
+        byte[] writtenAsJson = serializer("json", 512).encode(payload);
+
+        // When
+        OrderCreatedPayload decoded = serializer("binary", 512).decode(writtenAsJson);
+
+        // Then
+        assertThat(decoded).isEqualTo(payload);
+    }
+
+    @Test
+    @DisplayName("should read binary payloads written before items were added")
+    void should_read_binary_payload_without_items() {
+        // Given
+        byte[] writtenAsV1 = serializer("binary-v1", 512).encode(payload);
+
+        // When
+        OrderCreatedPayload decoded = serializer("binary", 512).decode(writtenAsV1);
+
+        // Then
+        assertThat(decoded.orderId()).isEqualTo(payload.orderId());
+        assertThat(decoded.totalAmount()).isEqualByComparingTo(payload.totalAmount());
+        assertThat(decoded.items()).isNull();
+        assertThat(decoded.hasItems()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should read legacy JSON text payloads")
+    void should_read_legacy_json_text_payload() {
+        // Given
+        OutboxEvent event = new OutboxEvent();
+        event.setPayload(new String(json(payload), StandardCharsets.UTF_8));
+
+        // When
+        OrderCreatedPayload decoded = serializer("binary", 512).read(event);
+
+        // Then
+        assertThat(decoded).isEqualTo(payload);
+    }
+
+    private OutboxPayloadSerializer serializer(String codec, int compressionThreshold) {
+        return new OutboxPayloadSerializer(
+                List.of(new JsonOutboxPayloadCodec(objectMapper), new BinaryV1OutboxPayloadCodec(),
+                        new BinaryOutboxPayloadCodec()),
+                codec,
+                compressionThreshold);
+    }
+
+    private byte[] json(OrderCreatedPayload value) {
+        return new JsonOutboxPayloadCodec(objectMapper).encode(value);
+    }
+}
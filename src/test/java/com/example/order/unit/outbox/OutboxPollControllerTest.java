@@ -0,0 +1,93 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.outbox.OutboxPollController;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the adaptive outbox poll controller.
+ */
+@DisplayName("Outbox Poll Controller Tests")
+class OutboxPollControllerTest {
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private OutboxPollController controller;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        controller = new OutboxPollController(circuitBreakerRegistry, new SimpleMeterRegistry(),
+                true, 100, 10, 500, 200, 10000, 2000);
+    }
+
+    @Test
+    @DisplayName("should grow batch and shorten interval when batches are full and latency is healthy")
+    void should_speed_up_on_full_batches() {
+        // Given
+        controller.recordLatency(Duration.ofMillis(300));
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            controller.onPollCompleted(controller.getBatchSize(), controller.getBatchSize());
+        }
+
+        // Then
+        assertThat(controller.getBatchSize()).isEqualTo(500);
+        assertThat(controller.getIntervalMs()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("should hold settings when batches are full but downstream is slow")
+    void should_hold_when_latency_is_unhealthy() {
+        // Given
+        controller.recordLatency(Duration.ofSeconds(5));
+
+        // When
+        controller.onPollCompleted(100, 100);
+
+        // Then
+        assertThat(controller.getBatchSize()).isEqualTo(100);
+        assertThat(controller.getIntervalMs()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("should back off toward idle interval when batches are empty")
+    void should_back_off_on_empty_batches() {
+        // Given
+        controller.recordLatency(Duration.ofMillis(300));
+        controller.onPollCompleted(100, 100);
+        controller.onPollCompleted(200, 200);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            controller.onPollCompleted(0, controller.getBatchSize());
+        }
+
+        // Then
+        assertThat(controller.getBatchSize()).isEqualTo(10);
+        assertThat(controller.getIntervalMs()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("should back off while a circuit breaker is open")
+    void should_back_off_when_circuit_is_open() {
+        // Given
+        controller.recordLatency(Duration.ofMillis(300));
+        controller.onPollCompleted(100, 100);
+        circuitBreakerRegistry.circuitBreaker("paymentCB").transitionToOpenState();
+
+        // When
+        controller.onPollCompleted(200, 200);
+
+        // Then
+        assertThat(controller.getBatchSize()).isEqualTo(100);
+        assertThat(controller.getIntervalMs()).isEqualTo(10000);
+    }
+}
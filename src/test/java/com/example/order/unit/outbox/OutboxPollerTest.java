@@ -0,0 +1,70 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.config.ScheduledJobMetrics;
+import com.example.order.infrastructure.outbox.OutboxCircuitGate;
+import com.example.order.infrastructure.outbox.OutboxDispatcher;
+import com.example.order.infrastructure.outbox.OutboxEventClaimer;
+import com.example.order.infrastructure.outbox.OutboxMetrics;
+import com.example.order.infrastructure.outbox.OutboxPollController;
+import com.example.order.infrastructure.outbox.OutboxPoller;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for claiming outbox events while a required circuit breaker is open.
+ */
+@DisplayName("Outbox Poller Tests")
+class OutboxPollerTest {
+
+    private final OutboxEventClaimer claimer = mock(OutboxEventClaimer.class);
+    private final OutboxDispatcher dispatcher = mock(OutboxDispatcher.class);
+    private final OutboxPollController pollController = mock(OutboxPollController.class);
+    private final OutboxCircuitGate circuitGate = mock(OutboxCircuitGate.class);
+
+    @BeforeEach
+    void setUp() {
+        when(pollController.getBatchSize()).thenReturn(50);
+        when(dispatcher.availableCapacity()).thenReturn(100);
+        when(claimer.claimPendingEvents(anyInt())).thenReturn(List.of());
+        // A required circuit breaker is open
+        when(circuitGate.admit(anyInt())).thenReturn(0);
+    }
+
+    @Test
+    @DisplayName("should leave events pending while a required circuit breaker is open")
+    void should_not_claim_while_breaker_open() {
+        // When
+        poller("concurrent").pollAndProcess();
+
+        // Then
+        verify(claimer, never()).claimPendingEvents(anyInt());
+    }
+
+    @Test
+    @DisplayName("should keep claiming in relay mode, which never calls the gated downstreams")
+    void should_claim_in_relay_mode_while_breaker_open() {
+        // When
+        poller("relay").pollAndProcess();
+
+        // Then
+        verify(circuitGate, never()).admit(anyInt());
+        verify(claimer).claimPendingEvents(50);
+    }
+
+    private OutboxPoller poller(String dispatcherMode) {
+        return new OutboxPoller(mock(OutboxRepository.class), claimer, dispatcher, mock(OutboxMetrics.class),
+                pollController, circuitGate, mock(ScheduledJobMetrics.class), mock(TaskScheduler.class),
+                false, dispatcherMode);
+    }
+}
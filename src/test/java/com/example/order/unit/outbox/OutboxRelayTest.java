@@ -0,0 +1,119 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.config.InstanceIdentity;
+import com.example.order.infrastructure.outbox.OutboxMetrics;
+import com.example.order.infrastructure.outbox.OutboxRetryPolicy;
+import com.example.order.infrastructure.outbox.OutboxStatusWriter;
+import com.example.order.infrastructure.outbox.relay.InMemoryOutboxTransport;
+import com.example.order.infrastructure.outbox.relay.OutboxRelay;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import com.example.order.infrastructure.persistence.entity.OutboxEventStatus;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for batched outbox relaying with publisher confirms.
+ */
+@DisplayName("Outbox Relay Tests")
+class OutboxRelayTest {
+
+    private final OutboxRepository outboxRepository = mock(OutboxRepository.class);
+    private final OutboxStatusWriter statusWriter = mock(OutboxStatusWriter.class);
+    private final OutboxRetryPolicy retryPolicy = new OutboxRetryPolicy(3, 5000, 2.0, 300000, 0.5);
+
+    private InMemoryOutboxTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        transport = spy(new InMemoryOutboxTransport(100));
+        when(outboxRepository.markProcessed(anyList(), any(), any(), any()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        when(statusWriter.write(any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        transport.shutdown();
+    }
+
+    @Test
+    @DisplayName("should publish in batches and mark each confirmed batch processed with one update")
+    void should_mark_confirmed_batches_processed() {
+        // Given
+        OutboxRelay relay = relay(10);
+        List<OutboxEvent> events = IntStream.range(0, 25).mapToObj(i -> event("evt-" + i)).toList();
+
+        // When
+        relay.dispatchAll(events);
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(events).allMatch(event -> event.getStatus() == OutboxEventStatus.PROCESSED));
+        assertThat(transport.messages("OrderCreated")).extracting("id")
+                .containsExactlyElementsOf(events.stream().map(OutboxEvent::getId).toList());
+        verify(outboxRepository, times(3)).markProcessed(anyList(), eq(OutboxEventStatus.PROCESSED), any(), eq("pod-1"));
+        verify(statusWriter, never()).write(any());
+    }
+
+    @Test
+    @DisplayName("should schedule every event of an unconfirmed batch for retry")
+    void should_schedule_retry_when_publish_fails() {
+        // Given
+        doReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .when(transport).publish(anyList());
+        OutboxRelay relay = relay(10);
+        List<OutboxEvent> events = List.of(event("evt-1"), event("evt-2"));
+
+        // When
+        relay.dispatchAll(events);
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> verify(statusWriter, times(2)).write(any()));
+        verify(outboxRepository, never()).markProcessed(anyList(), any(), any(), any());
+        assertThat(events).allMatch(event ->
+                event.getStatus() == OutboxEventStatus.PENDING && event.getRetryCount() == 1);
+    }
+
+    private OutboxRelay relay(int batchSize) {
+        return new OutboxRelay(transport, outboxRepository, statusWriter, retryPolicy,
+                mock(OutboxMetrics.class), mock(PlatformTransactionManager.class),
+                new InstanceIdentity("pod-1"), new SimpleMeterRegistry(), batchSize, 4, 1000);
+    }
+
+    private static OutboxEvent event(String id) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setAggregateType("Order");
+        event.setAggregateId("order-" + id);
+        event.setEventType("OrderCreated");
+        event.setPayloadBytes(new byte[]{3, 0});
+        event.setCreatedAt(Instant.now());
+        event.setStatus(OutboxEventStatus.PROCESSING);
+        event.setRetryCount(0);
+        return event;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.outbox.OutboxRetryPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the outbox retry backoff schedule.
+ */
+@DisplayName("Outbox Retry Policy Tests")
+class OutboxRetryPolicyTest {
+
+    private static final Instant FAILED_AT = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    @DisplayName("should retry until max retries is reached")
+    void should_retry_until_max_retries() {
+        // Given
+        OutboxRetryPolicy policy = new OutboxRetryPolicy(3, 1000, 2.0, 60000, 0.0);
+
+        // Then
+        assertThat(policy.shouldRetry(0)).isTrue();
+        assertThat(policy.shouldRetry(2)).isTrue();
+        assertThat(policy.shouldRetry(3)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should double the delay for every retry without jitter")
+    void should_back_off_exponentially() {
+        // Given
+        OutboxRetryPolicy policy = new OutboxRetryPolicy(5, 1000, 2.0, 60000, 0.0);
+
+        // Then
+        assertThat(delay(policy, 0)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(delay(policy, 1)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(delay(policy, 3)).isEqualTo(Duration.ofSeconds(8));
+    }
+
+    @Test
+    @DisplayName("should cap the delay at max delay")
+    void should_cap_delay() {
+        // Given
+        OutboxRetryPolicy policy = new OutboxRetryPolicy(20, 1000, 2.0, 10000, 0.0);
+
+        // Then
+        assertThat(delay(policy, 10)).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("should keep jittered delays within the jitter range")
+    void should_apply_jitter_within_range() {
+        // Given
+        OutboxRetryPolicy policy = new OutboxRetryPolicy(5, 1000, 2.0, 60000, 0.5);
+
+        // When / Then
+        for (int i = 0; i < 100; i++) {
+            assertThat(delay(policy, 2)).isBetween(Duration.ofMillis(2000), Duration.ofMillis(4000));
+        }
+    }
+
+    private static Duration delay(OutboxRetryPolicy policy, int retryCount) {
+        return Duration.between(FAILED_AT, policy.nextAttemptAt(retryCount, FAILED_AT));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.config.ScheduledJobMetrics;
+import com.example.order.infrastructure.config.SchedulingConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Unit tests for running outbox jobs on dedicated schedulers and measuring scheduled jobs.
+ */
+@DisplayName("Outbox Scheduling Tests")
+class OutboxSchedulingTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("should keep polling while a maintenance job is stuck")
+    void should_isolate_poll_from_maintenance() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(SchedulingConfig.class, SchedulingEnabled.class, Jobs.class);
+        context.refresh();
+        Jobs jobs = context.getBean(Jobs.class);
+        try {
+            // Given
+            await().atMost(5, TimeUnit.SECONDS).until(() -> jobs.maintenanceStarted.getCount() == 0);
+            int pollsBefore = jobs.polls.get();
+
+            // Then
+            await().atMost(5, TimeUnit.SECONDS).until(() -> jobs.polls.get() >= pollsBefore + 3);
+            assertThat(jobs.pollThread).startsWith("outbox-poll-");
+            assertThat(jobs.maintenanceThread).startsWith("outbox-maintenance-");
+        } finally {
+            jobs.releaseMaintenance.countDown();
+            context.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should measure run time of every run and lateness from the second run")
+    void should_measure_scheduled_jobs() {
+        // Given
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new MeasuredJob());
+        proxyFactory.addAspect(new ScheduledJobMetrics(meterRegistry,
+                new MockEnvironment().withProperty("job.delay-ms", "60000")));
+        MeasuredJob job = proxyFactory.getProxy();
+
+        // When
+        job.run();
+        job.run();
+
+        // Then
+        assertThat(meterRegistry.get("scheduled.job.duration").tag("job", "MeasuredJob.run").timer().count())
+                .isEqualTo(2);
+        // The second run started before the 60s delay elapsed, so it was not late
+        assertThat(meterRegistry.get("scheduled.job.lateness").tag("job", "MeasuredJob.run").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("scheduled.job.lateness").tag("job", "MeasuredJob.run").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isZero();
+    }
+
+    @Test
+    @DisplayName("should record lateness of jobs that report their own runs")
+    void should_record_reported_lateness() {
+        // Given
+        ScheduledJobMetrics jobMetrics = new ScheduledJobMetrics(meterRegistry, new MockEnvironment());
+        Instant start = Instant.now();
+
+        // When
+        jobMetrics.record("OutboxPoller.pollAndProcess", start.minusMillis(250), start, Duration.ofMillis(10));
+        jobMetrics.record("OutboxPoller.pollAndProcess", null, start, Duration.ofMillis(10));
+
+        // Then
+        assertThat(meterRegistry.get("scheduled.job.duration").tag("job", "OutboxPoller.pollAndProcess").timer()
+                .count()).isEqualTo(2);
+        assertThat(meterRegistry.get("scheduled.job.lateness").tag("job", "OutboxPoller.pollAndProcess").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(250);
+    }
+
+    @Configuration
+    @EnableScheduling
+    static class SchedulingEnabled {
+    }
+
+    static class Jobs {
+
+        final CountDownLatch maintenanceStarted = new CountDownLatch(1);
+        final CountDownLatch releaseMaintenance = new CountDownLatch(1);
+        final AtomicInteger polls = new AtomicInteger();
+        volatile String pollThread;
+        volatile String maintenanceThread;
+
+        @Scheduled(fixedDelay = 10, scheduler = SchedulingConfig.OUTBOX_MAINTENANCE_SCHEDULER)
+        public void maintenance() throws InterruptedException {
+            maintenanceThread = Thread.currentThread().getName();
+            maintenanceStarted.countDown();
+            releaseMaintenance.await();
+        }
+
+        @Scheduled(fixedDelay = 10, scheduler = SchedulingConfig.OUTBOX_POLL_SCHEDULER)
+        public void poll() {
+            pollThread = Thread.currentThread().getName();
+            polls.incrementAndGet();
+        }
+    }
+
+    static class MeasuredJob {
+
+        @Scheduled(fixedDelayString = "${job.delay-ms}")
+        public void run() {
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.config.InstanceIdentity;
+import com.example.order.infrastructure.outbox.OutboxStatusWriter;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import com.example.order.infrastructure.persistence.entity.OutboxEventStatus;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for batching final outbox statuses into set-based updates.
+ */
+@DisplayName("Outbox Status Writer Tests")
+class OutboxStatusWriterTest {
+
+    private static final String OWNER = "pod-a";
+
+    private final OutboxRepository outboxRepository = mock(OutboxRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    // Flushed by reaching the batch size of 2
+    private final OutboxStatusWriter writer = new OutboxStatusWriter(outboxRepository, jdbcTemplate,
+            mock(PlatformTransactionManager.class), new InstanceIdentity(OWNER), 2, TimeUnit.HOURS.toMillis(1));
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    @DisplayName("should write processed events with one update and failed events as one batch, guarded by the lease owner")
+    @SuppressWarnings("unchecked")
+    void should_flush_batch_guarded_by_owner() throws Exception {
+        // Given
+        OutboxEvent processed = claimedEvent("evt-1");
+        processed.markProcessed();
+        OutboxEvent failed = claimedEvent("evt-2");
+        failed.scheduleRetry("payment declined", Instant.now().plusSeconds(5));
+        when(outboxRepository.markProcessed(anyList(), any(), any(), anyString())).thenReturn(1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        // When
+        CompletableFuture<Void> first = writer.write(processed);
+        CompletableFuture<Void> second = writer.write(failed);
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        // Then
+        verify(outboxRepository).markProcessed(eq(List.of("evt-1")), eq(OutboxEventStatus.PROCESSED), any(), eq(OWNER));
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue()).singleElement().satisfies(row -> {
+            assertThat(row[0]).isEqualTo("PENDING");
+            assertThat(row[1]).isEqualTo("payment declined");
+            assertThat(row[4]).isEqualTo("evt-2");
+            assertThat(row[5]).isEqualTo(OWNER);
+        });
+    }
+
+    @Test
+    @DisplayName("should complete the writes when the flush fails, leaving the events to the lease reaper")
+    void should_complete_writes_when_flush_fails() throws Exception {
+        // Given
+        when(outboxRepository.markProcessed(anyList(), any(), any(), anyString()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        OutboxEvent first = claimedEvent("evt-1");
+        first.markProcessed();
+        OutboxEvent second = claimedEvent("evt-2");
+        second.markProcessed();
+
+        // When
+        CompletableFuture<Void> writes = CompletableFuture.allOf(writer.write(first), writer.write(second));
+
+        // Then
+        writes.get(5, TimeUnit.SECONDS);
+        assertThat(writes).isCompletedWithValue(null);
+    }
+
+    private static OutboxEvent claimedEvent(String id) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setAggregateType("Order");
+        event.setAggregateId("order-" + id);
+        event.setEventType("OrderCreated");
+        event.setCreatedAt(Instant.now());
+        event.setRetryCount(0);
+        event.markClaimed(OWNER, Instant.now().plusSeconds(300));
+        return event;
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.config.ScheduledJobMetrics;
+import com.example.order.infrastructure.outbox.OutboxCircuitGate;
+import com.example.order.infrastructure.outbox.OutboxDispatcher;
+import com.example.order.infrastructure.outbox.OutboxEventClaimer;
+import com.example.order.infrastructure.outbox.OutboxEventCreated;
+import com.example.order.infrastructure.outbox.OutboxMetrics;
+import com.example.order.infrastructure.outbox.OutboxPollController;
+import com.example.order.infrastructure.outbox.OutboxPoller;
+import com.example.order.infrastructure.outbox.PostgresOutboxNotifier;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import com.example.order.infrastructure.persistence.repository.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for waking the outbox poller after commit, on freed capacity and over NOTIFY.
+ */
+@DisplayName("Outbox Wakeup Tests")
+class OutboxWakeupTest {
+
+    private static final OutboxEventCreated EVENT = new OutboxEventCreated("evt-1", "OrderCreated", "ORD-1");
+
+    private final OutboxEventClaimer claimer = mock(OutboxEventClaimer.class);
+    private final OutboxDispatcher dispatcher = mock(OutboxDispatcher.class);
+    private final OutboxPollController pollController = mock(OutboxPollController.class);
+    private final OutboxCircuitGate circuitGate = mock(OutboxCircuitGate.class);
+    private final TaskScheduler pollScheduler = mock(TaskScheduler.class);
+
+    @BeforeEach
+    void setUp() {
+        when(pollController.getBatchSize()).thenReturn(2);
+        when(dispatcher.availableCapacity()).thenReturn(100);
+        when(circuitGate.admit(anyInt())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("should coalesce wakeups until the queued poll runs")
+    void should_coalesce_wakeups() {
+        // Given
+        when(claimer.claimPendingEvents(anyInt())).thenReturn(List.of());
+        OutboxPoller poller = poller();
+
+        // When
+        poller.wakeUp();
+        poller.wakeUp();
+
+        // Then
+        ArgumentCaptor<Runnable> poll = ArgumentCaptor.forClass(Runnable.class);
+        verify(pollScheduler).schedule(poll.capture(), any(Instant.class));
+
+        // When the queued poll runs, the next wakeup schedules another one
+        poll.getValue().run();
+        poller.wakeUp();
+
+        // Then
+        verify(claimer).claimPendingEvents(2);
+        verify(pollScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("should poll again on freed capacity only while the last claim came back full")
+    void should_wake_on_capacity_after_full_claim() {
+        // Given
+        when(claimer.claimPendingEvents(anyInt()))
+                .thenReturn(List.of(new OutboxEvent(), new OutboxEvent()))
+                .thenReturn(List.of());
+        OutboxPoller poller = poller();
+        ArgumentCaptor<Runnable> capacityListener = ArgumentCaptor.forClass(Runnable.class);
+        verify(dispatcher).onCapacityAvailable(capacityListener.capture());
+
+        // When the claim fills the batch
+        poller.pollAndProcess();
+        capacityListener.getValue().run();
+
+        // Then
+        verify(pollScheduler).schedule(any(Runnable.class), any(Instant.class));
+
+        // When the next claim drains the backlog
+        poller.pollAndProcess();
+        capacityListener.getValue().run();
+
+        // Then no further poll is requested
+        verify(pollScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("should wake the poller only after the outbox transaction commits")
+    void should_wake_after_commit() {
+        try (AnnotationConfigApplicationContext context = context()) {
+            TransactionTemplate transactionTemplate =
+                    new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            // When
+            transactionTemplate.executeWithoutResult(status -> {
+                context.publishEvent(EVENT);
+
+                // Then nothing is polled before commit
+                verify(pollScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+            });
+
+            // Then
+            verify(pollScheduler).schedule(any(Runnable.class), any(Instant.class));
+        }
+    }
+
+    @Test
+    @DisplayName("should not wake the poller when the outbox transaction rolls back")
+    void should_not_wake_after_rollback() {
+        try (AnnotationConfigApplicationContext context = context()) {
+            TransactionTemplate transactionTemplate =
+                    new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            // When
+            transactionTemplate.executeWithoutResult(status -> {
+                context.publishEvent(EVENT);
+                status.setRollbackOnly();
+            });
+
+            // Then
+            verify(pollScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+        }
+    }
+
+    @Test
+    @DisplayName("should send a NOTIFY on the configured channel on PostgreSQL")
+    void should_notify_on_postgres() {
+        // Given
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        PostgresOutboxNotifier notifier = notifier(jdbcTemplate, "jdbc:postgresql://localhost/orders", "outbox_events");
+
+        // When
+        notifier.onOutboxEventCreated(EVENT);
+
+        // Then
+        verify(jdbcTemplate).queryForList("SELECT pg_notify(?, ?)", "outbox_events", "OrderCreated");
+    }
+
+    @Test
+    @DisplayName("should not NOTIFY on databases other than PostgreSQL")
+    void should_not_notify_on_other_databases() {
+        // Given
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        PostgresOutboxNotifier notifier = notifier(jdbcTemplate, "jdbc:h2:mem:orders", "outbox_events");
+
+        // When
+        notifier.start();
+        notifier.onOutboxEventCreated(EVENT);
+
+        // Then
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("should reject a channel name that is not a plain identifier")
+    void should_reject_invalid_channel() {
+        assertThatThrownBy(() -> notifier(mock(JdbcTemplate.class), "jdbc:postgresql://localhost/orders",
+                "outbox; DROP TABLE orders"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private OutboxPoller poller() {
+        return new OutboxPoller(mock(OutboxRepository.class), claimer, dispatcher, mock(OutboxMetrics.class),
+                pollController, circuitGate, mock(ScheduledJobMetrics.class), pollScheduler,
+                false, "concurrent");
+    }
+
+    @SuppressWarnings("unchecked")
+    private PostgresOutboxNotifier notifier(JdbcTemplate jdbcTemplate, String url, String channel) {
+        DataSourceProperties dataSourceProperties = mock(DataSourceProperties.class);
+        when(dataSourceProperties.determineUrl()).thenReturn(url);
+        return new PostgresOutboxNotifier(jdbcTemplate, dataSourceProperties,
+                mock(ObjectProvider.class), channel);
+    }
+
+    private AnnotationConfigApplicationContext context() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean(OutboxPoller.class, this::poller);
+        context.register(TransactionConfig.class);
+        context.refresh();
+        return context;
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionConfig {
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new DataSourceTransactionManager(new DriverManagerDataSource("jdbc:h2:mem:outbox-wakeup"));
+        }
+    }
+}
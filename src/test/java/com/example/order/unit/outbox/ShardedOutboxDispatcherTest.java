@@ -0,0 +1,234 @@
+package com.example.order.unit.outbox;
+
+import com.example.order.infrastructure.outbox.OutboxEventProcessor;
+import com.example.order.infrastructure.outbox.ShardedOutboxDispatcher;
+import com.example.order.infrastructure.outbox.handler.OutboxEventHandler;
+import com.example.order.infrastructure.outbox.handler.OutboxHandlerRegistry;
+import com.example.order.infrastructure.persistence.entity.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for per-aggregate ordering in the sharded outbox dispatcher.
+ */
+@DisplayName("Sharded Outbox Dispatcher Tests")
+class ShardedOutboxDispatcherTest {
+
+    private final List<String> processed = new CopyOnWriteArrayList<>();
+    private final Map<String, AtomicInteger> inFlightPerAggregate = new ConcurrentHashMap<>();
+    private final AtomicBoolean overlapDetected = new AtomicBoolean(false);
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final AtomicInteger maxInFlight = new AtomicInteger(0);
+    // Events with this id block until the latch is released
+    private final CountDownLatch blocker = new CountDownLatch(1);
+
+    private final OutboxEventProcessor processor = mock(OutboxEventProcessor.class);
+
+    private ShardedOutboxDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        blocker.countDown();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("should_process_events_of_same_order_sequentially_in_dispatch_order")
+    void should_process_events_of_same_order_sequentially_in_dispatch_order() {
+        // Given
+        dispatcher = dispatcher(16);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch(event("A-" + i, "order-A"));
+            dispatcher.dispatch(event("B-" + i, "order-B"));
+        }
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> processed.size() == 10);
+        assertThat(processed.stream().filter(id -> id.startsWith("A-")).toList())
+                .containsExactly("A-0", "A-1", "A-2", "A-3", "A-4");
+        assertThat(processed.stream().filter(id -> id.startsWith("B-")).toList())
+                .containsExactly("B-0", "B-1", "B-2", "B-3", "B-4");
+        assertThat(overlapDetected).isFalse();
+    }
+
+    @Test
+    @DisplayName("should_keep_order_when_rebalancing_to_different_shard_count")
+    void should_keep_order_when_rebalancing_to_different_shard_count() {
+        // Given
+        dispatcher = dispatcher(16);
+        for (int i = 0; i < 20; i++) {
+            dispatcher.dispatch(event("A-" + i, "order-A"));
+        }
+
+        // When
+        dispatcher.resize(7);
+        for (int i = 20; i < 25; i++) {
+            dispatcher.dispatch(event("A-" + i, "order-A"));
+        }
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> processed.size() == 25);
+        assertThat(dispatcher.getShardCount()).isEqualTo(7);
+        assertThat(processed).isSortedAccordingTo((a, b) ->
+                Integer.compare(Integer.parseInt(a.substring(2)), Integer.parseInt(b.substring(2))));
+        assertThat(overlapDetected).isFalse();
+    }
+
+    @Test
+    @DisplayName("should_not_run_more_events_of_a_type_than_its_handler_allows_across_shards")
+    void should_limit_events_of_a_type_to_handler_concurrency() {
+        // Given
+        dispatcher = dispatcher(2);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            dispatcher.dispatch(event("E-" + i, "order-" + i));
+        }
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> processed.size() == 20);
+        assertThat(maxInFlight.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should_resize_without_waiting_for_in_flight_events")
+    void should_resize_without_waiting_for_in_flight_events() {
+        // Given - the first event of order-A blocks
+        dispatcher = dispatcher(16);
+        dispatcher.dispatch(event("blocked", "order-A"));
+        dispatcher.dispatch(event("A-1", "order-A"));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> inFlight.get() == 1);
+
+        // When
+        dispatcher.resize(7);
+        dispatcher.dispatch(event("A-2", "order-A"));
+
+        // Then - the new shards wait for the in-flight event before starting
+        assertThat(dispatcher.getShardCount()).isEqualTo(7);
+        assertThat(processed).isEmpty();
+
+        blocker.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> processed.size() == 3);
+        assertThat(processed).containsExactly("blocked", "A-1", "A-2");
+        assertThat(overlapDetected).isFalse();
+    }
+
+    @Test
+    @DisplayName("should_keep_claiming_for_other_shards_and_defer_events_of_a_full_shard")
+    void should_defer_events_of_full_shard() {
+        // Given - order-A's shard is stuck behind a blocked event with a full queue
+        dispatcher = dispatcher(16);
+        dispatcher.dispatch(event("blocked", "order-A"));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> inFlight.get() == 1);
+        for (int i = 0; i < 64; i++) {
+            dispatcher.dispatch(event("A-" + i, "order-A"));
+        }
+
+        // When
+        OutboxEvent overflow = event("A-64", "order-A");
+        dispatcher.dispatch(overflow);
+
+        // Then - the other 3 shards still take a full queue each
+        assertThat(dispatcher.availableCapacity()).isEqualTo(3 * 64);
+        verify(processor).defer(eq(overflow), anyString(), any(Instant.class));
+    }
+
+    private ShardedOutboxDispatcher dispatcher(int handlerConcurrency) {
+        when(processor.process(any(OutboxEventHandler.class), anyList())).thenAnswer(invocation -> {
+            List<OutboxEvent> events = invocation.getArgument(1);
+            OutboxEvent event = events.get(0);
+            AtomicInteger aggregateInFlight = inFlightPerAggregate
+                    .computeIfAbsent(event.getAggregateId(), key -> new AtomicInteger());
+            if (aggregateInFlight.incrementAndGet() > 1) {
+                overlapDetected.set(true);
+            }
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.runAsync(() -> {
+                if (event.getId().equals("blocked")) {
+                    awaitRelease(blocker);
+                }
+                sleep(5);
+                processed.add(event.getId());
+                inFlight.decrementAndGet();
+                aggregateInFlight.decrementAndGet();
+            });
+        });
+        OutboxHandlerRegistry registry = new OutboxHandlerRegistry(List.of(handler(handlerConcurrency)));
+        return new ShardedOutboxDispatcher(processor, registry, new SimpleMeterRegistry(), 4, 64);
+    }
+
+    private static OutboxEventHandler handler(int maxConcurrency) {
+        return new OutboxEventHandler() {
+            @Override
+            public String eventType() {
+                return "OrderCreated";
+            }
+
+            @Override
+            public CompletableFuture<Void> handle(OutboxEvent event) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public int maxConcurrency() {
+                return maxConcurrency;
+            }
+
+            @Override
+            public Duration timeout() {
+                return Duration.ofSeconds(30);
+            }
+        };
+    }
+
+    private static OutboxEvent event(String id, String aggregateId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setAggregateId(aggregateId);
+        event.setEventType("OrderCreated");
+        event.setCreatedAt(Instant.now());
+        return event;
+    }
+
+    private static void awaitRelease(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.order.unit.persistence;
+
+import com.example.order.application.dto.CreateOrderCommand;
+import com.example.order.application.dto.OrderResult;
+import com.example.order.infrastructure.persistence.OrderIngestionPipeline;
+import com.example.order.infrastructure.persistence.OrderPersistenceService;
+import com.example.order.infrastructure.persistence.OrderPersistenceService.NewOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for committing accepted orders in groups.
+ */
+@DisplayName("Order Ingestion Pipeline Tests")
+class OrderIngestionPipelineTest {
+
+    private final OrderPersistenceService persistenceService = mock(OrderPersistenceService.class);
+
+    private OrderIngestionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        // Groups of 3, waiting up to 1s for them to fill, completed by 2 threads
+        pipeline = new OrderIngestionPipeline(persistenceService, Optional.empty(), new SimpleMeterRegistry(),
+                true, 3, 1_000_000, 100, 2);
+        pipeline.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pipeline.shutdown();
+    }
+
+    @Test
+    @DisplayName("should commit the orders of a failed group one by one so only the bad order fails")
+    void should_fall_back_to_single_orders_when_group_fails() throws Exception {
+        // Given - the order with key "bad" violates a constraint
+        when(persistenceService.createOrdersWithOutbox(anyList())).thenAnswer(invocation -> {
+            List<NewOrder> orders = invocation.getArgument(0);
+            if (orders.stream().anyMatch(order -> order.idempotencyKey().equals("bad"))) {
+                throw new DataIntegrityViolationException("duplicate idempotency key");
+            }
+            return orders.stream().map(order -> result(order.idempotencyKey())).toList();
+        });
+
+        // When
+        CompletableFuture<OrderResult> first = pipeline.submit(command(), "good-1");
+        CompletableFuture<OrderResult> bad = pipeline.submit(command(), "bad");
+        CompletableFuture<OrderResult> second = pipeline.submit(command(), "good-2");
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS).orderId()).isEqualTo("good-1");
+        assertThat(second.get(5, TimeUnit.SECONDS).orderId()).isEqualTo("good-2");
+        assertThat(bad).failsWithin(5, TimeUnit.SECONDS)
+                .withThrowableThat()
+                .withCauseInstanceOf(DataIntegrityViolationException.class);
+        verify(persistenceService).createOrdersWithOutbox(argThat(orders -> orders.size() == 3));
+        verify(persistenceService, times(3)).createOrdersWithOutbox(argThat(orders -> orders.size() == 1));
+    }
+
+    @Test
+    @DisplayName("should commit a full group in one transaction")
+    void should_commit_group_once() throws Exception {
+        // Given
+        when(persistenceService.createOrdersWithOutbox(anyList())).thenAnswer(invocation -> {
+            List<NewOrder> orders = invocation.getArgument(0);
+            return orders.stream().map(order -> result(order.idempotencyKey())).toList();
+        });
+
+        // When
+        List<CompletableFuture<OrderResult>> results = List.of(
+                pipeline.submit(command(), "key-1"),
+                pipeline.submit(command(), "key-2"),
+                pipeline.submit(command(), "key-3"));
+
+        // Then
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS).orderId()).isEqualTo("key-" + (i + 1));
+        }
+        verify(persistenceService, times(1)).createOrdersWithOutbox(anyList());
+    }
+
+    @Test
+    @DisplayName("should commit the next group while a caller's continuation is still running")
+    void should_not_delay_next_group_for_slow_continuation() throws Exception {
+        // Given
+        when(persistenceService.createOrdersWithOutbox(anyList())).thenAnswer(invocation -> {
+            List<NewOrder> orders = invocation.getArgument(0);
+            return orders.stream().map(order -> result(order.idempotencyKey())).toList();
+        });
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<OrderResult> slow = pipeline.submit(command(), "key-1");
+        CompletableFuture<Void> continuation = slow.thenAccept(result -> awaitRelease(release));
+        pipeline.submit(command(), "key-2");
+        pipeline.submit(command(), "key-3");
+
+        // When
+        List<CompletableFuture<OrderResult>> next = List.of(
+                pipeline.submit(command(), "key-4"),
+                pipeline.submit(command(), "key-5"),
+                pipeline.submit(command(), "key-6"));
+
+        // Then
+        CompletableFuture.allOf(next.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(continuation).isNotDone();
+        verify(persistenceService, times(2)).createOrdersWithOutbox(anyList());
+        release.countDown();
+        continuation.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void awaitRelease(CountDownLatch release) {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static CreateOrderCommand command() {
+        return new CreateOrderCommand(
+                List.of(new CreateOrderCommand.OrderItemDto("SKU001", 1, new BigDecimal("100.00"))),
+                "台北市信義區信義路五段7號");
+    }
+
+    private static OrderResult result(String orderId) {
+        return OrderResult.success(orderId, "PENDING", new BigDecimal("100.00"), "TWD", null, Instant.now());
+    }
+}
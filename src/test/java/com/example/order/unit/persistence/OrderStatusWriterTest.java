@@ -0,0 +1,84 @@
+package com.example.order.unit.persistence;
+
+import com.example.order.infrastructure.persistence.OrderStatusWriter;
+import com.example.order.infrastructure.persistence.entity.OrderStatusEnum;
+import com.example.order.infrastructure.persistence.repository.OrderJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the group-committed order status writer.
+ */
+@DisplayName("Order Status Writer Tests")
+class OrderStatusWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Only durable states trigger a flush within a test
+    private final OrderStatusWriter writer = new OrderStatusWriter(
+            mock(OrderJpaRepository.class), jdbcTemplate, mock(PlatformTransactionManager.class), meterRegistry,
+            true, 100, TimeUnit.HOURS.toMillis(1),
+            List.of(OrderStatusEnum.PROCESSING, OrderStatusEnum.PAYMENT_COMPLETED,
+                    OrderStatusEnum.COMPLETED, OrderStatusEnum.FAILED));
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    @DisplayName("should write only the latest status of an order and wait for durable states")
+    @SuppressWarnings("unchecked")
+    void should_coalesce_transitions_and_flush_durable_state() throws Exception {
+        // Given
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        // When
+        CompletableFuture<Boolean> reserved = writer.transition("ORD-1", OrderStatusEnum.INVENTORY_RESERVED, null);
+        CompletableFuture<Boolean> paid = writer.paymentCompleted("ORD-1", "TXN-1");
+
+        // Then
+        assertThat(reserved).isCompletedWithValue(true);
+        assertThat(paid.get(5, TimeUnit.SECONDS)).isTrue();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(sql.capture(), rows.capture());
+        assertThat(sql.getValue()).contains("'PROCESSING'", "'INVENTORY_RESERVED'").doesNotContain("'PENDING'");
+        assertThat(rows.getValue()).hasSize(1);
+        assertThat(rows.getValue().get(0)[0]).isEqualTo("PAYMENT_COMPLETED");
+        assertThat(meterRegistry.get("orders.status.coalesced").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should report a transition the order's current status does not allow")
+    @SuppressWarnings("unchecked")
+    void should_report_rejected_transition() throws Exception {
+        // Given
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{0});
+
+        // When
+        CompletableFuture<Boolean> completed = writer.completed("ORD-2", "TRK-1", "訂單完成");
+
+        // Then
+        assertThat(completed.get(5, TimeUnit.SECONDS)).isFalse();
+    }
+}
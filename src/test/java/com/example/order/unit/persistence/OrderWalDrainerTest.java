@@ -0,0 +1,137 @@
+package com.example.order.unit.persistence;
+
+import com.example.order.application.dto.CreateOrderCommand;
+import com.example.order.infrastructure.persistence.OrderPersistenceService;
+import com.example.order.infrastructure.persistence.OrderPersistenceService.NewOrder;
+import com.example.order.infrastructure.persistence.entity.QuarantinedOrder;
+import com.example.order.infrastructure.persistence.repository.OrderJpaRepository;
+import com.example.order.infrastructure.persistence.repository.QuarantinedOrderRepository;
+import com.example.order.infrastructure.persistence.wal.OrderWalDrainer;
+import com.example.order.infrastructure.persistence.wal.OrderWriteAheadLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for draining the order write-ahead log into the database.
+ */
+@DisplayName("Order WAL Drainer Tests")
+class OrderWalDrainerTest {
+
+    @TempDir
+    Path directory;
+
+    private final OrderPersistenceService persistenceService = mock(OrderPersistenceService.class);
+    private final QuarantinedOrderRepository quarantineRepository = mock(QuarantinedOrderRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OrderWriteAheadLog wal;
+    private OrderWalDrainer drainer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        wal = new OrderWriteAheadLog(meterRegistry, directory.toString(), 4096);
+        drainer = new OrderWalDrainer(wal, persistenceService, mock(OrderJpaRepository.class),
+                quarantineRepository, meterRegistry, 200, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        drainer.shutdown();
+        wal.close();
+    }
+
+    @Test
+    @DisplayName("should quarantine an order the database rejects and drain the orders behind it")
+    void should_quarantine_rejected_order() {
+        // Given
+        NewOrder poison = newOrder();
+        NewOrder healthy = newOrder();
+        when(persistenceService.createOrdersWithOutbox(anyList())).thenAnswer(invocation -> {
+            List<NewOrder> orders = invocation.getArgument(0);
+            if (orders.stream().anyMatch(order -> order.orderId().equals(poison.orderId()))) {
+                throw new DataIntegrityViolationException("duplicate idempotency key");
+            }
+            return List.of();
+        });
+        wal.append(List.of(poison, healthy));
+
+        // When
+        drainer.start();
+
+        // Then
+        await().atMost(Duration.ofSeconds(5)).until(() -> wal.getBacklog() == 0);
+        ArgumentCaptor<QuarantinedOrder> entry = ArgumentCaptor.forClass(QuarantinedOrder.class);
+        verify(quarantineRepository).save(entry.capture());
+        assertThat(entry.getValue().getOrderId()).isEqualTo(poison.orderId());
+        assertThat(entry.getValue().getErrorMessage()).contains("duplicate idempotency key");
+        verify(persistenceService).createOrdersWithOutbox(argThat(orders ->
+                orders.size() == 1 && orders.get(0).orderId().equals(healthy.orderId())));
+        assertThat(meterRegistry.get("orders.wal.quarantined").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should keep retrying the batch while the database is unavailable")
+    void should_retry_while_database_unavailable() {
+        // Given
+        when(persistenceService.createOrdersWithOutbox(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        wal.append(List.of(newOrder()));
+
+        // When
+        drainer.start();
+
+        // Then
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                verify(persistenceService, atLeast(4)).createOrdersWithOutbox(anyList()));
+        verify(quarantineRepository, never()).save(any());
+        assertThat(wal.getBacklog()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should reject an order the orders table cannot store before acknowledging it")
+    void should_reject_order_exceeding_column_size() {
+        // Given
+        CreateOrderCommand command = new CreateOrderCommand(
+                List.of(new CreateOrderCommand.OrderItemDto("SKU001", 1, new BigDecimal("100.00"))),
+                "台".repeat(501));
+        NewOrder order = new NewOrder(command, UUID.randomUUID().toString()).withAssignedId();
+
+        // When / Then
+        assertThatThrownBy(() -> wal.append(List.of(order)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ShippingAddress");
+        assertThat(wal.getBacklog()).isZero();
+    }
+
+    private static NewOrder newOrder() {
+        CreateOrderCommand command = new CreateOrderCommand(
+                List.of(new CreateOrderCommand.OrderItemDto("SKU001", 2, new BigDecimal("100.00"))),
+                "台北市信義區信義路五段7號");
+        return new NewOrder(command, UUID.randomUUID().toString()).withAssignedId();
+    }
+}
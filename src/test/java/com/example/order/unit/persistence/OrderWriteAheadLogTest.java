@@ -0,0 +1,108 @@
+package com.example.order.unit.persistence;
+
+import com.example.order.application.dto.CreateOrderCommand;
+import com.example.order.application.dto.OrderResult;
+import com.example.order.infrastructure.persistence.OrderPersistenceService.NewOrder;
+import com.example.order.infrastructure.persistence.wal.OrderWriteAheadLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the order write-ahead log.
+ */
+@DisplayName("Order Write-Ahead Log Tests")
+class OrderWriteAheadLogTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should acknowledge appended orders as pending with their assigned id")
+    void should_acknowledge_appended_orders() throws Exception {
+        // Given
+        OrderWriteAheadLog wal = open();
+        NewOrder order = newOrder();
+
+        // When
+        List<OrderResult> results = wal.append(List.of(order));
+
+        // Then
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).orderId()).isEqualTo(order.orderId());
+        assertThat(results.get(0).status()).isEqualTo("PENDING");
+        assertThat(results.get(0).totalAmount()).isEqualByComparingTo("200.00");
+        assertThat(wal.getBacklog()).isEqualTo(1);
+        wal.close();
+    }
+
+    @Test
+    @DisplayName("should recover undrained orders across segments after a restart")
+    void should_recover_undrained_orders_after_restart() throws Exception {
+        // Given
+        OrderWriteAheadLog wal = open();
+        List<NewOrder> orders = IntStream.range(0, 50).mapToObj(i -> newOrder()).toList();
+        wal.append(orders);
+        wal.close();
+
+        // When
+        OrderWriteAheadLog reopened = open();
+
+        // Then
+        assertThat(reopened.getBacklog()).isEqualTo(50);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.filter(path -> path.toString().endsWith(".wal")).count()).isGreaterThan(1);
+        }
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("should write nothing of a group that contains a rejected order")
+    void should_reject_whole_group_with_oversized_order() throws Exception {
+        // Given - enough orders to span several segments, then one the orders table cannot store
+        OrderWriteAheadLog wal = open();
+        List<NewOrder> orders = new ArrayList<>(IntStream.range(0, 50).mapToObj(i -> newOrder()).toList());
+        orders.add(newOrder("台北市".repeat(200)));
+
+        // When
+        assertThatThrownBy(() -> wal.append(orders)).isInstanceOf(IllegalArgumentException.class);
+        wal.append(List.of(newOrder()));
+        wal.close();
+
+        // Then
+        assertThat(wal.getBacklog()).isEqualTo(1);
+        OrderWriteAheadLog reopened = open();
+        assertThat(reopened.getBacklog()).isEqualTo(1);
+        reopened.close();
+    }
+
+    private OrderWriteAheadLog open() throws Exception {
+        return new OrderWriteAheadLog(new SimpleMeterRegistry(), directory.toString(), SEGMENT_SIZE);
+    }
+
+    private NewOrder newOrder() {
+        return newOrder("台北市信義區信義路五段7號");
+    }
+
+    private NewOrder newOrder(String shippingAddress) {
+        CreateOrderCommand command = new CreateOrderCommand(
+                List.of(new CreateOrderCommand.OrderItemDto("SKU001", 2, new BigDecimal("100.00"))),
+                shippingAddress);
+        return new NewOrder(command, UUID.randomUUID().toString()).withAssignedId();
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.order.unit.saga;
+
+import com.example.order.application.port.out.InventoryPort;
+import com.example.order.application.port.out.InventoryPort.SkuQuantity;
+import com.example.order.infrastructure.exception.NonRetryableServiceException;
+import com.example.order.infrastructure.exception.RetryableServiceException;
+import com.example.order.infrastructure.persistence.entity.InventoryRelease;
+import com.example.order.infrastructure.persistence.repository.InventoryReleaseRepository;
+import com.example.order.infrastructure.saga.InventoryCompensationQueue;
+import com.example.order.infrastructure.service.JobLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the batched, durable inventory compensation queue.
+ */
+@DisplayName("Inventory Compensation Queue Tests")
+class InventoryCompensationQueueTest {
+
+    private final InventoryPort inventoryPort = mock(InventoryPort.class);
+    private final InventoryReleaseRepository releaseRepository = mock(InventoryReleaseRepository.class);
+    private final JobLockService jobLockService = mock(JobLockService.class);
+
+    // Flushed explicitly by the tests
+    private final InventoryCompensationQueue queue = new InventoryCompensationQueue(
+            inventoryPort, releaseRepository, jobLockService, mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(), 100, TimeUnit.HOURS.toMillis(1), TimeUnit.HOURS.toMillis(1));
+
+    @BeforeEach
+    void setUp() {
+        when(jobLockService.runLocked(anyString(), any(), any(), any()))
+                .thenAnswer(invocation -> Optional.ofNullable(invocation.<Supplier<?>>getArgument(3).get()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+    }
+
+    @Test
+    @DisplayName("should store every released SKU of an order")
+    @SuppressWarnings("unchecked")
+    void should_store_releases() {
+        // When
+        queue.enqueue("ORD-1", List.of(SkuQuantity.of("SKU001", 2), SkuQuantity.of("SKU002", 1)));
+
+        // Then
+        ArgumentCaptor<List<InventoryRelease>> rows = ArgumentCaptor.forClass(List.class);
+        verify(releaseRepository).saveAll(rows.capture());
+        assertThat(rows.getValue()).extracting(InventoryRelease::getSkuCode).containsExactly("SKU001", "SKU002");
+        assertThat(rows.getValue()).allMatch(InventoryRelease::isNew);
+        assertThat(queue.getBacklog()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should release the quantities of several orders per SKU in one call and then delete them")
+    @SuppressWarnings("unchecked")
+    void should_coalesce_releases_per_sku() {
+        // Given
+        InventoryRelease first = new InventoryRelease("ORD-1", "SKU001", 2);
+        InventoryRelease second = new InventoryRelease("ORD-1", "SKU002", 1);
+        InventoryRelease third = new InventoryRelease("ORD-2", "SKU001", 3);
+        when(releaseRepository.findOldest(any())).thenReturn(List.of(first, second, third));
+        when(inventoryPort.releaseInventory(anyString(), anyList())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        queue.flush().join();
+
+        // Then - the release id is stored on the rows before the call
+        ArgumentCaptor<String> releaseId = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List<SkuQuantity>> releases = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(releaseRepository, inventoryPort);
+        inOrder.verify(releaseRepository).assignRelease(releaseId.capture(),
+                eq(List.of(first.getId(), third.getId(), second.getId())));
+        inOrder.verify(inventoryPort, times(1)).releaseInventory(eq(releaseId.getValue()), releases.capture());
+        assertThat(releases.getValue()).containsExactly(SkuQuantity.of("SKU001", 5), SkuQuantity.of("SKU002", 1));
+        inOrder.verify(releaseRepository).deleteByIds(List.of(first.getId(), third.getId(), second.getId()));
+    }
+
+    @Test
+    @DisplayName("should keep releases stored when the inventory service is unavailable")
+    void should_keep_failed_release() {
+        // Given
+        when(releaseRepository.findOldest(any())).thenReturn(List.of(new InventoryRelease("ORD-1", "SKU001", 2)));
+        when(releaseRepository.sumQuantity()).thenReturn(2L);
+        when(inventoryPort.releaseInventory(anyString(), anyList())).thenReturn(CompletableFuture.failedFuture(
+                new RetryableServiceException("inventory", 503, "unavailable")));
+
+        // When
+        queue.flush().join();
+
+        // Then
+        verify(releaseRepository, never()).deleteByIds(anyList());
+        assertThat(queue.getBacklog()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should send a release with an unknown outcome again under the same id and quantities")
+    void should_resend_release_under_same_id() {
+        // Given - both rows were sent as release rel-1 before, one of them is past this flush's page
+        InventoryRelease first = new InventoryRelease("ORD-1", "SKU001", 2);
+        first.setReleaseId("rel-1");
+        InventoryRelease second = new InventoryRelease("ORD-2", "SKU001", 3);
+        second.setReleaseId("rel-1");
+        when(releaseRepository.findOldest(any())).thenReturn(List.of(first));
+        when(releaseRepository.findByReleaseIdIn(Set.of("rel-1"))).thenReturn(List.of(first, second));
+        when(inventoryPort.releaseInventory(anyString(), anyList())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        queue.flush().join();
+
+        // Then
+        verify(inventoryPort).releaseInventory("rel-1", List.of(SkuQuantity.of("SKU001", 5)));
+        verify(releaseRepository, never()).assignRelease(anyString(), anyList());
+        verify(releaseRepository).deleteByIds(List.of(first.getId(), second.getId()));
+    }
+
+    @Test
+    @DisplayName("should send each SKU of a rejected release on its own instead of dropping the batch")
+    void should_split_rejected_release_per_sku() {
+        // Given
+        InventoryRelease first = new InventoryRelease("ORD-1", "SKU001", 2);
+        InventoryRelease second = new InventoryRelease("ORD-2", "SKU002", 1);
+        when(releaseRepository.findOldest(any())).thenReturn(List.of(first, second));
+        when(inventoryPort.releaseInventory(anyString(), anyList())).thenReturn(CompletableFuture.failedFuture(
+                new NonRetryableServiceException("inventory", 400, "unknown SKU")));
+
+        // When
+        queue.flush().join();
+
+        // Then - each row gets its own release id, nothing is deleted
+        verify(releaseRepository).assignRelease(anyString(), eq(List.of(first.getId(), second.getId())));
+        verify(releaseRepository).assignRelease(anyString(), eq(List.of(first.getId())));
+        verify(releaseRepository).assignRelease(anyString(), eq(List.of(second.getId())));
+        verify(releaseRepository, never()).deleteByIds(anyList());
+    }
+
+    @Test
+    @DisplayName("should delete a single SKU the inventory service rejects")
+    void should_drop_rejected_release() {
+        // Given
+        InventoryRelease release = new InventoryRelease("ORD-1", "SKU001", 2);
+        when(releaseRepository.findOldest(any())).thenReturn(List.of(release));
+        when(inventoryPort.releaseInventory(anyString(), anyList())).thenReturn(CompletableFuture.failedFuture(
+                new NonRetryableServiceException("inventory", 400, "unknown SKU")));
+
+        // When
+        queue.flush().join();
+
+        // Then
+        verify(releaseRepository).deleteByIds(List.of(release.getId()));
+    }
+
+    @Test
+    @DisplayName("should tell whether a release sent right away is still stored")
+    void should_report_pending_release() {
+        // Given - the stored row is not deleted, e.g. because the inventory service is down
+        when(releaseRepository.existsByIdIn(anyList())).thenReturn(true);
+
+        // When
+        boolean released = queue.release("ref-1", List.of(SkuQuantity.of("SKU001", 2))).join();
+
+        // Then
+        assertThat(released).isFalse();
+        verify(releaseRepository).findOldest(any());
+    }
+
+    @Test
+    @DisplayName("should store a release sent right away off the calling thread")
+    void should_store_release_off_caller_thread() {
+        // Given
+        AtomicReference<String> storingThread = new AtomicReference<>();
+        when(releaseRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            storingThread.set(Thread.currentThread().getName());
+            return invocation.getArgument(0);
+        });
+
+        // When
+        queue.release("ref-1", List.of(SkuQuantity.of("SKU001", 2))).join();
+
+        // Then
+        assertThat(storingThread.get()).startsWith("inventory-compensation-");
+    }
+
+    @Test
+    @DisplayName("should not release while another instance holds the flush lock")
+    void should_skip_flush_without_lock() {
+        // Given
+        when(jobLockService.runLocked(anyString(), any(), any(), any())).thenReturn(Optional.empty());
+
+        // When
+        queue.flush().join();
+
+        // Then
+        verify(releaseRepository, never()).findOldest(any());
+        verify(inventoryPort, never()).releaseInventory(anyString(), anyList());
+    }
+}
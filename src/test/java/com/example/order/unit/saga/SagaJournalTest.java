@@ -0,0 +1,44 @@
+package com.example.order.unit.saga;
+
+import com.example.order.infrastructure.persistence.entity.SagaStep;
+import com.example.order.infrastructure.persistence.entity.SagaStepEntry;
+import com.example.order.infrastructure.persistence.repository.SagaStepRepository;
+import com.example.order.infrastructure.saga.SagaJournal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for recording saga steps in the journal.
+ */
+@DisplayName("Saga Journal Tests")
+class SagaJournalTest {
+
+    private final SagaStepRepository repository = mock(SagaStepRepository.class);
+    private final SagaJournal journal = new SagaJournal(repository, true, 168);
+
+    @Test
+    @DisplayName("should insert the reservations of all items with one save")
+    @SuppressWarnings("unchecked")
+    void should_record_all_items_at_once() {
+        // When
+        journal.recordAll("order-1", SagaStep.INVENTORY_RESERVED, Map.of(0, "10", 1, "4"));
+
+        // Then
+        ArgumentCaptor<List<SagaStepEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).saveAll(entries.capture());
+        assertThat(entries.getValue())
+                .extracting(SagaStepEntry::getId)
+                .containsExactlyInAnyOrder("order-1:INVENTORY_RESERVED:0", "order-1:INVENTORY_RESERVED:1");
+        // New entries are persisted without a merge lookup
+        assertThat(entries.getValue()).allMatch(SagaStepEntry::isNew);
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.order.unit.saga;
+
+import com.example.order.application.port.out.InventoryPort;
+import com.example.order.application.port.out.InventoryPort.InventoryReservationResult;
+import com.example.order.application.port.out.InventoryPort.SkuQuantity;
+import com.example.order.application.port.out.PaymentPort;
+import com.example.order.application.port.out.PaymentPort.PaymentResult;
+import com.example.order.application.port.out.ShippingPort;
+import com.example.order.application.port.out.ShippingPort.ShippingResult;
+import com.example.order.infrastructure.exception.BusinessException;
+import com.example.order.infrastructure.exception.ServiceUnavailableException;
+import com.example.order.infrastructure.outbox.payload.OrderCreatedPayload;
+import com.example.order.infrastructure.persistence.OrderStatusWriter;
+import com.example.order.infrastructure.persistence.entity.OrderEntity;
+import com.example.order.infrastructure.persistence.entity.OrderStatusEnum;
+import com.example.order.infrastructure.persistence.entity.SagaStep;
+import com.example.order.infrastructure.persistence.mapper.OrderPersistenceMapper;
+import com.example.order.infrastructure.persistence.repository.OrderJpaRepository;
+import com.example.order.infrastructure.saga.InventoryCompensationQueue;
+import com.example.order.infrastructure.saga.SagaJournal;
+import com.example.order.infrastructure.saga.SagaOrchestrator;
+import com.example.order.infrastructure.saga.SagaProgress;
+import com.example.order.infrastructure.saga.SagaResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for resuming the order saga from its step journal.
+ */
+@DisplayName("Saga Orchestrator Tests")
+class SagaOrchestratorTest {
+
+    private static final String ORDER_ID = "order-1";
+
+    private final OrderJpaRepository orderRepository = mock(OrderJpaRepository.class);
+    private final OrderStatusWriter statusWriter = mock(OrderStatusWriter.class);
+    private final InventoryPort inventoryPort = mock(InventoryPort.class);
+    private final PaymentPort paymentPort = mock(PaymentPort.class);
+    private final ShippingPort shippingPort = mock(ShippingPort.class);
+    private final SagaJournal sagaJournal = mock(SagaJournal.class);
+    private final InventoryCompensationQueue compensationQueue = mock(InventoryCompensationQueue.class);
+
+    private SagaOrchestrator orchestrator;
+
+    @BeforeEach
+    void setUp() {
+        when(orderRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(statusWriter.transition(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(true));
+        when(statusWriter.paymentCompleted(anyString(), any())).thenReturn(CompletableFuture.completedFuture(true));
+        when(statusWriter.completed(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(true));
+        when(inventoryPort.reserveAll(anyList()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(
+                        InventoryReservationResult.success("SKU001", 10),
+                        InventoryReservationResult.success("SKU002", 10))));
+        when(paymentPort.processPayment(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(PaymentResult.success("TXN-1", "ok")));
+        when(shippingPort.createShipment(any(), any(), anyList()))
+                .thenReturn(CompletableFuture.completedFuture(ShippingResult.created("TRK-1", "ok")));
+        orchestrator = new SagaOrchestrator(orderRepository, statusWriter, mock(OrderPersistenceMapper.class),
+                inventoryPort, paymentPort, shippingPort, sagaJournal, compensationQueue,
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    @DisplayName("should record every completed step on a first run")
+    void should_record_completed_steps() {
+        // Given
+        when(sagaJournal.load(ORDER_ID)).thenReturn(SagaProgress.empty());
+
+        // When
+        SagaResult result = orchestrator.executeSaga(payload()).join();
+
+        // Then
+        assertThat(result.success()).isTrue();
+        verify(sagaJournal).recordAll(ORDER_ID, SagaStep.INVENTORY_RESERVED, Map.of(0, "10", 1, "10"));
+        verify(sagaJournal).record(ORDER_ID, SagaStep.PAYMENT_CHARGED, null, "TXN-1");
+        verify(sagaJournal).record(ORDER_ID, SagaStep.SHIPMENT_CREATED, null, "TRK-1");
+        verify(statusWriter).paymentCompleted(ORDER_ID, "TXN-1");
+        verify(statusWriter).completed(ORDER_ID, "TRK-1", "訂單完成");
+    }
+
+    @Test
+    @DisplayName("should not call any downstream when the order is already completed")
+    void should_skip_saga_for_completed_order() {
+        // Given
+        OrderEntity completed = new OrderEntity();
+        completed.setId(ORDER_ID);
+        completed.setStatus(OrderStatusEnum.COMPLETED);
+        completed.setTrackingNumber("TRK-0");
+        when(statusWriter.transition(ORDER_ID, OrderStatusEnum.PROCESSING, null)).thenReturn(CompletableFuture.completedFuture(false));
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(completed));
+
+        // When
+        SagaResult result = orchestrator.executeSaga(payload()).join();
+
+        // Then
+        assertThat(result.success()).isTrue();
+        assertThat(result.trackingNumber()).isEqualTo("TRK-0");
+        verify(inventoryPort, never()).reserveAll(anyList());
+        verify(paymentPort, never()).processPayment(any(), any(), any());
+        verify(shippingPort, never()).createShipment(any(), any(), anyList());
+    }
+
+    @Test
+    @DisplayName("should only call the downstreams of incomplete steps when resuming")
+    void should_resume_from_first_incomplete_step() {
+        // Given - inventory reserved and payment charged by an earlier run
+        when(sagaJournal.load(ORDER_ID)).thenReturn(new SagaProgress(Map.of(0, 10, 1, 4), "TXN-0", null));
+
+        // When
+        SagaResult result = orchestrator.executeSaga(payload()).join();
+
+        // Then
+        assertThat(result.success()).isTrue();
+        assertThat(result.trackingNumber()).isEqualTo("TRK-1");
+        verify(inventoryPort, never()).reserveAll(anyList());
+        verify(paymentPort, never()).processPayment(any(), any(), any());
+        verify(shippingPort).createShipment(any(), any(), anyList());
+    }
+
+    @Test
+    @DisplayName("should reserve only the items not reserved by an earlier run")
+    void should_reserve_only_missing_items() {
+        // Given
+        when(sagaJournal.load(ORDER_ID)).thenReturn(new SagaProgress(Map.of(0, 10), null, null));
+
+        // When
+        orchestrator.executeSaga(payload()).join();
+
+        // Then
+        verify(inventoryPort).reserveAll(List.of(SkuQuantity.of("SKU002", 1)));
+    }
+
+    @Test
+    @DisplayName("should forget reservations when the payment fails so a retry reserves again")
+    void should_forget_reservations_after_compensation() {
+        // Given
+        when(sagaJournal.load(ORDER_ID)).thenReturn(SagaProgress.empty());
+        when(paymentPort.processPayment(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(PaymentResult.failure(null, "declined")));
+
+        // When
+        SagaResult result = orchestrator.executeSaga(payload()).join();
+
+        // Then
+        assertThat(result.success()).isFalse();
+        verify(sagaJournal).forget(ORDER_ID, SagaStep.INVENTORY_RESERVED);
+        verify(sagaJournal, never()).record(eq(ORDER_ID), eq(SagaStep.PAYMENT_CHARGED), any(), any());
+    }
+
+    @Test
+    @DisplayName("should queue the reserved items for release when the payment fails")
+    void should_queue_release_after_payment_failure() {
+        // Given
+        when(sagaJournal.load(ORDER_ID)).thenReturn(SagaProgress.empty());
+        when(paymentPort.processPayment(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(PaymentResult.failure(null, "declined")));
+
+        // When
+        orchestrator.executeSaga(payload()).join();
+
+        // Then
+        verify(compensationQueue).enqueue(ORDER_ID, List.of(SkuQuantity.of("SKU001", 2), SkuQuantity.of("SKU002", 1)));
+    }
+
+    @Test
+    @DisplayName("should release the reserved items when the payment call fails")
+    void should_queue_release_when_payment_call_fails() {
+        // Given
+        when(sagaJournal.load(ORDER_ID)).thenReturn(SagaProgress.empty());
+        when(paymentPort.processPayment(any(), any(), any())).thenReturn(CompletableFuture.failedFuture(
+                new ServiceUnavailableException("payment", "Payment service is temporarily unavailable")));
+
+        // When
+        SagaResult result = orchestrator.executeSaga(payload()).join();
+
+        // Then
+        assertThat(result.success()).isFalse();
+        assertThat(result.cause()).hasRootCauseInstanceOf(ServiceUnavailableException.class);
+        verify(compensationQueue).enqueue(ORDER_ID, List.of(SkuQuantity.of("SKU001", 2), SkuQuantity.of("SKU002", 1)));
+        verify(sagaJournal).forget(ORDER_ID, SagaStep.INVENTORY_RESERVED);
+        verify(statusWriter).transition(eq(ORDER_ID), eq(OrderStatusEnum.FAILED), any());
+    }
+
+    @Test
+    @DisplayName("should not release inventory when the saga fails after the payment was charged")
+    void should_keep_inventory_when_failing_after_payment() {
+        // Given
+        when(sagaJournal.load(ORDER_ID)).thenReturn(SagaProgress.empty());
+        when(shippingPort.createShipment(any(), any(), anyList()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+
+        // When
+        SagaResult result = orchestrator.executeSaga(payload()).join();
+
+        // Then
+        assertThat(result.success()).isFalse();
+        verify(compensationQueue, never()).enqueue(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("should release the items reserved by an earlier run when the reservation fails")
+    void should_release_earlier_reservations_when_reservation_fails() {
+        // Given
+        when(sagaJournal.load(ORDER_ID)).thenReturn(new SagaProgress(Map.of(0, 10), null, null));
+        when(inventoryPort.reserveAll(anyList())).thenReturn(CompletableFuture.failedFuture(
+                new BusinessException("INSUFFICIENT_STOCK", "out of stock")));
+
+        // When
+        SagaResult result = orchestrator.executeSaga(payload()).join();
+
+        // Then
+        assertThat(result.success()).isFalse();
+        verify(compensationQueue).enqueue(ORDER_ID, List.of(SkuQuantity.of("SKU001", 2)));
+        verify(paymentPort, never()).processPayment(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should release the items reserved by this run when their journal entry cannot be written")
+    void should_release_reservations_when_journal_fails() {
+        // Given - item 0 reserved by an earlier run, item 1 reserved now but not journaled
+        when(sagaJournal.load(ORDER_ID)).thenReturn(new SagaProgress(Map.of(0, 10), null, null));
+        when(inventoryPort.reserveAll(anyList())).thenReturn(CompletableFuture.completedFuture(List.of(
+                InventoryReservationResult.success("SKU002", 9))));
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(sagaJournal).recordAll(eq(ORDER_ID), eq(SagaStep.INVENTORY_RESERVED), any());
+
+        // When
+        SagaResult result = orchestrator.executeSaga(payload()).join();
+
+        // Then
+        assertThat(result.success()).isFalse();
+        verify(compensationQueue).enqueue(ORDER_ID, List.of(SkuQuantity.of("SKU002", 1)));
+        verify(compensationQueue).enqueue(ORDER_ID, List.of(SkuQuantity.of("SKU001", 2)));
+        verify(paymentPort, never()).processPayment(any(), any(), any());
+    }
+
+    private static OrderCreatedPayload payload() {
+        return new OrderCreatedPayload(ORDER_ID, "key-1", "台北市信義區", new BigDecimal("3500.00"), "TWD",
+                List.of(new OrderCreatedPayload.Item("SKU001", 2, new BigDecimal("1500.00")),
+                        new OrderCreatedPayload.Item("SKU002", 1, new BigDecimal("500.00"))));
+    }
+}
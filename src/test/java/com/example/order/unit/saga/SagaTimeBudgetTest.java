@@ -0,0 +1,39 @@
+package com.example.order.unit.saga;
+
+import com.example.order.infrastructure.saga.SagaTimeBudget;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the saga's downstream time budget.
+ */
+@DisplayName("Saga Time Budget Tests")
+class SagaTimeBudgetTest {
+
+    @Test
+    @DisplayName("should add up every attempt's call timeout and the waits between attempts")
+    void should_sum_retried_call_timeouts() {
+        // Given - 3 attempts 500ms apart, shipping limited to 3s per call
+        RetryRegistry retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(500))
+                .build());
+        TimeLimiterRegistry timeLimiterRegistry = TimeLimiterRegistry.of(TimeLimiterConfig.custom()
+                .timeoutDuration(Duration.ofSeconds(3))
+                .build());
+
+        // When
+        SagaTimeBudget budget = new SagaTimeBudget(retryRegistry, timeLimiterRegistry, 2000, 4000, 8000, 3000);
+
+        // Then - inventory 3 x 6s + 1s, payment 3 x 10s + 1s, shipping 3 x 3s + 1s
+        assertThat(budget.total()).isEqualTo(Duration.ofMillis(19000 + 31000 + 10000));
+    }
+}